@@ -0,0 +1,175 @@
+package rcs.benchmarks;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import javax.swing.JPanel;
+
+/**
+ * 程序类都在默认包里，具名包中的基准无法直接 import，这里用 MethodHandle 桥接。
+ * 句柄是 static final 且参数已擦除为 Object，JIT 会把 invokeExact 内联成直接调用，基本不引入额外开销。
+ * 调用处的实参和返回值必须按擦除后的类型书写（引用一律 Object），否则 invokeExact 会抛 WrongMethodTypeException。
+ */
+final class App {
+    /** (File) -> DataReader */
+    static final MethodHandle NEW_DATA_READER = constructor("DataReader", File.class);
+    /** (DataReader) -> RcsTable */
+    static final MethodHandle READ_ALL_DATA = method("DataReader", "readAllData", "RcsTable");
+    /** (RcsTable) -> int */
+    static final MethodHandle TABLE_SIZE = method("RcsTable", "size", int.class);
+
+    /** (RcsTable) -> InterpolationEngine */
+    static final MethodHandle NEW_ENGINE = constructor("InterpolationEngine", "RcsTable");
+    /** (InterpolationEngine, double, double, double, double, double) -> double */
+    static final MethodHandle CALCULATE_RCS = method("InterpolationEngine", "calculateRCS", double.class,
+            double.class, double.class, double.class, double.class, double.class);
+    /** (InterpolationEngine, double, double, double, double, double, double, double) -> InterpolationEngine.FrequencySweep */
+    static final MethodHandle CALCULATE_FREQUENCY_SWEEP = method("InterpolationEngine", "calculateFrequencySweep",
+            "InterpolationEngine$FrequencySweep", double.class, double.class, double.class, double.class,
+            double.class, double.class, double.class);
+    /** (InterpolationEngine, double, double, double, CutAxis, double, double, double, double) -> InterpolationEngine.PatternCut */
+    static final MethodHandle CALCULATE_PATTERN_CUT = method("InterpolationEngine", "calculatePatternCut",
+            "InterpolationEngine$PatternCut", double.class, double.class, double.class, "InterpolationEngine$CutAxis",
+            double.class, double.class, double.class, double.class);
+    /** (InterpolationEngine, InterpolationEngine.ObservationMode) -> void */
+    static final MethodHandle SET_OBSERVATION_MODE = method("InterpolationEngine", "setObservationMode", void.class,
+            "InterpolationEngine$ObservationMode");
+    /** (InterpolationEngine, RcsResultCache) -> void */
+    static final MethodHandle SET_RESULT_CACHE = method("InterpolationEngine", "setResultCache", void.class,
+            "RcsResultCache");
+    /** (int) -> RcsResultCache */
+    static final MethodHandle NEW_RESULT_CACHE = constructor("RcsResultCache", int.class);
+
+    /** (double, double, double) -> double[] */
+    static final MethodHandle SPHERICAL_TO_CARTESIAN = staticMethod("CoordinateTransformer", "sphericalToCartesian",
+            double[].class, double.class, double.class, double.class);
+    /** (double, double, double) -> double[] */
+    static final MethodHandle CARTESIAN_TO_SPHERICAL = staticMethod("CoordinateTransformer", "cartesianToSpherical",
+            double[].class, double.class, double.class, double.class);
+    /** (double, double, double, double, double, double) -> double[] */
+    static final MethodHandle ROTATE_COORDINATES = staticMethod("CoordinateTransformer", "rotateCoordinates",
+            double[].class, double.class, double.class, double.class, double.class, double.class, double.class);
+    /** (double, double, double) -> CoordinateTransformer.Rotation */
+    static final MethodHandle ROTATION_FROM_ANGLES = erasedStaticMethod("CoordinateTransformer$Rotation",
+            "fromAngles", "CoordinateTransformer$Rotation", double.class, double.class, double.class);
+    /** (CoordinateTransformer.Rotation, double[], double[], int) -> void */
+    static final MethodHandle ROTATION_APPLY = method("CoordinateTransformer$Rotation", "apply", void.class,
+            double[].class, double[].class, int.class);
+    /** (double) -> CoordinateTransformer.TrigTable */
+    static final MethodHandle NEW_TRIG_TABLE = constructor("CoordinateTransformer$TrigTable", double.class);
+    /** (double[], double[], double[], int, double[], CoordinateTransformer.TrigTable) -> void */
+    static final MethodHandle SPHERICAL_TO_CARTESIAN_BATCH = erasedStaticMethod("CoordinateTransformer",
+            "sphericalToCartesian", void.class, double[].class, double[].class, double[].class, int.class,
+            double[].class, "CoordinateTransformer$TrigTable");
+
+    /** (RcsTable, InterpolationEngine) -> VisualizationPanel */
+    static final MethodHandle NEW_VISUALIZATION_PANEL = constructor("VisualizationPanel",
+            "RcsTable", "InterpolationEngine");
+
+    /** 仓库自带的 CST 数据目录，可用 -Drcs.benchmark.data 覆盖 */
+    static final File REAL_DATA_DIRECTORY = new File(System.getProperty("rcs.benchmark.data",
+            "稳定版1/cst仿真结果txt文件/cst仿真结果txt文件"));
+
+    private App() {
+    }
+
+    static Object loadTable(File dataDirectory) throws Throwable {
+        Object reader = NEW_DATA_READER.invokeExact((Object) dataDirectory);
+        return READ_ALL_DATA.invokeExact(reader);
+    }
+
+    static Object newEngine(Object table, String observationMode) throws Throwable {
+        Object engine = NEW_ENGINE.invokeExact(table);
+        SET_OBSERVATION_MODE.invokeExact(engine, observationMode(observationMode));
+        return engine;
+    }
+
+    static JPanel newVisualizationPanel(Object table, Object engine) throws Throwable {
+        Object panel = NEW_VISUALIZATION_PANEL.invokeExact(table, engine);
+        return (JPanel) panel;
+    }
+
+    /**
+     * 加载和绘制时的进度日志会淹没基准输出，测量期间丢弃标准输出。
+     */
+    static void silenceStdout() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object observationMode(String name) {
+        return Enum.valueOf((Class) type("InterpolationEngine$ObservationMode"), name);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object cutAxis(String name) {
+        return Enum.valueOf((Class) type("InterpolationEngine$CutAxis"), name);
+    }
+
+    private static MethodHandle constructor(String className, Object... parameterTypes) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().findConstructor(type(className),
+                    MethodType.methodType(void.class, types(parameterTypes)));
+            return handle.asType(handle.type().erase());
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle method(String className, String name, Object returnType, Object... parameterTypes) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().findVirtual(type(className), name,
+                    MethodType.methodType(type(returnType), types(parameterTypes)));
+            return handle.asType(handle.type().erase());
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle staticMethod(String className, String name, Class<?> returnType,
+                                             Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.publicLookup().findStatic(type(className), name,
+                    MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle erasedStaticMethod(String className, String name, Object returnType,
+                                                   Object... parameterTypes) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().findStatic(type(className), name,
+                    MethodType.methodType(type(returnType), types(parameterTypes)));
+            return handle.asType(handle.type().erase());
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static Class<?>[] types(Object[] specs) {
+        Class<?>[] types = new Class<?>[specs.length];
+        for (int i = 0; i < specs.length; i++) {
+            types[i] = type(specs[i]);
+        }
+        return types;
+    }
+
+    /**
+     * 类型既可以直接给 Class，也可以给默认包中的类名。
+     */
+    private static Class<?> type(Object spec) {
+        if (spec instanceof Class) {
+            return (Class<?>) spec;
+        }
+        try {
+            return Class.forName((String) spec, false, App.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package rcs.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CoordinateTransformer 各转换函数的单次耗时，输入取预生成的随机角度与向量。
+ * 批量版本每次处理 SIZE 个点，结果按每个点折算，可与单点版本直接比较。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinateTransformerBenchmark {
+    private static final int SIZE = 1 << 12;
+
+    private double[] values;
+    private int cursor;
+
+    // 批量版本的输入输出：整度网格上的观测角（与 CST 数据一致）和按 x, y, z 排列的点
+    private double[] gridThetas;
+    private double[] gridPhis;
+    private double[] points;
+    private double[] rotated;
+    private Object rotation;
+    private Object trigTable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        values = new double[SIZE * 6];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble(-360.0, 360.0);
+        }
+
+        gridThetas = new double[SIZE];
+        gridPhis = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            gridThetas[i] = random.nextInt(181);
+            gridPhis[i] = random.nextInt(360);
+        }
+        points = new double[SIZE * 3];
+        rotated = new double[SIZE * 3];
+        System.arraycopy(values, 0, points, 0, points.length);
+        try {
+            rotation = App.ROTATION_FROM_ANGLES.invokeExact(values[0], values[1], values[2]);
+            trigTable = App.NEW_TRIG_TABLE.invokeExact(1.0);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public double[] sphericalToCartesian() throws Throwable {
+        int i = next();
+        return (double[]) App.SPHERICAL_TO_CARTESIAN.invokeExact(1.0, values[i], values[i + 1]);
+    }
+
+    @Benchmark
+    public double[] cartesianToSpherical() throws Throwable {
+        int i = next();
+        return (double[]) App.CARTESIAN_TO_SPHERICAL.invokeExact(values[i], values[i + 1], values[i + 2]);
+    }
+
+    @Benchmark
+    public double[] rotateCoordinates() throws Throwable {
+        int i = next();
+        return (double[]) App.ROTATE_COORDINATES.invokeExact(values[i], values[i + 1], values[i + 2],
+                values[i + 3], values[i + 4], values[i + 5]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double[] rotateBatch() throws Throwable {
+        App.ROTATION_APPLY.invokeExact(rotation, (Object) points, (Object) rotated, SIZE);
+        return rotated;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double[] sphericalToCartesianBatch() throws Throwable {
+        App.SPHERICAL_TO_CARTESIAN_BATCH.invokeExact((Object) null, (Object) gridThetas, (Object) gridPhis, SIZE,
+                (Object) rotated, (Object) null);
+        return rotated;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double[] sphericalToCartesianBatchTable() throws Throwable {
+        App.SPHERICAL_TO_CARTESIAN_BATCH.invokeExact((Object) null, (Object) gridThetas, (Object) gridPhis, SIZE,
+                (Object) rotated, trigTable);
+        return rotated;
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = (i + 6) % values.length;
+        return i;
+    }
+}
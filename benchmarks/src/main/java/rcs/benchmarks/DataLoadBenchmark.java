@@ -0,0 +1,109 @@
+package rcs.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DataReader.readAllData 的加载耗时。
+ * real 使用仓库自带的数据；synthetic 把每个方向的文件按 scale 倍复制到新频率上，模拟更大的 CST 导出目录。
+ * snapshot=false 测文本解析，snapshot=true 测映射二进制快照（快照在 setup 中预先写好）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DataLoadBenchmark {
+    @Param({"real", "synthetic"})
+    public String source;
+
+    @Param({"8"})
+    public int scale;
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    private File dataDirectory;
+    private Path syntheticDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        App.silenceStdout();
+        System.setProperty("rcs.snapshot", String.valueOf(snapshot));
+        if ("synthetic".equals(source)) {
+            syntheticDirectory = Files.createTempDirectory("rcs-synthetic");
+            createSyntheticDirectory(App.REAL_DATA_DIRECTORY.toPath(), syntheticDirectory, scale);
+            dataDirectory = syntheticDirectory.toFile();
+        } else {
+            dataDirectory = App.REAL_DATA_DIRECTORY;
+        }
+        if (!dataDirectory.isDirectory()) {
+            throw new IllegalStateException("找不到数据目录 " + dataDirectory.getAbsolutePath()
+                    + "，请在仓库根目录运行或用 -Drcs.benchmark.data 指定");
+        }
+        // 预读一次：确认数据可用，snapshot=true 时顺带写出快照
+        App.loadTable(dataDirectory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (syntheticDirectory != null) {
+            try (Stream<Path> paths = Files.walk(syntheticDirectory)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public Object readAllData() throws Throwable {
+        return App.loadTable(dataDirectory);
+    }
+
+    /**
+     * 把 "方向k f=F.txt" 复制为 F, F+100, F+200 ... 共 scale 个频率。
+     */
+    private static void createSyntheticDirectory(Path realDirectory, Path target, int scale) throws IOException {
+        for (int direction = 1; direction <= 8; direction++) {
+            Path directionDirectory = realDirectory.resolve("方向" + direction);
+            if (!Files.isDirectory(directionDirectory)) {
+                continue;
+            }
+            Path targetDirectory = Files.createDirectories(target.resolve("方向" + direction));
+            try (Stream<Path> files = Files.list(directionDirectory)) {
+                for (Path file : (Iterable<Path>) files.filter(p -> p.toString().endsWith(".txt"))::iterator) {
+                    String name = file.getFileName().toString();
+                    double frequency = Double.parseDouble(name.substring(name.indexOf("f=") + 2, name.length() - 4));
+                    for (int copy = 0; copy < scale; copy++) {
+                        String copyName = String.format("方向%d f=%s.txt", direction,
+                                stripZeros(frequency + 100.0 * copy));
+                        Files.copy(file, targetDirectory.resolve(copyName));
+                    }
+                }
+            }
+        }
+    }
+
+    private static String stripZeros(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
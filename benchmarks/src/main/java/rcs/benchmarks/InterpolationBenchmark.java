@@ -0,0 +1,119 @@
+package rcs.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * InterpolationEngine.calculateRCS 的单次查询耗时。
+ * randomAngles：每次调用取预生成的随机查询，几乎不重复（冷输入）；
+ * warmRepeated：反复查询同一小组参数并开启结果缓存（热输入）；
+ * firstQuery：新建引擎后的第一次查询，包含建索引的开销；
+ * frequencySweep：随机几何下 5~30 MHz、步长 0.025 MHz 的 1001 点扫频，与 randomAngles 对比即可看出相当于几次单点查询。
+ * patternCut：随机频率和入射方向下观测方位角 0~360°、步长 0.1° 的 3601 点切面。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class InterpolationBenchmark {
+    private static final int RANDOM_QUERIES = 1 << 16;
+    private static final int WARM_QUERIES = 16;
+
+    @Param({"NEAREST", "BILINEAR"})
+    public String observationMode;
+
+    private Object table;
+    private Object engine;
+    private Object cachedEngine;
+    private Object phiCut;
+    private double[] randomQueries;
+    private double[] warmQueries;
+    private int randomCursor;
+    private int warmCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        App.silenceStdout();
+        table = App.loadTable(App.REAL_DATA_DIRECTORY);
+        engine = App.newEngine(table, observationMode);
+        cachedEngine = App.newEngine(table, observationMode);
+        phiCut = App.cutAxis("PHI");
+        App.SET_RESULT_CACHE.invokeExact(cachedEngine, (Object) App.NEW_RESULT_CACHE.invokeExact(4096));
+
+        SplittableRandom random = new SplittableRandom(42);
+        randomQueries = queries(random, RANDOM_QUERIES);
+        warmQueries = queries(random, WARM_QUERIES);
+    }
+
+    @Benchmark
+    public double randomAngles() throws Throwable {
+        int offset = randomCursor;
+        randomCursor = (offset + 5) % randomQueries.length;
+        return (double) App.CALCULATE_RCS.invokeExact(engine, randomQueries[offset], randomQueries[offset + 1],
+                randomQueries[offset + 2], randomQueries[offset + 3], randomQueries[offset + 4]);
+    }
+
+    @Benchmark
+    public double warmRepeated() throws Throwable {
+        int offset = warmCursor;
+        warmCursor = (offset + 5) % warmQueries.length;
+        return (double) App.CALCULATE_RCS.invokeExact(cachedEngine, warmQueries[offset], warmQueries[offset + 1],
+                warmQueries[offset + 2], warmQueries[offset + 3], warmQueries[offset + 4]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public double firstQuery() throws Throwable {
+        Object fresh = App.newEngine(table, observationMode);
+        return (double) App.CALCULATE_RCS.invokeExact(fresh, randomQueries[0], randomQueries[1],
+                randomQueries[2], randomQueries[3], randomQueries[4]);
+    }
+
+    @Benchmark
+    public Object frequencySweep() throws Throwable {
+        int offset = randomCursor;
+        randomCursor = (offset + 5) % randomQueries.length;
+        return (Object) App.CALCULATE_FREQUENCY_SWEEP.invokeExact(engine, 5.0, 30.0, 0.025, randomQueries[offset + 1],
+                randomQueries[offset + 2], randomQueries[offset + 3], randomQueries[offset + 4]);
+    }
+
+    @Benchmark
+    public Object patternCut() throws Throwable {
+        int offset = randomCursor;
+        randomCursor = (offset + 5) % randomQueries.length;
+        return (Object) App.CALCULATE_PATTERN_CUT.invokeExact(engine, randomQueries[offset],
+                randomQueries[offset + 1], randomQueries[offset + 2], phiCut, randomQueries[offset + 3],
+                0.0, 360.0, 0.1);
+    }
+
+    /**
+     * 频率在数据范围内，四个角度在整个周期内均匀分布。
+     */
+    private static double[] queries(SplittableRandom random, int count) {
+        double[] queries = new double[count * 5];
+        for (int q = 0; q < count; q++) {
+            queries[q * 5] = random.nextDouble(5.0, 30.0);
+            for (int field = 1; field < 5; field++) {
+                queries[q * 5 + field] = random.nextDouble(0.0, 360.0);
+            }
+        }
+        return queries;
+    }
+}
@@ -0,0 +1,72 @@
+package rcs.benchmarks;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JPanel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * VisualizationPanel 离屏绘制到 BufferedImage 的耗时，在无图形环境下运行。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+    private static final int WIDTH = 900;
+    private static final int HEIGHT = 700;
+
+    private JPanel panel;
+    private BufferedImage image;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        App.silenceStdout();
+        Object table = App.loadTable(App.REAL_DATA_DIRECTORY);
+        panel = App.newVisualizationPanel(table, App.newEngine(table, "NEAREST"));
+        panel.setSize(WIDTH, HEIGHT);
+        layoutTree(panel);
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    }
+
+    @Benchmark
+    public BufferedImage paintPanel() {
+        Graphics2D g = image.createGraphics();
+        try {
+            // printAll 不经过 RepaintManager 的双缓冲，直接画到给定的 Graphics
+            panel.printAll(g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * 没有窗口时 validate() 不会布局子组件，逐层手动 doLayout。
+     */
+    private static void layoutTree(Container container) {
+        container.doLayout();
+        for (Component child : container.getComponents()) {
+            if (child instanceof Container) {
+                layoutTree((Container) child);
+            }
+        }
+    }
+}
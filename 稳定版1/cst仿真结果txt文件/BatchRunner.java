@@ -0,0 +1,399 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 无界面的批量计算模式，供没有图形环境的 Linux 构建机使用。
+ * 加载数据后按块读取查询、调用 InterpolationEngine.calculateRCSBatch、立即写出结果，
+ * 内存占用只与块大小有关，与查询总数无关。
+ *
+ * 输入格式：
+ * <ul>
+ *   <li>csv：每行 频率,入射俯仰角,入射方位角,观测俯仰角,观测方位角（逗号或空白分隔），
+ *       空行和 # 开头的行跳过，首行非数字时视为表头；输出每行为输入的五列加 RCS。</li>
+ *   <li>binary：大端 double 流，每 5 个为一次查询；输出为每次查询一个大端 double。</li>
+ * </ul>
+ */
+public class BatchRunner {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "用法: java RCSCalculator --batch [选项]",
+            "  --input <文件|->       查询文件，- 表示标准输入（默认 -）",
+            "  --output <文件|->      结果文件，- 表示标准输出（默认 -）",
+            "  --format <csv|binary>  输入输出格式，默认按输入文件扩展名判断（.bin 为 binary，否则 csv）",
+            "  --threads <n>          计算和加载线程数，默认为 CPU 核数",
+            "  --chunk <n>            每块查询数，默认 65536",
+            "  --mode <nearest|bilinear>  观测角取值方式，默认 nearest",
+            "  --incident <grid|spherical>  入射方向插值方式，默认 grid；spherical 适合不规则分布的入射方向",
+            "  --lazy <MB>            按需加载切片，常驻数据不超过给定内存，适合放不进堆的大数据集");
+
+    private static final int FIELDS = 5;
+
+    private String input = "-";
+    private String output = "-";
+    private String format;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = 65536;
+    private InterpolationEngine.ObservationMode mode = InterpolationEngine.ObservationMode.NEAREST;
+    private InterpolationEngine.IncidentMode incidentMode = InterpolationEngine.IncidentMode.GRID;
+    // 按需加载的常驻内存上限 (MB)，0 表示一次性全部加载
+    private int lazyMegabytes;
+
+    /**
+     * 命令行参数中是否要求批量模式。
+     */
+    public static boolean isBatchMode(String[] args) {
+        for (String arg : args) {
+            if ("--batch".equals(arg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 运行批量模式，返回进程退出码。
+     */
+    public static int run(String[] args) {
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        try {
+            runner.execute();
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("批量计算失败: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--batch":
+                    break;
+                case "--input":
+                    input = value(args, ++i, arg);
+                    break;
+                case "--output":
+                    output = value(args, ++i, arg);
+                    break;
+                case "--format":
+                    format = value(args, ++i, arg).toLowerCase(Locale.ROOT);
+                    if (!format.equals("csv") && !format.equals("binary")) {
+                        throw new IllegalArgumentException("未知格式: " + format);
+                    }
+                    break;
+                case "--threads":
+                    threads = positiveInt(value(args, ++i, arg), arg);
+                    break;
+                case "--chunk":
+                    chunkSize = positiveInt(value(args, ++i, arg), arg);
+                    break;
+                case "--mode":
+                    String modeName = value(args, ++i, arg);
+                    if ("bilinear".equalsIgnoreCase(modeName)) {
+                        mode = InterpolationEngine.ObservationMode.BILINEAR;
+                    } else if ("nearest".equalsIgnoreCase(modeName)) {
+                        mode = InterpolationEngine.ObservationMode.NEAREST;
+                    } else {
+                        throw new IllegalArgumentException("未知观测角取值方式: " + modeName);
+                    }
+                    break;
+                case "--incident":
+                    String incidentName = value(args, ++i, arg);
+                    if ("spherical".equalsIgnoreCase(incidentName)) {
+                        incidentMode = InterpolationEngine.IncidentMode.SPHERICAL;
+                    } else if ("grid".equalsIgnoreCase(incidentName)) {
+                        incidentMode = InterpolationEngine.IncidentMode.GRID;
+                    } else {
+                        throw new IllegalArgumentException("未知入射方向插值方式: " + incidentName);
+                    }
+                    break;
+                case "--lazy":
+                    lazyMegabytes = positiveInt(value(args, ++i, arg), arg);
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知参数: " + arg);
+            }
+        }
+        if (format == null) {
+            format = input.toLowerCase(Locale.ROOT).endsWith(".bin") ? "binary" : "csv";
+        }
+    }
+
+    private void execute() throws IOException {
+        // 结果写到标准输出时，加载日志改走标准错误，避免混进结果
+        PrintStream originalOut = System.out;
+        boolean resultsToStdout = "-".equals(output);
+        if (resultsToStdout) {
+            System.setOut(System.err);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long loadStart = System.nanoTime();
+            DataReader dataReader = new DataReader();
+            // 显式指定 -Drcs.loaderThreads 时以它为准，否则加载也用 --threads 个线程
+            if (System.getProperty("rcs.loaderThreads") == null) {
+                dataReader.setLoaderThreads(threads);
+            }
+            LazyRcsDataset dataset = null;
+            InterpolationEngine engine;
+            if (lazyMegabytes > 0) {
+                dataset = dataReader.openLazyDataset(lazyMegabytes * 1024L * 1024L);
+                engine = new InterpolationEngine(dataset);
+            } else {
+                engine = new InterpolationEngine(dataReader.readAllData());
+            }
+            engine.setObservationMode(mode);
+            engine.setIncidentMode(incidentMode);
+            long loadNanos = System.nanoTime() - loadStart;
+
+            long queryCount;
+            long queryNanos;
+            try (InputStream in = "-".equals(input) ? System.in : new FileInputStream(input);
+                 OutputStream out = resultsToStdout ? new NonClosingOutputStream(originalOut)
+                         : new FileOutputStream(output)) {
+                QuerySource source = "binary".equals(format) ? new BinarySource(in) : new CsvSource(in);
+                ResultSink sink = "binary".equals(format) ? new BinarySink(out) : new CsvSink(out);
+
+                double[] queries = new double[chunkSize * FIELDS];
+                double[] results = new double[chunkSize];
+                queryCount = 0;
+                queryNanos = 0;
+                int count;
+                while ((count = source.read(queries, chunkSize)) > 0) {
+                    double[] chunkQueries = queries;
+                    double[] chunkResults = results;
+                    if (count < chunkSize) {
+                        // 最后一块不满时截短，批量接口要求缓冲区与结果等长
+                        chunkQueries = Arrays.copyOf(queries, count * FIELDS);
+                        chunkResults = new double[count];
+                    }
+                    long start = System.nanoTime();
+                    engine.calculateRCSBatch(chunkQueries, chunkResults, pool);
+                    queryNanos += System.nanoTime() - start;
+                    sink.write(chunkQueries, chunkResults, count);
+                    queryCount += count;
+                }
+                sink.flush();
+            }
+
+            System.err.printf("批量计算完成: 加载 %.1f ms, 查询 %d 次, 计算耗时 %.1f ms, 吞吐 %.0f 次/秒, 线程 %d%n",
+                    loadNanos / 1e6, queryCount, queryNanos / 1e6,
+                    queryNanos == 0 ? 0.0 : queryCount * 1e9 / queryNanos, threads);
+            if (dataset != null) {
+                System.err.println(dataset);
+            }
+        } finally {
+            pool.shutdown();
+            if (resultsToStdout) {
+                System.setOut(originalOut);
+            }
+        }
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " 缺少参数值");
+        }
+        return args[index];
+    }
+
+    private static int positiveInt(String text, String option) {
+        try {
+            int value = Integer.parseInt(text);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException ignored) {
+            // 统一在下面报错
+        }
+        throw new IllegalArgumentException(option + " 需要正整数: " + text);
+    }
+
+    /**
+     * 查询来源，每次最多读 max 次查询到扁平缓冲区，返回实际读到的次数，读完返回 0。
+     */
+    private interface QuerySource {
+        int read(double[] queries, int max) throws IOException;
+    }
+
+    private interface ResultSink {
+        void write(double[] queries, double[] results, int count) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static class CsvSource implements QuerySource {
+        private final BufferedReader reader;
+        private long lineNumber;
+        // 第一条非注释行允许是表头
+        private boolean headerAllowed = true;
+
+        CsvSource(InputStream in) {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        }
+
+        @Override
+        public int read(double[] queries, int max) throws IOException {
+            int count = 0;
+            String line;
+            while (count < max && (line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                boolean header = headerAllowed;
+                headerAllowed = false;
+                String[] parts = line.split("[,\\s]+");
+                if (parts.length < FIELDS) {
+                    if (header) {
+                        continue;
+                    }
+                    throw new IllegalArgumentException("第 " + lineNumber + " 行需要 5 列: " + line);
+                }
+                try {
+                    for (int field = 0; field < FIELDS; field++) {
+                        queries[count * FIELDS + field] = Double.parseDouble(parts[field]);
+                    }
+                } catch (NumberFormatException e) {
+                    if (header) {
+                        // 首行是表头
+                        continue;
+                    }
+                    throw new IllegalArgumentException("第 " + lineNumber + " 行格式错误: " + line);
+                }
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private static class BinarySource implements QuerySource {
+        private final DataInputStream in;
+
+        BinarySource(InputStream in) {
+            this.in = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        }
+
+        @Override
+        public int read(double[] queries, int max) throws IOException {
+            int count = 0;
+            while (count < max) {
+                double frequency;
+                try {
+                    frequency = in.readDouble();
+                } catch (EOFException e) {
+                    break;
+                }
+                queries[count * FIELDS] = frequency;
+                try {
+                    for (int field = 1; field < FIELDS; field++) {
+                        queries[count * FIELDS + field] = in.readDouble();
+                    }
+                } catch (EOFException e) {
+                    throw new IllegalArgumentException("二进制输入长度不是 5 个 double 的整数倍");
+                }
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private static class CsvSink implements ResultSink {
+        private final BufferedWriter writer;
+        private final StringBuilder line = new StringBuilder(128);
+
+        CsvSink(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        }
+
+        @Override
+        public void write(double[] queries, double[] results, int count) throws IOException {
+            for (int q = 0; q < count; q++) {
+                line.setLength(0);
+                for (int field = 0; field < FIELDS; field++) {
+                    line.append(queries[q * FIELDS + field]).append(',');
+                }
+                line.append(results[q]).append('\n');
+                writer.append(line);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static class BinarySink implements ResultSink {
+        private final DataOutputStream out;
+
+        BinarySink(OutputStream out) {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        }
+
+        @Override
+        public void write(double[] queries, double[] results, int count) throws IOException {
+            for (int q = 0; q < count; q++) {
+                out.writeDouble(results[q]);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * 包装标准输出，关闭时只刷新不关闭。
+     */
+    private static class NonClosingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+
+        NonClosingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.flush();
+        }
+    }
+}
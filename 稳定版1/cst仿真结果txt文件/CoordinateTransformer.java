@@ -53,4 +53,253 @@ public class CoordinateTransformer {
 
         return rotated;
     }
-}
\ No newline at end of file
+
+    /**
+     * 批量球面坐标转笛卡尔坐标，结果按 x0, y0, z0, x1, ... 写入 cartesian，不分配内存。
+     * rs 为 null 时按单位半径计算；公式与单点版本相同，结果逐位一致。
+     */
+    public static void sphericalToCartesian(double[] rs, double[] thetas, double[] phis, int count,
+                                            double[] cartesian) {
+        sphericalToCartesian(rs, thetas, phis, count, cartesian, null);
+    }
+
+    /**
+     * 同上，角度落在 trigTable 的采样网格上时直接查表取正弦、余弦，trigTable 为 null 时全部现算。
+     */
+    public static void sphericalToCartesian(double[] rs, double[] thetas, double[] phis, int count,
+                                            double[] cartesian, TrigTable trigTable) {
+        checkCount(count, thetas.length, phis.length, cartesian.length / 3);
+        if (rs != null) {
+            checkCount(count, rs.length);
+        }
+        for (int i = 0, j = 0; i < count; i++, j += 3) {
+            double theta = thetas[i];
+            double phi = phis[i];
+            double sinTheta;
+            double cosTheta;
+            double sinPhi;
+            double cosPhi;
+            if (trigTable != null) {
+                sinTheta = trigTable.sin(theta);
+                cosTheta = trigTable.cos(theta);
+                sinPhi = trigTable.sin(phi);
+                cosPhi = trigTable.cos(phi);
+            } else {
+                double thetaRad = Math.toRadians(theta);
+                double phiRad = Math.toRadians(phi);
+                sinTheta = Math.sin(thetaRad);
+                cosTheta = Math.cos(thetaRad);
+                sinPhi = Math.sin(phiRad);
+                cosPhi = Math.cos(phiRad);
+            }
+            double r = rs != null ? rs[i] : 1.0;
+            cartesian[j] = r * sinTheta * sinPhi;
+            cartesian[j + 1] = r * cosTheta;
+            cartesian[j + 2] = r * sinTheta * cosPhi;
+        }
+    }
+
+    /**
+     * 批量笛卡尔坐标（x0, y0, z0, x1, ...）转球面坐标，分别写入 rs、thetas、phis，不分配内存。
+     * rs 为 null 时不输出半径；方位角在 [0, 360) 内，与单点版本逐位一致。
+     */
+    public static void cartesianToSpherical(double[] cartesian, int count, double[] rs, double[] thetas,
+                                            double[] phis) {
+        checkCount(count, cartesian.length / 3, thetas.length, phis.length);
+        if (rs != null) {
+            checkCount(count, rs.length);
+        }
+        for (int i = 0, j = 0; i < count; i++, j += 3) {
+            double x = cartesian[j];
+            double y = cartesian[j + 1];
+            double z = cartesian[j + 2];
+            double r = Math.sqrt(x * x + y * y + z * z);
+            double phi = Math.toDegrees(Math.atan2(x, z));
+            if (phi < 0) {
+                phi += 360;
+            }
+            if (rs != null) {
+                rs[i] = r;
+            }
+            thetas[i] = Math.toDegrees(Math.acos(y / r));
+            phis[i] = phi;
+        }
+    }
+
+    private static void checkCount(int count, int... capacities) {
+        if (count < 0) {
+            throw new IllegalArgumentException("点数不能为负: " + count);
+        }
+        for (int capacity : capacities) {
+            if (capacity < count) {
+                throw new IllegalArgumentException("数组长度不足 " + count + " 个点");
+            }
+        }
+    }
+
+    /**
+     * 预先算好的 3×3 旋转矩阵，不可变，可在多个线程间共享。
+     * 整个方向图在机体坐标系和世界坐标系之间转换时只需构建一次，每个点只做 9 次乘法，不再调用三角函数。
+     */
+    public static final class Rotation {
+        public static final Rotation IDENTITY = new Rotation(1, 0, 0, 0, 1, 0, 0, 0, 1);
+
+        private final double m00, m01, m02;
+        private final double m10, m11, m12;
+        private final double m20, m21, m22;
+
+        private Rotation(double m00, double m01, double m02,
+                         double m10, double m11, double m12,
+                         double m20, double m21, double m22) {
+            this.m00 = m00;
+            this.m01 = m01;
+            this.m02 = m02;
+            this.m10 = m10;
+            this.m11 = m11;
+            this.m12 = m12;
+            this.m20 = m20;
+            this.m21 = m21;
+            this.m22 = m22;
+        }
+
+        /**
+         * 与 rotateCoordinates 相同的旋转：依次绕 X、Y、Z 轴旋转（角度单位为度），结果在舍入误差内一致。
+         */
+        public static Rotation fromAngles(double thetaX, double thetaY, double thetaZ) {
+            double tx = Math.toRadians(thetaX);
+            double ty = Math.toRadians(thetaY);
+            double tz = Math.toRadians(thetaZ);
+            double sx = Math.sin(tx);
+            double cx = Math.cos(tx);
+            double sy = Math.sin(ty);
+            double cy = Math.cos(ty);
+            double sz = Math.sin(tz);
+            double cz = Math.cos(tz);
+
+            // rotateCoordinates 中 z 分量只经过 X、Y 两次旋转，x、y 分量再绕 Z 轴旋转（y 取绕 X 旋转后的值）
+            return new Rotation(
+                    cz * cy, cz * sy * sx - sz * cx, cz * sy * cx + sz * sx,
+                    sz * cy, sz * sy * sx + cz * cx, sz * sy * cx - cz * sx,
+                    -sy, cy * sx, cy * cx);
+        }
+
+        /**
+         * 逆旋转（转置矩阵），用于从世界坐标系转回机体坐标系。
+         */
+        public Rotation inverse() {
+            return new Rotation(m00, m10, m20, m01, m11, m21, m02, m12, m22);
+        }
+
+        /**
+         * 先做本旋转、再做 next 的复合旋转。
+         */
+        public Rotation then(Rotation next) {
+            return new Rotation(
+                    next.m00 * m00 + next.m01 * m10 + next.m02 * m20,
+                    next.m00 * m01 + next.m01 * m11 + next.m02 * m21,
+                    next.m00 * m02 + next.m01 * m12 + next.m02 * m22,
+                    next.m10 * m00 + next.m11 * m10 + next.m12 * m20,
+                    next.m10 * m01 + next.m11 * m11 + next.m12 * m21,
+                    next.m10 * m02 + next.m11 * m12 + next.m12 * m22,
+                    next.m20 * m00 + next.m21 * m10 + next.m22 * m20,
+                    next.m20 * m01 + next.m21 * m11 + next.m22 * m21,
+                    next.m20 * m02 + next.m21 * m12 + next.m22 * m22);
+        }
+
+        /**
+         * 原地旋转 count 个点，坐标按 x0, y0, z0, x1, ... 排列。
+         */
+        public void apply(double[] points, int count) {
+            apply(points, points, count);
+        }
+
+        /**
+         * 把 source 中的 count 个点旋转后写入 target，两者可以是同一个数组。
+         */
+        public void apply(double[] source, double[] target, int count) {
+            checkCount(count, source.length / 3, target.length / 3);
+            for (int j = 0, end = count * 3; j < end; j += 3) {
+                double x = source[j];
+                double y = source[j + 1];
+                double z = source[j + 2];
+                target[j] = m00 * x + m01 * y + m02 * z;
+                target[j + 1] = m10 * x + m11 * y + m12 * z;
+                target[j + 2] = m20 * x + m21 * y + m22 * z;
+            }
+        }
+
+        /**
+         * 三个分量分开存放时的原地旋转。
+         */
+        public void apply(double[] xs, double[] ys, double[] zs, int count) {
+            checkCount(count, xs.length, ys.length, zs.length);
+            for (int i = 0; i < count; i++) {
+                double x = xs[i];
+                double y = ys[i];
+                double z = zs[i];
+                xs[i] = m00 * x + m01 * y + m02 * z;
+                ys[i] = m10 * x + m11 * y + m12 * z;
+                zs[i] = m20 * x + m21 * y + m22 * z;
+            }
+        }
+    }
+
+    /**
+     * 按固定角度步长预先算好的正弦、余弦表。CST 数据的观测角都在整度网格上，
+     * 角度恰好是步长的整数倍且在 [0, 360] 内时直接查表，其他角度照常调用 Math，所以结果总是与现算逐位一致。
+     */
+    public static final class TrigTable {
+        private final double stepDegrees;
+        private final double[] sines;
+        private final double[] cosines;
+
+        /**
+         * @param stepDegrees 采样步长（度），例如 1 或 5
+         */
+        public TrigTable(double stepDegrees) {
+            if (!(stepDegrees > 0) || 360.0 / stepDegrees > 1 << 24) {
+                throw new IllegalArgumentException("无效的角度步长: " + stepDegrees);
+            }
+            this.stepDegrees = stepDegrees;
+            int size = (int) Math.floor(360.0 / stepDegrees) + 1;
+            this.sines = new double[size];
+            this.cosines = new double[size];
+            for (int i = 0; i < size; i++) {
+                double radians = Math.toRadians(i * stepDegrees);
+                sines[i] = Math.sin(radians);
+                cosines[i] = Math.cos(radians);
+            }
+        }
+
+        public double getStepDegrees() {
+            return stepDegrees;
+        }
+
+        /**
+         * 角度（度）的正弦。
+         */
+        public double sin(double degrees) {
+            int i = slot(degrees);
+            return i >= 0 ? sines[i] : Math.sin(Math.toRadians(degrees));
+        }
+
+        /**
+         * 角度（度）的余弦。
+         */
+        public double cos(double degrees) {
+            int i = slot(degrees);
+            return i >= 0 ? cosines[i] : Math.cos(Math.toRadians(degrees));
+        }
+
+        /**
+         * 角度在表中的下标，不在采样网格上时返回 -1。
+         */
+        private int slot(double degrees) {
+            double position = Math.rint(degrees / stepDegrees);
+            if (position < 0 || position >= sines.length || position * stepDegrees != degrees) {
+                return -1;
+            }
+            return (int) position;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+
+/**
+ * CST 导出文本的字节级解析器。
+ * 直接扫描映射后的文件字节，不为每行创建 String 或 split 数组，数字在原位解析。
+ * 行为与 BufferedReader + trim + split("\\s+") + Double.parseDouble 的逐行读取完全一致：
+ * 跳过空行和 "Theta" 表头，前三列任一无法解析的行整行跳过，
+ * 非常规写法的数字（十六进制、NaN、后缀等）回退到 Double.parseDouble。
+ * 可以按列投影读取 RCS 之外的列：未投影的列只跳过、不解析，最后一个投影列之后的内容不再扫描；
+ * 投影列缺失或无法解析时记为 NaN，不影响该行是否保留，行号与只读 RCS 时一致。
+ */
+public class CstTextParser {
+    // 10^0 ~ 10^22 都能被 double 精确表示，尾数不超过 2^53 时一次乘除即可得到正确舍入的结果
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final byte[] HEADER_PREFIX = {'T', 'h', 'e', 't', 'a'};
+
+    /**
+     * 单个文件解析出的样本列，角度已周期化到 [0, 360)。
+     */
+    public static class Columns {
+        private double[] thetas;
+        private double[] phis;
+        private double[] rcsValues;
+        // 投影的附加列，按 projection 的顺序存放
+        private final RcsTable.Column[] projection;
+        private final double[][] extraValues;
+        private int count;
+
+        Columns(int capacity, RcsTable.Column[] projection) {
+            thetas = new double[capacity];
+            phis = new double[capacity];
+            rcsValues = new double[capacity];
+            this.projection = projection;
+            extraValues = new double[projection.length][capacity];
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public double[] getThetas() {
+            return thetas;
+        }
+
+        public double[] getPhis() {
+            return phis;
+        }
+
+        public double[] getRcsValues() {
+            return rcsValues;
+        }
+
+        /**
+         * 一个列的值，长度可能大于 size()；RCS 以外未投影的列返回 null。
+         */
+        public double[] getColumn(RcsTable.Column column) {
+            if (column == RcsTable.Column.RCS) {
+                return rcsValues;
+            }
+            for (int i = 0; i < projection.length; i++) {
+                if (projection[i] == column) {
+                    return extraValues[i];
+                }
+            }
+            return null;
+        }
+
+        private void add(double theta, double phi, double rcsValue, double[] extras) {
+            if (count == thetas.length) {
+                int capacity = Math.max(16, count * 2);
+                thetas = Arrays.copyOf(thetas, capacity);
+                phis = Arrays.copyOf(phis, capacity);
+                rcsValues = Arrays.copyOf(rcsValues, capacity);
+                for (int i = 0; i < extraValues.length; i++) {
+                    extraValues[i] = Arrays.copyOf(extraValues[i], capacity);
+                }
+            }
+            thetas[count] = theta;
+            phis[count] = phi;
+            rcsValues[count] = rcsValue;
+            for (int i = 0; i < extraValues.length; i++) {
+                extraValues[i][count] = extras[i];
+            }
+            count++;
+        }
+    }
+
+    private final ByteBuffer bytes;
+    // 回退解析时与 FileReader 使用相同的默认字符集
+    private final Charset charset = Charset.defaultCharset();
+    // 当前行前三列的解析结果
+    private final double[] fields = new double[3];
+    // 投影的附加列在行内的位置（升序）与当前行的解析结果
+    private final int[] extraFileIndices;
+    private final double[] extraFields;
+    // 最近一次 parseNumber 成功解析出的数值
+    private double parsedValue;
+
+    private CstTextParser(ByteBuffer bytes, RcsTable.Column[] projection) {
+        this.bytes = bytes;
+        this.extraFileIndices = new int[projection.length];
+        for (int i = 0; i < projection.length; i++) {
+            extraFileIndices[i] = projection[i].getFileIndex();
+        }
+        this.extraFields = new double[projection.length];
+    }
+
+    /**
+     * 映射并解析一个 CST 文本文件，只读 theta/phi/RCS 三列。
+     */
+    public static Columns parse(File file) throws IOException {
+        return parse(file, Set.of());
+    }
+
+    /**
+     * 映射并解析一个 CST 文本文件，columns 中 RCS 以外的列一并读取。
+     */
+    public static Columns parse(File file, Set<RcsTable.Column> columns) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("文件过大: " + file.getName());
+            }
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return parse(mapped, columns);
+        }
+    }
+
+    /**
+     * 文件中是否至少有一行能按 parse 的规则解析出样本，读到第一个有效行即停止，不解析整个文件。
+     */
+    public static boolean hasSamples(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("文件过大: " + file.getName());
+            }
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new CstTextParser(mapped, new RcsTable.Column[0]).parseLines(null);
+        }
+    }
+
+    /**
+     * 解析 [position, limit) 范围内的字节，只读 theta/phi/RCS 三列。
+     */
+    public static Columns parse(ByteBuffer bytes) {
+        return parse(bytes, Set.of());
+    }
+
+    /**
+     * 解析 [position, limit) 范围内的字节，columns 中 RCS 以外的列一并读取。
+     */
+    public static Columns parse(ByteBuffer bytes, Set<RcsTable.Column> columns) {
+        RcsTable.Column[] projection = columns.stream()
+                .filter(column -> column != RcsTable.Column.RCS)
+                .sorted(Comparator.comparingInt(RcsTable.Column::getFileIndex))
+                .toArray(RcsTable.Column[]::new);
+        CstTextParser parser = new CstTextParser(bytes, projection);
+        // 每行约 150 字节，预估容量以减少扩容
+        Columns parsed = new Columns(bytes.remaining() / 128 + 16, projection);
+        parser.parseLines(parsed);
+        return parsed;
+    }
+
+    /**
+     * 逐行解析并存入 columns，返回是否解析出样本；columns 为 null 时读到第一个有效行即返回。
+     */
+    private boolean parseLines(Columns columns) {
+        boolean found = false;
+        int position = bytes.position();
+        int limit = bytes.limit();
+
+        while (position < limit) {
+            int lineEnd = position;
+            while (lineEnd < limit && bytes.get(lineEnd) != '\n' && bytes.get(lineEnd) != '\r') {
+                lineEnd++;
+            }
+
+            if (parseLine(position, lineEnd)) {
+                if (columns == null) {
+                    return true;
+                }
+                columns.add(AngleUtils.normalize360(fields[0]), AngleUtils.normalize360(fields[1]), fields[2],
+                        extraFields);
+                found = true;
+            }
+
+            // 与 readLine 一致：\n、\r、\r\n 都视为一个换行
+            position = lineEnd + 1;
+            if (lineEnd < limit && bytes.get(lineEnd) == '\r' && position < limit && bytes.get(position) == '\n') {
+                position++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 解析一行的前三列，成功时写入 fields（以及投影列到 extraFields）并返回 true。
+     */
+    private boolean parseLine(int start, int end) {
+        // 等价于 String.trim()
+        while (start < end && (bytes.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (bytes.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        if (start == end || startsWithHeader(start, end)) {
+            return false;
+        }
+
+        int position = start;
+        for (int field = 0; field < fields.length; field++) {
+            if (position >= end) {
+                return false;
+            }
+            int tokenEnd = position;
+            while (tokenEnd < end && !isRegexWhitespace(bytes.get(tokenEnd))) {
+                tokenEnd++;
+            }
+
+            if (!parseNumber(position, tokenEnd)) {
+                return false;
+            }
+            fields[field] = parsedValue;
+
+            position = tokenEnd;
+            while (position < end && isRegexWhitespace(bytes.get(position))) {
+                position++;
+            }
+        }
+        if (extraFileIndices.length > 0) {
+            parseExtraFields(position, end);
+        }
+        return true;
+    }
+
+    /**
+     * 从第 4 列开始依次跳过各列，只解析投影的列；读到最后一个投影列即停止。
+     */
+    private void parseExtraFields(int position, int end) {
+        int next = 0;
+        for (int field = fields.length; next < extraFileIndices.length; field++) {
+            if (position >= end) {
+                break;
+            }
+            int tokenEnd = position;
+            while (tokenEnd < end && !isRegexWhitespace(bytes.get(tokenEnd))) {
+                tokenEnd++;
+            }
+            if (field == extraFileIndices[next]) {
+                extraFields[next++] = parseNumber(position, tokenEnd) ? parsedValue : Double.NaN;
+            }
+
+            position = tokenEnd;
+            while (position < end && isRegexWhitespace(bytes.get(position))) {
+                position++;
+            }
+        }
+        for (; next < extraFileIndices.length; next++) {
+            extraFields[next] = Double.NaN;
+        }
+    }
+
+    /**
+     * 解析 [start, end) 的数字，成功时写入 parsedValue 并返回 true。
+     */
+    private boolean parseNumber(int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes.get(i) == '+' || bytes.get(i) == '-')) {
+            negative = bytes.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int decimalExponent = 0;
+        boolean anyDigit = false;
+
+        while (i < end && isDigit(bytes.get(i))) {
+            mantissa = mantissa * 10 + (bytes.get(i) - '0');
+            if (mantissa != 0 && ++significantDigits > 18) {
+                return parseSlow(start, end);
+            }
+            anyDigit = true;
+            i++;
+        }
+        if (i < end && bytes.get(i) == '.') {
+            i++;
+            while (i < end && isDigit(bytes.get(i))) {
+                mantissa = mantissa * 10 + (bytes.get(i) - '0');
+                if (mantissa != 0 && ++significantDigits > 18) {
+                    return parseSlow(start, end);
+                }
+                decimalExponent--;
+                anyDigit = true;
+                i++;
+            }
+        }
+        if (!anyDigit) {
+            return parseSlow(start, end);
+        }
+
+        if (i < end && (bytes.get(i) == 'e' || bytes.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (bytes.get(i) == '+' || bytes.get(i) == '-')) {
+                negativeExponent = bytes.get(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int exponent = 0;
+            while (i < end && isDigit(bytes.get(i)) && i - exponentStart < 4) {
+                exponent = exponent * 10 + (bytes.get(i) - '0');
+                i++;
+            }
+            if (i == exponentStart) {
+                return parseSlow(start, end);
+            }
+            decimalExponent += negativeExponent ? -exponent : exponent;
+        }
+
+        if (i != end || mantissa > MAX_EXACT_MANTISSA) {
+            return parseSlow(start, end);
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (decimalExponent >= 0 && decimalExponent < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[decimalExponent];
+        } else if (decimalExponent < 0 && -decimalExponent < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-decimalExponent];
+        } else {
+            return parseSlow(start, end);
+        }
+        parsedValue = negative ? -value : value;
+        return true;
+    }
+
+    /**
+     * 少见写法交给 Double.parseDouble，保证与逐行读取结果一致。
+     */
+    private boolean parseSlow(int start, int end) {
+        byte[] token = new byte[end - start];
+        bytes.get(start, token);
+        try {
+            parsedValue = Double.parseDouble(new String(token, charset));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean startsWithHeader(int start, int end) {
+        if (end - start < HEADER_PREFIX.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER_PREFIX.length; i++) {
+            if (bytes.get(start + i) != HEADER_PREFIX[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * 正则 \s 对应的字符：空格、\t、\n、\u000B、\f、\r。
+     */
+    private static boolean isRegexWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+    }
+}
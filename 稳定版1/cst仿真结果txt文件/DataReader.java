@@ -1,12 +1,56 @@
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class DataReader {
     private static final String DATA_DIRECTORY = "cst仿真结果txt文件";
+    private static final String SNAPSHOT_FILE = "rcs_snapshot.bin";
+    // 两次发布部分数据表的最小间隔，避免文件很多时反复构建数据表和索引
+    private static final long PARTIAL_TABLE_INTERVAL_NANOS = 250_000_000L;
+
+    // 存放 方向1~方向8 子目录的数据目录
+    private final File dataDirectory;
+
+    private final boolean snapshotEnabled = !"false".equalsIgnoreCase(System.getProperty("rcs.snapshot"));
+    // 并发解析文件的线程数，默认取 -Drcs.loaderThreads，未设置时等于 CPU 核数
+    private volatile int loaderThreads = Integer.getInteger("rcs.loaderThreads",
+            Runtime.getRuntime().availableProcessors());
+    // 除 RCS 外要读取的列，默认只读 RCS
+    private volatile Set<RcsTable.Column> columns = RcsTable.Column.parseList(System.getProperty("rcs.columns"));
+
+    private LoadListener loadListener;
+    // 最近一次读取结果的切片 s 来自 loadedFiles[s]，重载时据此复用未变化的切片
+    private List<File> loadedFiles = Collections.emptyList();
+    // 最近一次扫描时读到的方向清单
+    private volatile DirectionManifest directionManifest = DirectionManifest.empty();
+
+    /**
+     * 加载进度回调，在调用 readAllData 的线程上执行。
+     */
+    public interface LoadListener {
+        /**
+         * 每并入一个文件调用一次。
+         */
+        void fileLoaded(int loadedFiles, int totalFiles);
+
+        /**
+         * 已并入的文件构成的部分数据表，行顺序与最终数据表的前缀一致。
+         * 读快照时不会调用；最后一次调用之后 readAllData 仍会返回完整数据表。
+         */
+        void partialTableAvailable(RcsTable partialTable);
+    }
 
     private static class IncidentAngles {
         final double elevation;
@@ -18,138 +62,386 @@ public class DataReader {
         }
     }
 
-    public List<RCSData> readAllData() {
-        List<RCSData> allData = new ArrayList<>();
+    /**
+     * 一个 方向N 文件夹及其编号。
+     */
+    private static class DirectionFolder {
+        final File directory;
+        final int number;
 
-        // 遍历方向文件夹（方向1到方向8）
-        for (int direction = 1; direction <= 8; direction++) {
-            String directionPath = DATA_DIRECTORY + File.separator + "方向" + direction;
-            File directionDir = new File(directionPath);
+        DirectionFolder(File directory, int number) {
+            this.directory = directory;
+            this.number = number;
+        }
+    }
 
-            if (directionDir.exists() && directionDir.isDirectory()) {
-                IncidentAngles incidentAngles = resolveIncidentAngles(direction);
+    /**
+     * 一个待读取的 CST 文件及其频率和入射方向。
+     */
+    private static class SourceFile {
+        final File file;
+        final double frequency;
+        final IncidentAngles incidentAngles;
 
-                System.out.println("检查文件夹: 方向" + direction);
-                File[] files = directionDir.listFiles((dir, name) -> name.endsWith(".txt"));
+        SourceFile(File file, double frequency, IncidentAngles incidentAngles) {
+            this.file = file;
+            this.frequency = frequency;
+            this.incidentAngles = incidentAngles;
+        }
+    }
 
-                if (files != null) {
-                    System.out.println("文件夹 方向" + direction + " 包含 " + files.length + " 个TXT文件");
+    public DataReader() {
+        this(new File(DATA_DIRECTORY));
+    }
 
-                    for (File file : files) {
-                        // 从文件名中提取频率
-                        String fileName = file.getName();
-                        String freqStr = fileName.replace(".txt", "");
-                        // 处理"方向1 10"这样的文件名格式，提取数字部分
-                        freqStr = freqStr.replaceAll("[^0-9. ]", "").trim();
-                        freqStr = freqStr.split(" ")[1]; // 取第二个部分作为频率
-                        double frequency = Double.parseDouble(freqStr);
+    public DataReader(File dataDirectory) {
+        this.dataDirectory = dataDirectory;
+    }
 
-                        // 读取文件内容
-                        List<RCSData> fileData = readFile(file, frequency, incidentAngles);
-                        allData.addAll(fileData);
-                    }
+    /**
+     * 设置加载进度回调，传 null 取消。
+     */
+    public void setLoadListener(LoadListener loadListener) {
+        this.loadListener = loadListener;
+    }
+
+    /**
+     * 设置之后读取时并发解析文件的线程数。
+     */
+    public void setLoaderThreads(int loaderThreads) {
+        if (loaderThreads <= 0) {
+            throw new IllegalArgumentException("加载线程数必须为正数: " + loaderThreads);
+        }
+        this.loaderThreads = loaderThreads;
+    }
+
+    public int getLoaderThreads() {
+        return loaderThreads;
+    }
+
+    public File getDataDirectory() {
+        return dataDirectory;
+    }
+
+    /**
+     * 设置之后读取的列（RCS 总是读取），例如加上 ABS_THETA、PHASE_THETA 以便做极化分量的相干插值。
+     * 未设置时取 -Drcs.columns，如 -Drcs.columns=abs_theta,phase_theta 或 all。
+     */
+    public void setColumns(Set<RcsTable.Column> columns) {
+        Set<RcsTable.Column> projection = EnumSet.of(RcsTable.Column.RCS);
+        projection.addAll(columns);
+        this.columns = projection;
+    }
+
+    public Set<RcsTable.Column> getColumns() {
+        return EnumSet.copyOf(columns);
+    }
+
+    /**
+     * 最近一次读取时使用的方向清单，尚未读取时为空清单。
+     */
+    public DirectionManifest getDirectionManifest() {
+        return directionManifest;
+    }
+
+    public synchronized RcsTable readAllData() {
+        long start = RcsMetrics.now();
+        Set<RcsTable.Column> projection = columns;
+        List<SourceFile> sources = listSourceFiles();
+        List<File> files = sourceFileList(sources);
+
+        // 源文件未变化时直接映射二进制快照，跳过文本解析
+        RcsSnapshotCache snapshotCache = new RcsSnapshotCache(new File(dataDirectory, SNAPSHOT_FILE));
+        if (snapshotEnabled) {
+            RcsTable cached = snapshotCache.load(snapshotSources(files), projection);
+            if (cached != null) {
+                System.out.println("从快照 " + SNAPSHOT_FILE + " 读取 " + cached.size() + " 个数据点");
+                if (loadListener != null) {
+                    loadListener.fileLoaded(files.size(), files.size());
+                }
+                loadedFiles = files;
+                RcsTable table = withStatistics(cached);
+                if (RcsMetrics.ENABLED) {
+                    RcsMetrics.SNAPSHOT_HITS.increment();
+                    RcsMetrics.lap(RcsMetrics.LOAD, start);
+                }
+                return table;
+            }
+            if (RcsMetrics.ENABLED) {
+                RcsMetrics.SNAPSHOT_MISSES.increment();
+            }
+        }
+
+        RcsTable.Builder builder = new RcsTable.Builder(projection);
+        readFiles(sources, projection, builder, loadListener, null, Collections.emptyMap());
+
+        RcsTable table = builder.build();
+        System.out.println("总共读取 " + table.size() + " 个数据点");
+
+        if (snapshotEnabled) {
+            snapshotCache.write(snapshotSources(files), table);
+        }
+        loadedFiles = files;
+        withStatistics(table);
+        RcsMetrics.lap(RcsMetrics.LOAD, start);
+        return table;
+    }
+
+    /**
+     * 重新扫描目录并构建新的数据表，只解析 changedFiles 中的文件和新出现的文件，
+     * 其余文件的切片直接从 previous 复制；已删除的文件不再出现。changedFiles 为 null 时全部重新解析。
+     * previous 必须是本对象上一次 readAllData 或 reloadChangedFiles 的结果。
+     */
+    public synchronized RcsTable reloadChangedFiles(RcsTable previous, Set<File> changedFiles) {
+        long start = RcsMetrics.now();
+        Set<RcsTable.Column> projection = columns;
+        DirectionManifest previousManifest = directionManifest;
+        List<SourceFile> sources = listSourceFiles();
+        List<File> files = sourceFileList(sources);
+        Map<File, Integer> reusableSlices = new HashMap<>();
+        // 列投影变化后旧表缺少新增的列，方向清单变化后旧切片的入射角已过期，都只能全部重新解析
+        if (changedFiles != null && previous.getSliceCount() == loadedFiles.size()
+                && previous.getColumns().containsAll(projection)
+                && directionManifest.sameDirections(previousManifest)) {
+            // 监视器报告的是绝对路径，数据目录可能是相对路径，统一成规范化的绝对路径再比较
+            Set<Path> changedPaths = new HashSet<>();
+            for (File file : changedFiles) {
+                changedPaths.add(normalizedPath(file));
+            }
+            for (int slice = 0; slice < loadedFiles.size(); slice++) {
+                File file = loadedFiles.get(slice);
+                if (!changedPaths.contains(normalizedPath(file))) {
+                    reusableSlices.put(file, slice);
+                }
+            }
+        }
+
+        RcsTable.Builder builder = new RcsTable.Builder(projection);
+        readFiles(sources, projection, builder, null, previous, reusableSlices);
+        RcsTable table = builder.build();
+        System.out.println("重新读取 " + (sources.size() - countReused(sources, reusableSlices)) + " 个文件，总共 "
+                + table.size() + " 个数据点");
+
+        if (snapshotEnabled) {
+            // 更新快照，下次启动不必再解析文本
+            new RcsSnapshotCache(new File(dataDirectory, SNAPSHOT_FILE)).write(snapshotSources(files), table);
+        }
+        loadedFiles = files;
+        withStatistics(table);
+        RcsMetrics.lap(RcsMetrics.LOAD, start);
+        return table;
+    }
+
+    private static Path normalizedPath(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    /**
+     * 加载完成时就构建统计立方，界面和报表查询时不必再扫描样本；重载时未变化的切片沿用旧统计。
+     */
+    private static RcsTable withStatistics(RcsTable table) {
+        table.getStatistics();
+        return table;
+    }
+
+    private static List<File> sourceFileList(List<SourceFile> sources) {
+        List<File> files = new ArrayList<>();
+        for (SourceFile source : sources) {
+            files.add(source.file);
+        }
+        return files;
+    }
+
+    /**
+     * 快照校验的文件清单：数据文件加方向清单，清单变化时入射角随之变化，快照也要失效。
+     */
+    private List<File> snapshotSources(List<File> files) {
+        File manifestFile = directionManifest.getSource();
+        if (manifestFile == null) {
+            return files;
+        }
+        List<File> sources = new ArrayList<>(files);
+        sources.add(manifestFile);
+        return sources;
+    }
+
+    private static int countReused(List<SourceFile> sources, Map<File, Integer> reusableSlices) {
+        int reused = 0;
+        for (SourceFile source : sources) {
+            if (reusableSlices.containsKey(source.file)) {
+                reused++;
+            }
+        }
+        return reused;
+    }
+
+    /**
+     * 只扫描文件目录、不解析文件，返回按需加载的数据集。
+     * 切片顺序与 readAllData 的切片顺序一致，样本在插值引擎用到时才读取。
+     *
+     * @param maxResidentBytes 常驻切片的估算内存上限（字节）
+     */
+    public LazyRcsDataset openLazyDataset(long maxResidentBytes) {
+        List<SourceFile> sources = listSourceFiles();
+        RcsTable.Builder builder = new RcsTable.Builder();
+        File[] files = new File[sources.size()];
+        for (int i = 0; i < files.length; i++) {
+            SourceFile source = sources.get(i);
+            builder.beginSlice(source.frequency, source.incidentAngles.elevation, source.incidentAngles.azimuth);
+            files[i] = source.file;
+        }
+        // 不足 1 MB 的上限按 KB 显示，避免显示成 0 MB
+        String limit = maxResidentBytes < 1048576
+                ? String.format("%.1f KB", maxResidentBytes / 1024.0)
+                : String.format("%.1f MB", maxResidentBytes / 1048576.0);
+        System.out.println("按需加载模式: 共 " + files.length + " 个文件，常驻上限 " + limit);
+        return new LazyRcsDataset(builder.build(), files, maxResidentBytes, columns);
+    }
+
+    private List<SourceFile> listSourceFiles() {
+        List<SourceFile> sources = new ArrayList<>();
+        DirectionManifest manifest = DirectionManifest.locate(dataDirectory);
+        directionManifest = manifest;
+
+        // 按编号顺序遍历所有 方向N 文件夹，入射角取自方向清单
+        for (DirectionFolder folder : listDirectionFolders()) {
+            File directionDir = folder.directory;
+            int direction = folder.number;
+            IncidentAngles incidentAngles = resolveIncidentAngles(manifest, direction);
+
+            File[] files = directionDir.listFiles((dir, name) -> name.endsWith(".txt"));
+            // 开启运行指标时记录扫描的文件夹数和文件数（取代原先每个文件夹两行的日志）
+            if (RcsMetrics.ENABLED) {
+                RcsMetrics.FOLDERS_SCANNED.increment();
+                RcsMetrics.FILES_LISTED.add(files != null ? files.length : 0);
+            }
+
+            if (files != null) {
+
+                for (File file : files) {
+                    // 从文件名中提取频率
+                    String fileName = file.getName();
+                    String freqStr = fileName.replace(".txt", "");
+                    // 处理"方向1 10"这样的文件名格式，提取数字部分
+                    freqStr = freqStr.replaceAll("[^0-9. ]", "").trim();
+                    freqStr = freqStr.split(" ")[1]; // 取第二个部分作为频率
+                    double frequency = Double.parseDouble(freqStr);
+
+                    sources.add(new SourceFile(file, frequency, incidentAngles));
                 }
             }
         }
 
-        System.out.println("总共读取 " + allData.size() + " 个数据点");
-        return allData;
+        return sources;
     }
 
-    private List<RCSData> readFile(File file, double frequency, IncidentAngles incidentAngles) {
-        List<RCSData> dataList = new ArrayList<>();
+    /**
+     * 数据目录下的 方向N 文件夹，按编号升序。
+     */
+    private List<DirectionFolder> listDirectionFolders() {
+        List<DirectionFolder> folders = new ArrayList<>();
+        File[] children = dataDirectory.listFiles(File::isDirectory);
+        if (children == null) {
+            return folders;
+        }
+        for (File child : children) {
+            int number = DirectionManifest.folderNumber(child.getName());
+            if (number >= 0) {
+                folders.add(new DirectionFolder(child, number));
+            }
+        }
+        folders.sort((a, b) -> a.number != b.number
+                ? Integer.compare(a.number, b.number)
+                : a.directory.getName().compareTo(b.directory.getName()));
+        return folders;
+    }
 
-        // 入射俯仰角在当前数据集中恒为0°，但仍作为独立参数存储，方便未来扩展
-        double incidentElevation = 0.0;
+    /**
+     * 用有界线程池并发解析所有文件（只读 projection 中的列），再按文件列表顺序依次并入数据表，
+     * 保证行号与逐个文件顺序读取时完全一致。
+     * 设置了回调时，每并入一个文件报告一次进度，并按间隔发布已并入部分的数据表。
+     * reusableSlices 中的文件不再解析，直接复制 previous 中对应的切片。
+     */
+    private void readFiles(List<SourceFile> sources, Set<RcsTable.Column> projection, RcsTable.Builder builder,
+                           LoadListener listener, RcsTable previous, Map<File, Integer> reusableSlices) {
+        if (sources.isEmpty()) {
+            return;
+        }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            int lineCount = 0;
+        int threadCount = Math.max(1, Math.min(loaderThreads, sources.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "cst-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-            while ((line = br.readLine()) != null) {
-                lineCount++;
-                line = line.trim();
+        long lastPublished = 0;
+        boolean published = false;
+        try {
+            List<Future<CstTextParser.Columns>> futures = new ArrayList<>();
+            for (SourceFile source : sources) {
+                futures.add(reusableSlices.containsKey(source.file)
+                        ? null : executor.submit(() -> parse(source.file, projection)));
+            }
 
-                if (line.isEmpty() || line.startsWith("Theta")) {
-                    // 跳过空行和表头
-                    if (lineCount == 1 && line.startsWith("Theta")) {
-                        System.out.println("行1解析失败: " + line);
+            for (int i = 0; i < sources.size(); i++) {
+                SourceFile source = sources.get(i);
+                // 每个文件追加为一个切片；读取失败时保留空切片
+                builder.beginSlice(source.frequency, source.incidentAngles.elevation, source.incidentAngles.azimuth);
+                Integer reusedSlice = reusableSlices.get(source.file);
+                if (reusedSlice != null) {
+                    builder.addSliceOf(previous, reusedSlice);
+                } else {
+                    try {
+                        builder.addAll(futures.get(i).get());
+                    } catch (ExecutionException e) {
+                        System.err.println("读取文件 " + source.file.getName() + " 失败: " + e.getCause().getMessage());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("读取数据时被中断", e);
                     }
-                    continue;
                 }
 
-                try {
-                    // 按空格分割数据
-                    String[] parts = line.split("\\s+");
-                    if (parts.length >= 3) {
-                        double theta = Double.parseDouble(parts[0]);
-                        double phi = Double.parseDouble(parts[1]);
-                        double rcsValue = Double.parseDouble(parts[2]);
-
-                        RCSData data = new RCSData(
-                                frequency,
-                                incidentAngles.elevation,
-                                incidentAngles.azimuth,
-                                AngleUtils.normalize360(theta),
-                                AngleUtils.normalize360(phi),
-                                rcsValue
-                        );
-                        dataList.add(data);
+                if (listener != null) {
+                    listener.fileLoaded(i + 1, sources.size());
+                    // 第一批数据尽快发布，之后按间隔发布；最后一个文件由 readAllData 的返回值交付
+                    long now = System.nanoTime();
+                    if (i + 1 < sources.size() && (!published || now - lastPublished >= PARTIAL_TABLE_INTERVAL_NANOS)) {
+                        RcsTable partial = builder.build();
+                        if (!partial.isEmpty()) {
+                            listener.partialTableAvailable(partial);
+                            published = true;
+                            lastPublished = System.nanoTime();
+                        }
                     }
-                } catch (NumberFormatException e) {
-                    // 跳过格式错误的行
-                    continue;
                 }
             }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-            System.out.println("文件 " + file.getName() + " 包含 " + dataList.size() + " 个数据点");
-        } catch (IOException e) {
-            System.err.println("读取文件 " + file.getName() + " 失败: " + e.getMessage());
-        }
-
-        return dataList;
-    }
-
-    private IncidentAngles resolveIncidentAngles(int direction) {
-        switch (direction) {
-            case 1:
-                // 传播方向：(0, -1, 0)
-                return buildAnglesFromPropagation(0.0, -1.0, 0.0);
-            case 2:
-                // 传播方向：(0, 0, 1)
-                return buildAnglesFromPropagation(0.0, 0.0, 1.0);
-            case 3:
-                // 传播方向：(1, 0, 0)
-                return buildAnglesFromPropagation(1.0, 0.0, 0.0);
-            case 4:
-                // 传播方向：(0, 1, 0)
-                return buildAnglesFromPropagation(0.0, 1.0, 0.0);
-            case 5:
-                // 传播方向：(0, 0, -1)
-                return buildAnglesFromPropagation(0.0, 0.0, -1.0);
-            case 6:
-                // 传播方向：(-1, 0, 0)
-                return buildAnglesFromPropagation(-1.0, 0.0, 0.0);
-            case 7:
-                // 传播方向：(0.707, 0.707, 0)
-                return buildAnglesFromPropagation(0.707, 0.707, 0.0);
-            case 8:
-                // 传播方向：(0.707, 0, 0.707)
-                return buildAnglesFromPropagation(0.707, 0.0, 0.707);
-            default:
-                // 保底逻辑，避免意外方向导致角度为空
-                return new IncidentAngles(0.0, AngleUtils.normalize360(direction));
-        }
-    }
-
-    private IncidentAngles buildAnglesFromPropagation(double x, double y, double z) {
-        double r = Math.sqrt(x * x + y * y + z * z);
-        double elevation = Math.toDegrees(Math.acos(z / r));
-        double azimuth = Math.toDegrees(Math.atan2(y, x));
-
-        return new IncidentAngles(
-                AngleUtils.normalize360(elevation),
-                AngleUtils.normalize360(azimuth)
-        );
+    /**
+     * 解析一个文件，开启运行指标时记录解析耗时和数据点数（取代原先每个文件一行的日志）。
+     */
+    private static CstTextParser.Columns parse(File file, Set<RcsTable.Column> projection) throws IOException {
+        long start = RcsMetrics.now();
+        CstTextParser.Columns parsed = CstTextParser.parse(file, projection);
+        if (RcsMetrics.ENABLED) {
+            RcsMetrics.lap(RcsMetrics.FILE_PARSE, start);
+            RcsMetrics.FILES_PARSED.increment();
+            RcsMetrics.POINTS_PARSED.add(parsed.size());
+        }
+        return parsed;
+    }
+
+    private static IncidentAngles resolveIncidentAngles(DirectionManifest manifest, int direction) {
+        DirectionManifest.Direction entry = manifest.get(direction);
+        if (entry == null) {
+            // 保底逻辑，清单中没有的方向也能读入
+            System.err.println("方向清单中没有方向" + direction + "，使用占位入射角");
+            return new IncidentAngles(0.0, AngleUtils.normalize360(direction));
+        }
+        return new IncidentAngles(entry.getIncidentElevation(), entry.getIncidentAzimuth());
     }
 }
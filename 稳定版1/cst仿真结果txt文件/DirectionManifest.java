@@ -0,0 +1,305 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 入射方向清单（方向参数.txt）：每行给出一个方向文件夹的传播方向和电场方向，例如
+ * <pre>
+ * 方向一：传播方向(0,-1,0)     电场方向(0,0,1)
+ * 方向八（斜入射）：传播方向：(0.707,0,0.707)       电场方向：（0,1,0）
+ * </pre>
+ * 方向编号可写阿拉伯数字或中文数字，全角/半角标点混用、矢量里多余的逗号都能容忍。
+ * 入射俯仰/方位角由传播方向换算。方向按编号存入哈希表，按文件夹查找的代价与方向数无关。
+ */
+public class DirectionManifest {
+    public static final String FILE_NAME = "方向参数.txt";
+
+    private static final Pattern LABEL = Pattern.compile("^\\s*方向\\s*([0-9]+|[零〇一二两三四五六七八九十百千]+)");
+    private static final Pattern PROPAGATION = Pattern.compile("传播方向[:\\s]*\\(([^)]*)\\)");
+    private static final Pattern ELECTRIC_FIELD = Pattern.compile("电场方向[:\\s]*\\(([^)]*)\\)");
+    private static final Pattern NUMBER = Pattern.compile("[-+]?(?:[0-9]+\\.?[0-9]*|\\.[0-9]+)(?:[eE][-+]?[0-9]+)?");
+
+    private final File source;
+    private final Map<Integer, Direction> directionsByNumber;
+    private final List<Direction> directions;
+
+    /**
+     * 一个入射方向。
+     */
+    public static class Direction {
+        private final int number;
+        private final double[] propagation;
+        private final double[] electricField;
+        private final double incidentElevation;
+        private final double incidentAzimuth;
+
+        Direction(int number, double[] propagation, double[] electricField) {
+            this.number = number;
+            this.propagation = propagation;
+            this.electricField = electricField;
+            double x = propagation[0];
+            double y = propagation[1];
+            double z = propagation[2];
+            double r = Math.sqrt(x * x + y * y + z * z);
+            this.incidentElevation = AngleUtils.normalize360(Math.toDegrees(Math.acos(z / r)));
+            this.incidentAzimuth = AngleUtils.normalize360(Math.toDegrees(Math.atan2(y, x)));
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        /**
+         * 传播方向矢量，调用方不得修改返回的数组。
+         */
+        public double[] getPropagation() {
+            return propagation;
+        }
+
+        /**
+         * 电场方向矢量，清单未给出时为 null；调用方不得修改返回的数组。
+         */
+        public double[] getElectricField() {
+            return electricField;
+        }
+
+        public double getIncidentElevation() {
+            return incidentElevation;
+        }
+
+        public double getIncidentAzimuth() {
+            return incidentAzimuth;
+        }
+    }
+
+    private DirectionManifest(File source, List<Direction> directions) {
+        this.source = source;
+        this.directions = Collections.unmodifiableList(directions);
+        this.directionsByNumber = new HashMap<>(directions.size() * 2);
+        for (Direction direction : directions) {
+            directionsByNumber.put(direction.number, direction);
+        }
+    }
+
+    /**
+     * 没有清单时的空清单。
+     */
+    public static DirectionManifest empty() {
+        return new DirectionManifest(null, new ArrayList<>());
+    }
+
+    /**
+     * 解析清单文件。无法识别的行跳过并提示，同一编号出现多次时以后出现的为准。
+     */
+    public static DirectionManifest parse(File file) throws IOException {
+        List<Direction> directions = new ArrayList<>();
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = normalizePunctuation(lines.get(i)).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            Direction direction = parseLine(line);
+            if (direction == null) {
+                System.err.println(file.getName() + " 第 " + (i + 1) + " 行无法识别: " + line);
+            } else {
+                directions.add(direction);
+            }
+        }
+        return new DirectionManifest(file, directions);
+    }
+
+    /**
+     * 依次在数据目录及其上级目录中查找清单，-Drcs.directionManifest 可直接指定文件。找不到时返回空清单。
+     */
+    public static DirectionManifest locate(File dataDirectory) {
+        File file = find(dataDirectory);
+        if (file == null) {
+            System.err.println("未找到 " + FILE_NAME + "，方向文件夹将使用占位入射角");
+            return empty();
+        }
+        try {
+            return parse(file);
+        } catch (IOException e) {
+            System.err.println("读取 " + file + " 失败: " + e.getMessage());
+            return empty();
+        }
+    }
+
+    /**
+     * 清单文件位置，找不到时返回 null。
+     */
+    public static File find(File dataDirectory) {
+        String configured = System.getProperty("rcs.directionManifest");
+        if (configured != null) {
+            File file = new File(configured);
+            return file.isFile() ? file : null;
+        }
+        for (File directory = dataDirectory.getAbsoluteFile(); directory != null; directory = directory.getParentFile()) {
+            File file = new File(directory, FILE_NAME);
+            if (file.isFile()) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 清单来源文件，空清单时为 null。
+     */
+    public File getSource() {
+        return source;
+    }
+
+    /**
+     * 两份清单的来源文件和各方向的传播、电场矢量都相同时返回 true。
+     */
+    public boolean sameDirections(DirectionManifest other) {
+        if (!Objects.equals(source, other.source) || directions.size() != other.directions.size()) {
+            return false;
+        }
+        for (Direction direction : directions) {
+            Direction previous = other.directionsByNumber.get(direction.number);
+            if (previous == null
+                    || !Arrays.equals(direction.propagation, previous.propagation)
+                    || !Arrays.equals(direction.electricField, previous.electricField)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return directions.size();
+    }
+
+    public List<Direction> getDirections() {
+        return directions;
+    }
+
+    /**
+     * 按方向编号查找，不存在时返回 null。
+     */
+    public Direction get(int number) {
+        return directionsByNumber.get(number);
+    }
+
+    /**
+     * 文件夹名（如 "方向12"、"方向十二"）对应的方向编号，不是方向文件夹时返回 -1。
+     */
+    public static int folderNumber(String folderName) {
+        Matcher matcher = LABEL.matcher(folderName);
+        if (!matcher.find()) {
+            return -1;
+        }
+        return parseNumber(matcher.group(1));
+    }
+
+    private static Direction parseLine(String line) {
+        int number = folderNumber(line);
+        Matcher propagation = PROPAGATION.matcher(line);
+        if (number < 0 || !propagation.find()) {
+            return null;
+        }
+        double[] propagationVector = parseVector(propagation.group(1));
+        if (propagationVector == null) {
+            return null;
+        }
+        Matcher electricField = ELECTRIC_FIELD.matcher(line);
+        double[] electricFieldVector = electricField.find() ? parseVector(electricField.group(1)) : null;
+        return new Direction(number, propagationVector, electricFieldVector);
+    }
+
+    /**
+     * 括号内的三个分量，忽略多余的分隔符；分量不是三个或全为零时返回 null。
+     */
+    private static double[] parseVector(String text) {
+        double[] vector = new double[3];
+        int count = 0;
+        Matcher matcher = NUMBER.matcher(text);
+        while (matcher.find()) {
+            if (count == 3) {
+                return null;
+            }
+            vector[count++] = Double.parseDouble(matcher.group());
+        }
+        if (count != 3 || (vector[0] == 0 && vector[1] == 0 && vector[2] == 0)) {
+            return null;
+        }
+        return vector;
+    }
+
+    private static String normalizePunctuation(String line) {
+        StringBuilder builder = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            switch (c) {
+                case '（':
+                    c = '(';
+                    break;
+                case '）':
+                    c = ')';
+                    break;
+                case '，':
+                    c = ',';
+                    break;
+                case '：':
+                    c = ':';
+                    break;
+                case '－':
+                    c = '-';
+                    break;
+                case '　':
+                    c = ' ';
+                    break;
+                default:
+                    break;
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 阿拉伯数字或不超过九千九百九十九的中文数字。
+     */
+    private static int parseNumber(String text) {
+        if (Character.isDigit(text.charAt(0))) {
+            try {
+                return Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        int total = 0;
+        int digit = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int value = "零一二三四五六七八九".indexOf(c);
+            if (c == '〇') {
+                value = 0;
+            } else if (c == '两') {
+                value = 2;
+            }
+            if (value >= 0) {
+                digit = value;
+                continue;
+            }
+            int unit = c == '十' ? 10 : c == '百' ? 100 : 1000;
+            // "十二" 省略了前面的 "一"
+            total += (digit == 0 ? 1 : digit) * unit;
+            digit = 0;
+        }
+        return total + digit;
+    }
+}
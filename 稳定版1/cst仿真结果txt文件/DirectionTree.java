@@ -0,0 +1,178 @@
+import java.util.Arrays;
+
+/**
+ * 单位球面上入射方向的 KD 树（三维，按 x/y/z 轮流切分）。
+ * 构建后只读，可被多个线程同时查询；k 近邻查询的平均代价为 O(log n)。
+ * 距离用弦长（三维欧氏距离），在球面上与大圆距离单调对应。
+ */
+public class DirectionTree {
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    // 树按数组存放：区间 [from, to) 的中点是该子树的根，左半、右半分别是左右子树
+    private final int[] order;
+
+    /**
+     * @param xs 各方向单位矢量的 x 分量
+     * @param ys 各方向单位矢量的 y 分量
+     * @param zs 各方向单位矢量的 z 分量
+     */
+    public DirectionTree(double[] xs, double[] ys, double[] zs) {
+        if (xs.length != ys.length || xs.length != zs.length) {
+            throw new IllegalArgumentException("方向分量数组长度必须一致");
+        }
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        this.zs = zs.clone();
+        this.order = new int[xs.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        build(0, order.length, 0);
+    }
+
+    /**
+     * 由入射俯仰角（与 +z 轴的夹角）和方位角得到单位矢量，与 方向参数.txt 中传播方向的换算互逆。
+     */
+    public static double[] unitVector(double elevation, double azimuth) {
+        double theta = Math.toRadians(elevation);
+        double phi = Math.toRadians(azimuth);
+        double sinTheta = Math.sin(theta);
+        return new double[]{sinTheta * Math.cos(phi), sinTheta * Math.sin(phi), Math.cos(theta)};
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * 查找离 (x, y, z) 最近的至多 k 个方向，按距离升序写入 indices 和 distances（弦长），返回找到的个数。
+     */
+    public int nearest(double x, double y, double z, int k, int[] indices, double[] distances) {
+        if (k <= 0 || order.length == 0) {
+            return 0;
+        }
+        int limit = Math.min(k, order.length);
+        double[] squared = new double[limit];
+        Arrays.fill(squared, Double.POSITIVE_INFINITY);
+        int found = search(0, order.length, 0, x, y, z, limit, indices, squared, 0);
+        for (int i = 0; i < found; i++) {
+            distances[i] = Math.sqrt(squared[i]);
+        }
+        return found;
+    }
+
+    private void build(int from, int to, int depth) {
+        if (to - from <= 1) {
+            return;
+        }
+        double[] axis = axis(depth);
+        int middle = (from + to) >>> 1;
+        select(axis, from, to - 1, middle);
+        build(from, middle, depth + 1);
+        build(middle + 1, to, depth + 1);
+    }
+
+    /**
+     * 快速选择：使 order[middle] 在该轴上就位，左侧不大于它、右侧不小于它。
+     */
+    private void select(double[] axis, int low, int high, int middle) {
+        while (low < high) {
+            double pivot = axis[order[(low + high) >>> 1]];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (axis[order[i]] < pivot) {
+                    i++;
+                }
+                while (axis[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (middle <= j) {
+                high = j;
+            } else if (middle >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private int search(int from, int to, int depth, double x, double y, double z,
+                       int limit, int[] indices, double[] squared, int found) {
+        if (from >= to) {
+            return found;
+        }
+        int middle = (from + to) >>> 1;
+        int point = order[middle];
+        double dx = xs[point] - x;
+        double dy = ys[point] - y;
+        double dz = zs[point] - z;
+        found = offer(point, dx * dx + dy * dy + dz * dz, limit, indices, squared, found);
+
+        double delta;
+        switch (depth % 3) {
+            case 0:
+                delta = x - xs[point];
+                break;
+            case 1:
+                delta = y - ys[point];
+                break;
+            default:
+                delta = z - zs[point];
+                break;
+        }
+        // 先进入查询点所在的一侧，另一侧只有在切分面比当前第 k 近更近时才需要查看
+        if (delta < 0) {
+            found = search(from, middle, depth + 1, x, y, z, limit, indices, squared, found);
+            if (found < limit || delta * delta <= squared[limit - 1]) {
+                found = search(middle + 1, to, depth + 1, x, y, z, limit, indices, squared, found);
+            }
+        } else {
+            found = search(middle + 1, to, depth + 1, x, y, z, limit, indices, squared, found);
+            if (found < limit || delta * delta <= squared[limit - 1]) {
+                found = search(from, middle, depth + 1, x, y, z, limit, indices, squared, found);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 把候选点插入按距离升序的前 k 个结果，距离相同时下标小的在前。
+     */
+    private static int offer(int point, double distance, int limit, int[] indices, double[] squared, int found) {
+        int position = found < limit ? found : limit - 1;
+        if (found == limit && !(distance < squared[position]
+                || (distance == squared[position] && point < indices[position]))) {
+            return found;
+        }
+        while (position > 0 && (distance < squared[position - 1]
+                || (distance == squared[position - 1] && point < indices[position - 1]))) {
+            squared[position] = squared[position - 1];
+            indices[position] = indices[position - 1];
+            position--;
+        }
+        squared[position] = distance;
+        indices[position] = point;
+        return found < limit ? found + 1 : found;
+    }
+
+    private double[] axis(int depth) {
+        switch (depth % 3) {
+            case 0:
+                return xs;
+            case 1:
+                return ys;
+            default:
+                return zs;
+        }
+    }
+}
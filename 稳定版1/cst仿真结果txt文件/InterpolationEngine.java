@@ -1,133 +1,1656 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
 
 public class InterpolationEngine {
-    private List<RCSData> rcsDataList;
+    // 频率与入射角匹配容差，与逐点扫描时的判定保持一致
+    private static final double MATCH_TOLERANCE = 0.1;
 
-    public InterpolationEngine(List<RCSData> rcsDataList) {
-        this.rcsDataList = rcsDataList;
+    // 当前数据的只读索引；替换数据时整体换新，查询开始时取一次引用即可得到一致的视图
+    private volatile SliceIndex index;
+
+    /**
+     * 切片内观测角 theta/phi 的取值方式。
+     */
+    public enum ObservationMode {
+        // 取最近的采样点（默认，结果在 5° 网格上呈台阶状）
+        NEAREST,
+        // 在规则网格的相邻四个采样点间双线性插值，非规则切片仍取最近点
+        BILINEAR
+    }
+
+    /**
+     * 入射方向的插值方式。
+     */
+    public enum IncidentMode {
+        // 入射俯仰、方位两条轴各自找上下界，在 4 个角点切片间双线性插值（默认，适合规则网格）
+        GRID,
+        // 把入射方向看作单位球面上的点，用 KD 树找最近的几个实测方向，按距离反比加权
+        SPHERICAL
+    }
+
+    /**
+     * 方向图切面沿哪个观测角扫描。
+     */
+    public enum CutAxis {
+        // 固定观测俯仰角 theta，扫描观测方位角 phi
+        PHI,
+        // 固定观测方位角 phi，扫描观测俯仰角 theta
+        THETA
+    }
+
+    /**
+     * 极化分量：一列幅度 (dB) 与一列相位 (度) 组成的复数量，用于相干插值。
+     */
+    public enum Polarization {
+        THETA(RcsTable.Column.ABS_THETA, RcsTable.Column.PHASE_THETA),
+        PHI(RcsTable.Column.ABS_PHI, RcsTable.Column.PHASE_PHI);
+
+        private final RcsTable.Column amplitude;
+        private final RcsTable.Column phase;
+
+        Polarization(RcsTable.Column amplitude, RcsTable.Column phase) {
+            this.amplitude = amplitude;
+            this.phase = phase;
+        }
+
+        public RcsTable.Column getAmplitudeColumn() {
+            return amplitude;
+        }
+
+        public RcsTable.Column getPhaseColumn() {
+            return phase;
+        }
+    }
+
+    // 球面插值时参与加权的最近方向数
+    private static final int SPHERICAL_NEIGHBORS = 3;
+    // 弦长小于此值视为与实测方向重合，直接取该方向的值
+    private static final double COINCIDENT_CHORD = 1e-9;
+
+    // 可选的单点查询结果缓存，为 null 时不缓存
+    private volatile RcsResultCache resultCache;
+
+    /**
+     * 一个 (频率, 入射俯仰, 入射方位) 切片及其观测角最近邻索引。
+     * 完整加载时数据常驻；按需加载时只有目录信息，用到时向数据集要。
+     */
+    private static class Slice {
+        // 切片在数据表中的序号；多个切片并列时与行号一起保持原有的先后顺序
+        final int ordinal;
+        final double incidentElevation;
+        final double incidentAzimuth;
+        private final SliceData data;
+        private final LazyRcsDataset dataset;
+
+        Slice(int ordinal, double incidentElevation, double incidentAzimuth, SliceData data, LazyRcsDataset dataset) {
+            this.ordinal = ordinal;
+            this.incidentElevation = incidentElevation;
+            this.incidentAzimuth = incidentAzimuth;
+            this.data = data;
+            this.dataset = dataset;
+        }
+
+        SliceData data() {
+            return data != null ? data : dataset.getSlice(ordinal);
+        }
+    }
+
+    /**
+     * 一个频率下的入射方向：球面 KD 树的第 p 个点对应 slicesByPoint[p] 中方向相同的切片（按切片序号排列）。
+     */
+    private static class DirectionGroup {
+        final DirectionTree tree;
+        final Slice[][] slicesByPoint;
+
+        DirectionGroup(DirectionTree tree, Slice[][] slicesByPoint) {
+            this.tree = tree;
+            this.slicesByPoint = slicesByPoint;
+        }
+    }
+
+    /**
+     * 由数据表构建的只读索引：插值轴、按频率分组的切片及其观测角网格。
+     */
+    private static class SliceIndex {
+        final RcsTable rcsTable;
+        final Axes axes;
+        // 按频率升序分组，每组内是该频率下各入射方向的切片，按入射俯仰角、再按入射方位角升序排列
+        final double[] sliceFrequencies;
+        final Slice[][] slicesByFrequency;
+        final double[][] elevationsByFrequency;
+        final double[][] azimuthsByFrequency;
+        // 与 slicesByFrequency 一一对应的球面方向索引
+        final DirectionGroup[] directionsByFrequency;
+        // 切片样本中可用的列
+        final Set<RcsTable.Column> columns;
+        final ObservationMode observationMode;
+        final IncidentMode incidentMode;
+
+        SliceIndex(RcsTable rcsTable, Axes axes, double[] sliceFrequencies, Slice[][] slicesByFrequency,
+                   double[][] elevationsByFrequency, double[][] azimuthsByFrequency,
+                   DirectionGroup[] directionsByFrequency, Set<RcsTable.Column> columns,
+                   ObservationMode observationMode, IncidentMode incidentMode) {
+            this.rcsTable = rcsTable;
+            this.axes = axes;
+            this.sliceFrequencies = sliceFrequencies;
+            this.slicesByFrequency = slicesByFrequency;
+            this.elevationsByFrequency = elevationsByFrequency;
+            this.azimuthsByFrequency = azimuthsByFrequency;
+            this.directionsByFrequency = directionsByFrequency;
+            this.columns = columns;
+            this.observationMode = observationMode;
+            this.incidentMode = incidentMode;
+        }
+
+        SliceIndex withModes(ObservationMode observationMode, IncidentMode incidentMode) {
+            return new SliceIndex(rcsTable, axes, sliceFrequencies, slicesByFrequency, elevationsByFrequency,
+                    azimuthsByFrequency, directionsByFrequency, columns, observationMode, incidentMode);
+        }
+    }
+
+    public InterpolationEngine(RcsTable rcsTable) {
+        this.index = buildSliceIndex(rcsTable, null, ObservationMode.NEAREST);
+    }
+
+    /**
+     * 按需加载模式：索引只由文件目录建立，切片样本在查询第一次用到时加载，
+     * 常驻量受数据集的内存上限约束。getRcsTable 返回不含样本的目录表。
+     */
+    public InterpolationEngine(LazyRcsDataset dataset) {
+        this.index = buildSliceIndex(dataset.getCatalog(), dataset, ObservationMode.NEAREST);
+    }
+
+    /**
+     * 替换数据。新索引构建完成后才会生效，正在进行的查询继续使用旧数据。
+     */
+    public void setRcsTable(RcsTable rcsTable) {
+        SliceIndex rebuilt = buildSliceIndex(rcsTable, null, ObservationMode.NEAREST);
+        synchronized (this) {
+            this.index = rebuilt.withModes(index.observationMode, index.incidentMode);
+        }
+        RcsResultCache cache = resultCache;
+        if (cache != null) {
+            // 旧数据的结果按版本失效，这里只是尽早释放内存
+            cache.clear();
+        }
+    }
+
+    /**
+     * 为 calculateRCS 挂上结果缓存，传 null 关闭缓存。
+     * 启用后查询参数先按缓存的量化步长取整再计算；批量接口不经过缓存。
+     */
+    public void setResultCache(RcsResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    public RcsResultCache getResultCache() {
+        return resultCache;
+    }
+
+    public RcsTable getRcsTable() {
+        return index.rcsTable;
+    }
+
+    /**
+     * 切换观测角取值方式。索引随之换新，缓存中按旧方式算出的结果自动失效。
+     */
+    public synchronized void setObservationMode(ObservationMode observationMode) {
+        this.index = index.withModes(observationMode, index.incidentMode);
+    }
+
+    public ObservationMode getObservationMode() {
+        return index.observationMode;
+    }
+
+    /**
+     * 切换入射方向插值方式，同样换新索引使缓存结果失效。
+     */
+    public synchronized void setIncidentMode(IncidentMode incidentMode) {
+        this.index = index.withModes(index.observationMode, incidentMode);
+    }
+
+    public IncidentMode getIncidentMode() {
+        return index.incidentMode;
+    }
+
+    /**
+     * 一次性为每个切片建立观测角网格并物化插值轴，避免每次查询都全表扫描或重建轴。
+     * dataset 不为 null 时 rcsTable 是它的目录表，切片还没有读取，按目录中预先标出的空切片跳过，网格留到用时再建。
+     */
+    private static SliceIndex buildSliceIndex(RcsTable rcsTable, LazyRcsDataset dataset,
+                                              ObservationMode observationMode) {
+        double[] sliceFrequencies = rcsTable.getFrequencies();
+        List<List<Slice>> grouped = new ArrayList<>();
+        for (int i = 0; i < sliceFrequencies.length; i++) {
+            grouped.add(new ArrayList<>());
+        }
+
+        IntPredicate present = dataset != null
+                ? s -> !dataset.isSliceEmpty(s)
+                : s -> rcsTable.getSliceEnd(s) > rcsTable.getSliceStart(s);
+        for (int s = 0; s < rcsTable.getSliceCount(); s++) {
+            if (!present.test(s)) {
+                continue;
+            }
+            SliceData data = dataset != null ? null : new SliceData(rcsTable, ObservationGrid.ofSlice(rcsTable, s));
+            grouped.get(rcsTable.getSliceFrequencyIndex(s)).add(new Slice(s,
+                    AngleUtils.normalize360(rcsTable.getSliceIncidentElevation(s)),
+                    AngleUtils.normalize360(rcsTable.getSliceIncidentAzimuth(s)),
+                    data, dataset));
+        }
+
+        // 入射方向多达数百个时，按 (俯仰角, 方位角) 排序：先二分俯仰角窗口，
+        // 再在每段俯仰角相同的切片内二分方位角窗口，天顶等大量方向共用一个俯仰角时也不必逐个比较
+        Slice[][] slicesByFrequency = new Slice[sliceFrequencies.length][];
+        double[][] elevationsByFrequency = new double[sliceFrequencies.length][];
+        double[][] azimuthsByFrequency = new double[sliceFrequencies.length][];
+        for (int i = 0; i < sliceFrequencies.length; i++) {
+            Slice[] slices = grouped.get(i).toArray(new Slice[0]);
+            Arrays.sort(slices, Comparator.<Slice>comparingDouble(slice -> slice.incidentElevation)
+                    .thenComparingDouble(slice -> slice.incidentAzimuth));
+            slicesByFrequency[i] = slices;
+            elevationsByFrequency[i] = new double[slices.length];
+            azimuthsByFrequency[i] = new double[slices.length];
+            for (int j = 0; j < slices.length; j++) {
+                elevationsByFrequency[i][j] = slices[j].incidentElevation;
+                azimuthsByFrequency[i][j] = slices[j].incidentAzimuth;
+            }
+        }
+
+        Axes axes = new Axes(
+                distinctSliceValues(rcsTable, present, rcsTable::getSliceFrequency),
+                distinctSliceValues(rcsTable, present,
+                        s -> AngleUtils.normalize360(rcsTable.getSliceIncidentElevation(s))),
+                distinctSliceValues(rcsTable, present,
+                        s -> AngleUtils.normalize360(rcsTable.getSliceIncidentAzimuth(s))));
+        DirectionGroup[] directionsByFrequency = new DirectionGroup[sliceFrequencies.length];
+        for (int i = 0; i < sliceFrequencies.length; i++) {
+            directionsByFrequency[i] = buildDirectionGroup(slicesByFrequency[i]);
+        }
+        Set<RcsTable.Column> columns = dataset != null ? dataset.getColumns() : rcsTable.getColumns();
+        return new SliceIndex(rcsTable, axes, sliceFrequencies, slicesByFrequency, elevationsByFrequency,
+                azimuthsByFrequency, directionsByFrequency, columns, observationMode, IncidentMode.GRID);
+    }
+
+    /**
+     * 把一个频率下的切片按入射方向合并成球面上的点并建立 KD 树。
+     */
+    private static DirectionGroup buildDirectionGroup(Slice[] slices) {
+        Slice[] byOrdinal = slices.clone();
+        Arrays.sort(byOrdinal, Comparator.comparingInt(slice -> slice.ordinal));
+
+        Map<List<Double>, List<Slice>> points = new LinkedHashMap<>();
+        for (Slice slice : byOrdinal) {
+            points.computeIfAbsent(List.of(slice.incidentElevation, slice.incidentAzimuth), key -> new ArrayList<>())
+                    .add(slice);
+        }
+
+        double[] xs = new double[points.size()];
+        double[] ys = new double[points.size()];
+        double[] zs = new double[points.size()];
+        Slice[][] slicesByPoint = new Slice[points.size()][];
+        int point = 0;
+        for (List<Slice> members : points.values()) {
+            double[] vector = DirectionTree.unitVector(members.get(0).incidentElevation, members.get(0).incidentAzimuth);
+            xs[point] = vector[0];
+            ys[point] = vector[1];
+            zs[point] = vector[2];
+            slicesByPoint[point] = members.toArray(new Slice[0]);
+            point++;
+        }
+        return new DirectionGroup(new DirectionTree(xs, ys, zs), slicesByPoint);
+    }
+
+    /**
+     * 参与插值的切片上某个字典值的去重升序数组。
+     */
+    private static double[] distinctSliceValues(RcsTable rcsTable, IntPredicate present,
+                                                IntToDoubleFunction valueOfSlice) {
+        return IntStream.range(0, rcsTable.getSliceCount())
+                .filter(present)
+                .mapToDouble(valueOfSlice)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    /**
+     * 频率、入射俯仰、入射方位三条插值轴（升序去重，角度已周期化）。
+     */
+    private static class Axes {
+        final double[] frequencies;
+        final double[] incidentElevations;
+        final double[] incidentAzimuths;
+
+        Axes(double[] frequencies, double[] incidentElevations, double[] incidentAzimuths) {
+            this.frequencies = frequencies;
+            this.incidentElevations = incidentElevations;
+            this.incidentAzimuths = incidentAzimuths;
+        }
+    }
+
+    /**
+     * 周期角度轴上的上下界下标。
+     */
+    private static class AngleBounds {
+        int lower;
+        int upper;
+        boolean wrapped;
+
+        void set(int lower, int upper, boolean wrapped) {
+            this.lower = lower;
+            this.upper = upper;
+            this.wrapped = wrapped;
+        }
+    }
+
+    /**
+     * 一次查询在三条轴上的插值上下界（轴下标）。
+     */
+    private static class Bracket {
+        int frequencyLower;
+        int frequencyUpper;
+        final AngleBounds elevation = new AngleBounds();
+        final AngleBounds azimuth = new AngleBounds();
+    }
+
+    /**
+     * 由上下界确定的插值角点：三条轴的端点值和 8 个角点各自命中的切片。
+     */
+    private static class Corners {
+        final double f1;
+        final double f2;
+        final double e1;
+        final double e2;
+        final double a1;
+        final double a2;
+        final boolean elevationShifted;
+        final boolean azimuthShifted;
+        // 顺序：f1e1a1, f1e1a2, f1e2a1, f1e2a2, f2e1a1, f2e1a2, f2e2a1, f2e2a2
+        final Slice[][] slices;
+
+        Corners(double f1, double f2, double e1, double e2, double a1, double a2,
+                boolean elevationShifted, boolean azimuthShifted, Slice[][] slices) {
+            this.f1 = f1;
+            this.f2 = f2;
+            this.e1 = e1;
+            this.e2 = e2;
+            this.a1 = a1;
+            this.a2 = a2;
+            this.elevationShifted = elevationShifted;
+            this.azimuthShifted = azimuthShifted;
+            this.slices = slices;
+        }
+    }
+
+    /**
+     * 一次批量计算的统计信息。
+     */
+    public static class BatchReport {
+        private final int queryCount;
+        private final int cornerGroupCount;
+        private final long elapsedNanos;
+
+        BatchReport(int queryCount, int cornerGroupCount, long elapsedNanos) {
+            this.queryCount = queryCount;
+            this.cornerGroupCount = cornerGroupCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getQueryCount() {
+            return queryCount;
+        }
+
+        public int getCornerGroupCount() {
+            return cornerGroupCount;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getQueriesPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : queryCount * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("批量计算 %d 次查询（%d 组角点），耗时 %.1f ms，吞吐 %.0f 次/秒",
+                    queryCount, cornerGroupCount, elapsedNanos / 1e6, getQueriesPerSecond());
+        }
+    }
+
+    /**
+     * 一条 RCS-频率曲线：frequencies[i] 处的 RCS 为 rcsValues[i]。
+     */
+    public static class FrequencySweep {
+        private final double[] frequencies;
+        private final double[] rcsValues;
+
+        FrequencySweep(double[] frequencies, double[] rcsValues) {
+            this.frequencies = frequencies;
+            this.rcsValues = rcsValues;
+        }
+
+        public int size() {
+            return frequencies.length;
+        }
+
+        /**
+         * 扫频点 (MHz)，数组归调用方所有。
+         */
+        public double[] getFrequencies() {
+            return frequencies;
+        }
+
+        /**
+         * 各扫频点的 RCS，数组归调用方所有。
+         */
+        public double[] getRcsValues() {
+            return rcsValues;
+        }
+    }
+
+    /**
+     * 一条方向图切面：沿 axis 扫描的观测角 angles[i] 处的 RCS 为 rcsValues[i]，另一观测角固定为 fixedAngle。
+     */
+    public static class PatternCut {
+        private final CutAxis axis;
+        private final double fixedAngle;
+        private final double[] angles;
+        private final double[] rcsValues;
+
+        PatternCut(CutAxis axis, double fixedAngle, double[] angles, double[] rcsValues) {
+            this.axis = axis;
+            this.fixedAngle = fixedAngle;
+            this.angles = angles;
+            this.rcsValues = rcsValues;
+        }
+
+        public CutAxis getAxis() {
+            return axis;
+        }
+
+        public double getFixedAngle() {
+            return fixedAngle;
+        }
+
+        public int size() {
+            return angles.length;
+        }
+
+        /**
+         * 扫描的观测角（度，未周期化，与请求的范围一致），数组归调用方所有。
+         */
+        public double[] getAngles() {
+            return angles;
+        }
+
+        /**
+         * 各扫描角的 RCS，数组归调用方所有。
+         */
+        public double[] getRcsValues() {
+            return rcsValues;
+        }
+    }
+
+    /**
+     * 相干插值得到的极化分量，实部和虚部以 sqrt(m²) 为单位。
+     */
+    public static class ComplexValue {
+        private final double real;
+        private final double imaginary;
+
+        ComplexValue(double real, double imaginary) {
+            this.real = real;
+            this.imaginary = imaginary;
+        }
+
+        public double getReal() {
+            return real;
+        }
+
+        public double getImaginary() {
+            return imaginary;
+        }
+
+        /**
+         * 幅度 dB(m²)，与 CST 的 Abs 列同一单位。
+         */
+        public double getAmplitudeDb() {
+            return 10.0 * Math.log10(real * real + imaginary * imaginary);
+        }
+
+        /**
+         * 相位（度），周期化到 [0, 360)。
+         */
+        public double getPhaseDegrees() {
+            return AngleUtils.normalize360(Math.toDegrees(Math.atan2(imaginary, real)));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f dB(m²) ∠ %.3f°", getAmplitudeDb(), getPhaseDegrees());
+        }
+    }
+
+    /**
+     * 列插值的取值方式：标量列直接取值；极化分量把幅度 (dB) 和相位 (度) 换算成复数的实部和虚部，
+     * 观测角、入射方向和频率各级插值都在实部、虚部上分别进行，即相干插值。
+     */
+    private static final class Quantity {
+        final RcsTable.Column value;
+        // 为 null 时是标量列
+        final RcsTable.Column phase;
+        final int components;
+
+        Quantity(RcsTable.Column value, RcsTable.Column phase) {
+            this.value = value;
+            this.phase = phase;
+            this.components = phase == null ? 1 : 2;
+        }
+
+        void read(RcsTable table, int row, double[] out) {
+            double v = table.getValue(value, row);
+            if (phase == null) {
+                out[0] = v;
+                return;
+            }
+            double amplitude = Math.pow(10.0, v / 20.0);
+            double radians = Math.toRadians(table.getValue(phase, row));
+            out[0] = amplitude * Math.cos(radians);
+            out[1] = amplitude * Math.sin(radians);
+        }
+
+        /**
+         * 找不到数据点时的取值，与 getClosestRCS 一样按 -50 dB 处理，相位取 0。
+         */
+        void missing(double[] out) {
+            if (phase == null) {
+                out[0] = -50.0;
+            } else {
+                out[0] = Math.pow(10.0, -50.0 / 20.0);
+                out[1] = 0.0;
+            }
+        }
+    }
+
+    public double calculateRCS(double frequency, double incidentElevation, double incidentAzimuth, double theta, double phi) {
+        if (RcsMetrics.ENABLED) {
+            long start = System.nanoTime();
+            double value = lookup(frequency, incidentElevation, incidentAzimuth, theta, phi);
+            RcsMetrics.QUERY.record(System.nanoTime() - start);
+            return value;
+        }
+        return lookup(frequency, incidentElevation, incidentAzimuth, theta, phi);
+    }
+
+    private double lookup(double frequency, double incidentElevation, double incidentAzimuth, double theta, double phi) {
+        RcsResultCache cache = resultCache;
+        if (cache == null) {
+            return compute(this.index, frequency, incidentElevation, incidentAzimuth, theta, phi);
+        }
+
+        SliceIndex index = this.index;
+        double snappedFrequency = cache.snapFrequency(frequency);
+        double snappedIncidentElevation = cache.snapAngle(incidentElevation);
+        double snappedIncidentAzimuth = cache.snapAngle(incidentAzimuth);
+        double snappedTheta = cache.snapAngle(theta);
+        double snappedPhi = cache.snapAngle(phi);
+
+        RcsResultCache.Entry cached = cache.get(index, snappedFrequency, snappedIncidentElevation,
+                snappedIncidentAzimuth, snappedTheta, snappedPhi);
+        if (cached != null) {
+            return cached.getValue();
+        }
+        double value = compute(index, snappedFrequency, snappedIncidentElevation, snappedIncidentAzimuth,
+                snappedTheta, snappedPhi);
+        cache.put(index, snappedFrequency, snappedIncidentElevation, snappedIncidentAzimuth,
+                snappedTheta, snappedPhi, value);
+        return value;
+    }
+
+    private static double compute(SliceIndex index, double frequency, double incidentElevation, double incidentAzimuth,
+                                  double theta, double phi) {
+        // 角度统一做 0~360 周期化，确保 0° 与 360° 等价
+        double normalizedIncidentElevation = AngleUtils.normalize360(incidentElevation);
+        double normalizedIncidentAzimuth = AngleUtils.normalize360(incidentAzimuth);
+        double normalizedTheta = AngleUtils.normalize360(theta);
+        double normalizedPhi = AngleUtils.normalize360(phi);
+
+        if (index.incidentMode == IncidentMode.SPHERICAL) {
+            return computeSpherical(index, frequency, normalizedIncidentElevation, normalizedIncidentAzimuth,
+                    normalizedTheta, normalizedPhi);
+        }
+
+        Bracket bracket = new Bracket();
+        long start = RcsMetrics.now();
+        findBracket(index.axes, frequency, normalizedIncidentElevation, normalizedIncidentAzimuth, bracket);
+        long bracketed = RcsMetrics.lap(RcsMetrics.QUERY_BRACKET, start);
+        Corners corners = resolveCorners(index, bracket);
+        long resolved = RcsMetrics.lap(RcsMetrics.QUERY_CORNERS, bracketed);
+        double value = evaluate(index, corners, frequency, normalizedIncidentElevation, normalizedIncidentAzimuth,
+                normalizedTheta, normalizedPhi);
+        RcsMetrics.lap(RcsMetrics.QUERY_EVALUATE, resolved);
+        return value;
+    }
+
+    /**
+     * 球面插值：在频率上下界两个频率下，分别取离入射方向最近的几个实测方向按距离平方反比加权，
+     * 再在频率上线性插值。与某个实测方向重合时直接取该方向的值。
+     */
+    private static double computeSpherical(SliceIndex index, double frequency, double normalizedIncidentElevation,
+                                           double normalizedIncidentAzimuth, double normalizedTheta,
+                                           double normalizedPhi) {
+        Bracket bracket = new Bracket();
+        long start = RcsMetrics.now();
+        findFrequencyBounds(index.axes.frequencies, frequency, bracket);
+        long bracketed = RcsMetrics.lap(RcsMetrics.QUERY_BRACKET, start);
+        double f1 = index.axes.frequencies[bracket.frequencyLower];
+        double f2 = index.axes.frequencies[bracket.frequencyUpper];
+
+        double[] direction = DirectionTree.unitVector(normalizedIncidentElevation, normalizedIncidentAzimuth);
+        double rcsFreq1 = sphericalValue(index, f1, direction, normalizedTheta, normalizedPhi);
+        double rcsFreq2 = f2 == f1 ? rcsFreq1 : sphericalValue(index, f2, direction, normalizedTheta, normalizedPhi);
+        RcsMetrics.lap(RcsMetrics.QUERY_CORNERS, bracketed);
+        return interpolate(rcsFreq1, rcsFreq2, f1, f2, frequency);
+    }
+
+    private static double sphericalValue(SliceIndex index, double frequency, double[] direction,
+                                         double normalizedTheta, double normalizedPhi) {
+        int group = Arrays.binarySearch(index.sliceFrequencies, frequency);
+        DirectionGroup directions = group >= 0 ? index.directionsByFrequency[group] : null;
+        if (directions == null || directions.tree.size() == 0) {
+            return -50.0;
+        }
+
+        int[] neighbors = new int[SPHERICAL_NEIGHBORS];
+        double[] distances = new double[SPHERICAL_NEIGHBORS];
+        int found = directions.tree.nearest(direction[0], direction[1], direction[2], SPHERICAL_NEIGHBORS,
+                neighbors, distances);
+        if (distances[0] < COINCIDENT_CHORD) {
+            return observationValue(index, directions.slicesByPoint[neighbors[0]], normalizedTheta, normalizedPhi);
+        }
+
+        double weightedSum = 0.0;
+        double weightSum = 0.0;
+        for (int i = 0; i < found; i++) {
+            double weight = 1.0 / (distances[i] * distances[i]);
+            weightedSum += weight * observationValue(index, directions.slicesByPoint[neighbors[i]],
+                    normalizedTheta, normalizedPhi);
+            weightSum += weight;
+        }
+        return weightedSum / weightSum;
+    }
+
+    /**
+     * 固定入射方向和观测方向，从 startFrequency 到 endFrequency（含端点）按 step 扫频，返回整条 RCS-频率曲线。
+     * 入射角只定界一次，每个用到的原生频率只解析一次角点并取值，之后沿频率轴逐点线性插值，
+     * 代价与原生频率数相当而与扫频点数基本无关。结果与不开结果缓存时逐点调用 calculateRCS 相同。
+     */
+    public FrequencySweep calculateFrequencySweep(double startFrequency, double endFrequency, double step,
+                                                  double incidentElevation, double incidentAzimuth,
+                                                  double theta, double phi) {
+        int count = sampleCount(startFrequency, endFrequency, step);
+        long start = RcsMetrics.now();
+        SliceIndex index = this.index;
+        double[] nativeFrequencies = index.axes.frequencies;
+        if (nativeFrequencies.length == 0) {
+            throw new IllegalStateException("没有可用的RCS数据");
+        }
+
+        double normalizedIncidentElevation = AngleUtils.normalize360(incidentElevation);
+        double normalizedIncidentAzimuth = AngleUtils.normalize360(incidentAzimuth);
+        double normalizedTheta = AngleUtils.normalize360(theta);
+        double normalizedPhi = AngleUtils.normalize360(phi);
+        // 入射角上下界与频率无关，定界一次
+        Bracket bracket = new Bracket();
+        findBracket(index.axes, startFrequency, normalizedIncidentElevation, normalizedIncidentAzimuth, bracket);
+        double[] direction = DirectionTree.unitVector(normalizedIncidentElevation, normalizedIncidentAzimuth);
+
+        // 各原生频率下的值在第一次用到时计算
+        double[] nativeValues = new double[nativeFrequencies.length];
+        boolean[] resolved = new boolean[nativeFrequencies.length];
+
+        double[] frequencies = new double[count];
+        double[] rcsValues = new double[count];
+        // notAbove / below 为不大于 / 小于当前频率的原生频率个数，扫频点递增，两者只会前移
+        int notAbove = 0;
+        int below = 0;
+        for (int i = 0; i < count; i++) {
+            double frequency = startFrequency + i * step;
+            while (notAbove < nativeFrequencies.length && nativeFrequencies[notAbove] <= frequency) {
+                notAbove++;
+            }
+            while (below < nativeFrequencies.length && nativeFrequencies[below] < frequency) {
+                below++;
+            }
+            // 与 findFrequencyBounds 相同：找不到时上下界都退回第一个频率
+            int lower = notAbove > 0 ? notAbove - 1 : 0;
+            int upper = below < nativeFrequencies.length ? below : 0;
+            for (int side = 0; side < 2; side++) {
+                int bound = side == 0 ? lower : upper;
+                if (!resolved[bound]) {
+                    nativeValues[bound] = nativeFrequencyValue(index, bracket, direction, nativeFrequencies[bound],
+                            normalizedIncidentElevation, normalizedIncidentAzimuth, normalizedTheta, normalizedPhi);
+                    resolved[bound] = true;
+                }
+            }
+            frequencies[i] = frequency;
+            rcsValues[i] = interpolate(nativeValues[lower], nativeValues[upper],
+                    nativeFrequencies[lower], nativeFrequencies[upper], frequency);
+        }
+        RcsMetrics.lap(RcsMetrics.SWEEP, start);
+        return new FrequencySweep(frequencies, rcsValues);
+    }
+
+    /**
+     * 从 start 到 end（含端点）按 step 取样的点数。
+     */
+    private static int sampleCount(double start, double end, double step) {
+        if (!(step > 0) || !(end >= start) || Double.isInfinite(end - start)) {
+            throw new IllegalArgumentException("取样范围或步长无效");
+        }
+        double span = Math.floor((end - start) / step + 1e-9);
+        if (span >= Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("取样点数过多");
+        }
+        return (int) span + 1;
+    }
+
+    /**
+     * 原生频率 frequency 下、入射角已定界时的 RCS，即单点查询中频率插值前一侧的值。
+     */
+    private static double nativeFrequencyValue(SliceIndex index, Bracket bracket, double[] direction, double frequency,
+                                               double normalizedIncidentElevation, double normalizedIncidentAzimuth,
+                                               double normalizedTheta, double normalizedPhi) {
+        if (index.incidentMode == IncidentMode.SPHERICAL) {
+            return sphericalValue(index, frequency, direction, normalizedTheta, normalizedPhi);
+        }
+        Corners corners = resolveCorners(index, bracket, frequency, frequency);
+        return evaluate(index, corners, frequency, normalizedIncidentElevation, normalizedIncidentAzimuth,
+                normalizedTheta, normalizedPhi);
+    }
+
+    /**
+     * 插值任一已加载的标量列（幅度、轴比等），插值方式与 calculateRCS 相同；RCS 列直接交给 calculateRCS。
+     * 相位列不能单独线性插值，请用 calculateComplex。该列没有加载时抛出 IllegalStateException。
+     */
+    public double calculateColumn(RcsTable.Column column, double frequency, double incidentElevation,
+                                  double incidentAzimuth, double theta, double phi) {
+        if (column == RcsTable.Column.RCS) {
+            return calculateRCS(frequency, incidentElevation, incidentAzimuth, theta, phi);
+        }
+        if (column.isPhase()) {
+            throw new IllegalArgumentException("相位列不能单独线性插值，请用 calculateComplex: " + column);
+        }
+        SliceIndex index = this.index;
+        requireColumn(index, column);
+        double[] value = new double[1];
+        computeQuantity(index, new Quantity(column, null), frequency, incidentElevation, incidentAzimuth,
+                theta, phi, value);
+        return value[0];
+    }
+
+    /**
+     * 极化分量的相干插值：各角点的幅度和相位先换成复数，在实部、虚部上按 calculateRCS 的方式插值，
+     * 再换回幅度和相位。需要加载该极化的幅度列和相位列，否则抛出 IllegalStateException。
+     */
+    public ComplexValue calculateComplex(Polarization polarization, double frequency, double incidentElevation,
+                                         double incidentAzimuth, double theta, double phi) {
+        SliceIndex index = this.index;
+        requireColumn(index, polarization.getAmplitudeColumn());
+        requireColumn(index, polarization.getPhaseColumn());
+        double[] value = new double[2];
+        computeQuantity(index, new Quantity(polarization.getAmplitudeColumn(), polarization.getPhaseColumn()),
+                frequency, incidentElevation, incidentAzimuth, theta, phi, value);
+        return new ComplexValue(value[0], value[1]);
     }
 
-    public double calculateRCS(double frequency, double incidentElevation, double incidentAzimuth, double theta, double phi) {
-        // 角度统一做 0~360 周期化，确保 0° 与 360° 等价
+    private static void requireColumn(SliceIndex index, RcsTable.Column column) {
+        if (!index.columns.contains(column)) {
+            throw new IllegalStateException("未加载列 " + column + "，读取数据时用 DataReader.setColumns 或 -Drcs.columns 加上该列");
+        }
+    }
+
+    /**
+     * compute / computeSpherical 的列版本：定界和角点与 RCS 相同，out 的每个分量分别插值。
+     */
+    private static void computeQuantity(SliceIndex index, Quantity quantity, double frequency,
+                                        double incidentElevation, double incidentAzimuth, double theta, double phi,
+                                        double[] out) {
         double normalizedIncidentElevation = AngleUtils.normalize360(incidentElevation);
         double normalizedIncidentAzimuth = AngleUtils.normalize360(incidentAzimuth);
         double normalizedTheta = AngleUtils.normalize360(theta);
         double normalizedPhi = AngleUtils.normalize360(phi);
+        int components = quantity.components;
 
-        // 找到最接近的频率点
-        List<Double> frequencies = rcsDataList.stream()
-                .map(RCSData::getFrequency)
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
+        if (index.incidentMode == IncidentMode.SPHERICAL) {
+            Bracket bracket = new Bracket();
+            findFrequencyBounds(index.axes.frequencies, frequency, bracket);
+            double f1 = index.axes.frequencies[bracket.frequencyLower];
+            double f2 = index.axes.frequencies[bracket.frequencyUpper];
+            double[] direction = DirectionTree.unitVector(normalizedIncidentElevation, normalizedIncidentAzimuth);
+            double[] valueFreq1 = new double[components];
+            sphericalSample(index, f1, direction, quantity, normalizedTheta, normalizedPhi, valueFreq1);
+            double[] valueFreq2 = valueFreq1;
+            if (f2 != f1) {
+                valueFreq2 = new double[components];
+                sphericalSample(index, f2, direction, quantity, normalizedTheta, normalizedPhi, valueFreq2);
+            }
+            for (int k = 0; k < components; k++) {
+                out[k] = interpolate(valueFreq1[k], valueFreq2[k], f1, f2, frequency);
+            }
+            return;
+        }
+
+        Bracket bracket = new Bracket();
+        findBracket(index.axes, frequency, normalizedIncidentElevation, normalizedIncidentAzimuth, bracket);
+        Corners corners = resolveCorners(index, bracket);
+        // 两个频率相同时 f2 一侧与 f1 共用，与 evaluate 一致
+        double[][] samples = new double[8][];
+        for (int c = 0; c < 8; c++) {
+            if (c >= 4 && corners.f1 == corners.f2) {
+                samples[c] = samples[c - 4];
+            } else {
+                samples[c] = new double[components];
+                observationSample(index, corners.slices[c], quantity, normalizedTheta, normalizedPhi, samples[c]);
+            }
+        }
+        for (int k = 0; k < components; k++) {
+            out[k] = combine(corners, frequency, normalizedIncidentElevation, normalizedIncidentAzimuth,
+                    samples[0][k], samples[1][k], samples[2][k], samples[3][k],
+                    samples[4][k], samples[5][k], samples[6][k], samples[7][k]);
+        }
+    }
+
+    /**
+     * sphericalValue 的列版本，近邻和权重相同。
+     */
+    private static void sphericalSample(SliceIndex index, double frequency, double[] direction, Quantity quantity,
+                                        double normalizedTheta, double normalizedPhi, double[] out) {
+        int group = Arrays.binarySearch(index.sliceFrequencies, frequency);
+        DirectionGroup directions = group >= 0 ? index.directionsByFrequency[group] : null;
+        if (directions == null || directions.tree.size() == 0) {
+            quantity.missing(out);
+            return;
+        }
+
+        int[] neighbors = new int[SPHERICAL_NEIGHBORS];
+        double[] distances = new double[SPHERICAL_NEIGHBORS];
+        int found = directions.tree.nearest(direction[0], direction[1], direction[2], SPHERICAL_NEIGHBORS,
+                neighbors, distances);
+        if (distances[0] < COINCIDENT_CHORD) {
+            observationSample(index, directions.slicesByPoint[neighbors[0]], quantity, normalizedTheta, normalizedPhi,
+                    out);
+            return;
+        }
+
+        double[] sample = new double[quantity.components];
+        double weightSum = 0.0;
+        Arrays.fill(out, 0.0);
+        for (int i = 0; i < found; i++) {
+            double weight = 1.0 / (distances[i] * distances[i]);
+            observationSample(index, directions.slicesByPoint[neighbors[i]], quantity, normalizedTheta, normalizedPhi,
+                    sample);
+            for (int k = 0; k < out.length; k++) {
+                out[k] += weight * sample[k];
+            }
+            weightSum += weight;
+        }
+        for (int k = 0; k < out.length; k++) {
+            out[k] /= weightSum;
+        }
+    }
+
+    /**
+     * observationValue 的列版本：双线性模式下按网格单元四个格点的值插值，否则取与 getClosestRCS 相同的最近点。
+     */
+    private static void observationSample(SliceIndex index, Slice[] slices, Quantity quantity, double theta,
+                                          double phi, double[] out) {
+        SliceData data = interpolationSlice(index, slices);
+        if (data != null) {
+            int[] rows = new int[4];
+            double[] weights = new double[2];
+            data.getGrid().interpolationCell(theta, phi, rows, weights);
+            double wt = weights[0];
+            double wp = weights[1];
+            double[][] cell = new double[4][quantity.components];
+            for (int i = 0; i < 4; i++) {
+                quantity.read(data.getRcsTable(), rows[i], cell[i]);
+            }
+            for (int k = 0; k < out.length; k++) {
+                double low = cell[0][k] * (1.0 - wp) + cell[1][k] * wp;
+                double high = cell[2][k] * (1.0 - wp) + cell[3][k] * wp;
+                out[k] = low * (1.0 - wt) + high * wt;
+            }
+            return;
+        }
+
+        // 选点规则与 getClosestRCS 一致：距离最小，并列时先比切片序号再比行号
+        SliceData closest = null;
+        int closestOrdinal = -1;
+        int closestRow = -1;
+        double minDistance = Double.MAX_VALUE;
+        for (Slice slice : slices) {
+            SliceData candidate = slice.data();
+            if (candidate.isEmpty()) {
+                continue;
+            }
+            RcsTable rcsTable = candidate.getRcsTable();
+            int row = candidate.getGrid().nearestRow(theta, phi);
+            double distance = ObservationGrid.distance(rcsTable.getTheta(row), rcsTable.getPhi(row), theta, phi);
+            if (distance < minDistance || (distance == minDistance
+                    && (slice.ordinal < closestOrdinal || (slice.ordinal == closestOrdinal && row < closestRow)))) {
+                minDistance = distance;
+                closest = candidate;
+                closestOrdinal = slice.ordinal;
+                closestRow = row;
+            }
+        }
+        if (closest == null) {
+            quantity.missing(out);
+        } else {
+            quantity.read(closest.getRcsTable(), closestRow, out);
+        }
+    }
+
+    /**
+     * 方向图切面：频率和入射方向固定，axis 为 PHI 时固定观测俯仰角 fixedAngle、按 step 扫描观测方位角，
+     * 为 THETA 时固定观测方位角、扫描观测俯仰角，扫描范围 [startAngle, endAngle] 含端点。
+     * 频率和入射方向只定界一次、角点切片只解析一次，每个角点沿切面顺序取值后逐点合成；
+     * 结果与不开结果缓存时逐点调用 calculateRCS 相同。
+     */
+    public PatternCut calculatePatternCut(double frequency, double incidentElevation, double incidentAzimuth,
+                                          CutAxis axis, double fixedAngle, double startAngle, double endAngle,
+                                          double step) {
+        int count = sampleCount(startAngle, endAngle, step);
+        long start = RcsMetrics.now();
+        SliceIndex index = this.index;
+        double normalizedIncidentElevation = AngleUtils.normalize360(incidentElevation);
+        double normalizedIncidentAzimuth = AngleUtils.normalize360(incidentAzimuth);
+        double normalizedFixedAngle = AngleUtils.normalize360(fixedAngle);
 
-        double closestFreq1 = frequencies.get(0);
-        double closestFreq2 = frequencies.get(0);
+        double[] angles = new double[count];
+        double[] thetas = new double[count];
+        double[] phis = new double[count];
+        for (int i = 0; i < count; i++) {
+            angles[i] = startAngle + i * step;
+            double angle = AngleUtils.normalize360(angles[i]);
+            thetas[i] = axis == CutAxis.THETA ? angle : normalizedFixedAngle;
+            phis[i] = axis == CutAxis.PHI ? angle : normalizedFixedAngle;
+        }
 
-        for (double f : frequencies) {
-            if (f <= frequency) {
-                closestFreq1 = f;
+        double[] rcsValues = new double[count];
+        if (index.incidentMode == IncidentMode.SPHERICAL) {
+            Bracket bracket = new Bracket();
+            findFrequencyBounds(index.axes.frequencies, frequency, bracket);
+            double f1 = index.axes.frequencies[bracket.frequencyLower];
+            double f2 = index.axes.frequencies[bracket.frequencyUpper];
+            double[] direction = DirectionTree.unitVector(normalizedIncidentElevation, normalizedIncidentAzimuth);
+            double[] rcsFreq1 = new double[count];
+            sphericalValues(index, f1, direction, thetas, phis, rcsFreq1, count);
+            double[] rcsFreq2 = rcsFreq1;
+            if (f2 != f1) {
+                rcsFreq2 = new double[count];
+                sphericalValues(index, f2, direction, thetas, phis, rcsFreq2, count);
+            }
+            for (int i = 0; i < count; i++) {
+                rcsValues[i] = interpolate(rcsFreq1[i], rcsFreq2[i], f1, f2, frequency);
+            }
+        } else {
+            Bracket bracket = new Bracket();
+            findBracket(index.axes, frequency, normalizedIncidentElevation, normalizedIncidentAzimuth, bracket);
+            Corners corners = resolveCorners(index, bracket);
+            // 每个角点沿切面连续取值；两个频率相同时 f2 一侧与 f1 共用，与 evaluate 一致
+            double[][] cornerValues = new double[8][];
+            int resolvedCorners = corners.f1 == corners.f2 ? 4 : 8;
+            for (int c = 0; c < 8; c++) {
+                if (c < resolvedCorners) {
+                    cornerValues[c] = new double[count];
+                    observationValues(index, corners.slices[c], thetas, phis, cornerValues[c], count);
+                } else {
+                    cornerValues[c] = cornerValues[c - 4];
+                }
             }
-            if (f >= frequency) {
-                closestFreq2 = f;
-                break;
+            for (int i = 0; i < count; i++) {
+                rcsValues[i] = combine(corners, frequency, normalizedIncidentElevation, normalizedIncidentAzimuth,
+                        cornerValues[0][i], cornerValues[1][i], cornerValues[2][i], cornerValues[3][i],
+                        cornerValues[4][i], cornerValues[5][i], cornerValues[6][i], cornerValues[7][i]);
             }
         }
+        RcsMetrics.lap(RcsMetrics.CUT, start);
+        return new PatternCut(axis, fixedAngle, angles, rcsValues);
+    }
 
-        // 找到最接近的入射俯仰角点（周期化）
-        List<Double> incidentElevations = rcsDataList.stream()
-                .map(RCSData::getIncidentElevation)
-                .map(AngleUtils::normalize360)
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
-        double[] elevBounds = findBoundingAngles(incidentElevations, normalizedIncidentElevation);
+    /**
+     * sphericalValue 的切面版本：近邻方向只找一次，各近邻切片沿切面顺序取值后按相同的顺序加权。
+     */
+    private static void sphericalValues(SliceIndex index, double frequency, double[] direction,
+                                        double[] thetas, double[] phis, double[] out, int count) {
+        int group = Arrays.binarySearch(index.sliceFrequencies, frequency);
+        DirectionGroup directions = group >= 0 ? index.directionsByFrequency[group] : null;
+        if (directions == null || directions.tree.size() == 0) {
+            Arrays.fill(out, 0, count, -50.0);
+            return;
+        }
 
-        // 找到最接近的入射方位角点（周期化）
-        List<Double> incidentAzimuths = rcsDataList.stream()
-                .map(RCSData::getIncidentAzimuth)
-                .map(AngleUtils::normalize360)
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
-        double[] azBounds = findBoundingAngles(incidentAzimuths, normalizedIncidentAzimuth);
+        int[] neighbors = new int[SPHERICAL_NEIGHBORS];
+        double[] distances = new double[SPHERICAL_NEIGHBORS];
+        int found = directions.tree.nearest(direction[0], direction[1], direction[2], SPHERICAL_NEIGHBORS,
+                neighbors, distances);
+        if (distances[0] < COINCIDENT_CHORD) {
+            observationValues(index, directions.slicesByPoint[neighbors[0]], thetas, phis, out, count);
+            return;
+        }
+
+        double[] values = new double[count];
+        double weightSum = 0.0;
+        Arrays.fill(out, 0, count, 0.0);
+        for (int n = 0; n < found; n++) {
+            double weight = 1.0 / (distances[n] * distances[n]);
+            observationValues(index, directions.slicesByPoint[neighbors[n]], thetas, phis, values, count);
+            for (int i = 0; i < count; i++) {
+                out[i] += weight * values[i];
+            }
+            weightSum += weight;
+        }
+        for (int i = 0; i < count; i++) {
+            out[i] /= weightSum;
+        }
+    }
+
+    /**
+     * observationValue 的批量版本：out[i] 为一个角点在 (thetas[i], phis[i]) 方向上的 RCS。
+     * 切片数据只取一次；双线性模式整段交给网格插值，只命中一个非空切片时整段交给网格批量找最近点。
+     */
+    private static void observationValues(SliceIndex index, Slice[] slices, double[] thetas, double[] phis,
+                                          double[] out, int count) {
+        ObservationGrid grid = interpolationGrid(index, slices);
+        if (grid != null) {
+            grid.interpolateAll(thetas, phis, out, count);
+            return;
+        }
+        SliceData single = null;
+        int nonEmpty = 0;
+        for (Slice slice : slices) {
+            SliceData data = slice.data();
+            if (!data.isEmpty()) {
+                single = data;
+                nonEmpty++;
+            }
+        }
+        if (nonEmpty == 1) {
+            RcsTable table = single.getRcsTable();
+            int[] rows = new int[count];
+            single.getGrid().nearestRows(thetas, phis, rows, count);
+            for (int i = 0; i < count; i++) {
+                out[i] = table.getRcsValue(rows[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            out[i] = getClosestRCS(slices, thetas[i], phis[i]);
+        }
+    }
+
+    /**
+     * 批量计算，参数为等长的五个数组，结果写入 results。
+     */
+    public BatchReport calculateRCSBatch(double[] frequencies, double[] incidentElevations, double[] incidentAzimuths,
+                                         double[] thetas, double[] phis, double[] results) {
+        return calculateRCSBatch(frequencies, incidentElevations, incidentAzimuths, thetas, phis, results,
+                ForkJoinPool.commonPool());
+    }
+
+    public BatchReport calculateRCSBatch(double[] frequencies, double[] incidentElevations, double[] incidentAzimuths,
+                                         double[] thetas, double[] phis, double[] results, ForkJoinPool pool) {
+        int count = results.length;
+        if (frequencies.length != count || incidentElevations.length != count || incidentAzimuths.length != count
+                || thetas.length != count || phis.length != count) {
+            throw new IllegalArgumentException("批量查询的参数数组长度必须一致");
+        }
+        return runBatch(new QueryView(new double[][]{frequencies, incidentElevations, incidentAzimuths, thetas, phis},
+                new int[]{0, 0, 0, 0, 0}, 1), results, count, pool);
+    }
+
+    /**
+     * 批量计算，queries 为扁平缓冲区，每 5 个数依次为
+     * 频率、入射俯仰角、入射方位角、观测俯仰角、观测方位角，结果写入 results。
+     */
+    public BatchReport calculateRCSBatch(double[] queries, double[] results) {
+        return calculateRCSBatch(queries, results, ForkJoinPool.commonPool());
+    }
+
+    public BatchReport calculateRCSBatch(double[] queries, double[] results, ForkJoinPool pool) {
+        if (queries.length != results.length * QueryView.FIELDS) {
+            throw new IllegalArgumentException("查询缓冲区长度必须是结果数组长度的 5 倍");
+        }
+        return runBatch(new QueryView(new double[][]{queries, queries, queries, queries, queries},
+                new int[]{0, 1, 2, 3, 4}, QueryView.FIELDS), results, results.length, pool);
+    }
+
+    /**
+     * 五个查询参数的统一视图，兼容分列数组和扁平缓冲区两种布局。
+     */
+    private static class QueryView {
+        static final int FIELDS = 5;
+
+        final double[][] arrays;
+        final int[] offsets;
+        final int stride;
+
+        QueryView(double[][] arrays, int[] offsets, int stride) {
+            this.arrays = arrays;
+            this.offsets = offsets;
+            this.stride = stride;
+        }
+
+        double get(int field, int query) {
+            return arrays[field][query * stride + offsets[field]];
+        }
+    }
+
+    /**
+     * 批量计算流程：整批使用同一份索引；按插值角点分组，每组只解析一次角点切片；
+     * 分组后的查询按组连续排列，再在 ForkJoinPool 上分段并行求值。
+     */
+    private BatchReport runBatch(QueryView queries, double[] results, int count, ForkJoinPool pool) {
+        long startTime = System.nanoTime();
+        SliceIndex index = this.index;
+        Axes axes = index.axes;
+
+        if (index.incidentMode == IncidentMode.SPHERICAL) {
+            // 球面插值没有共享的角点，逐个查询并行求值
+            pool.invoke(new RangeTask(0, count, (from, to) -> {
+                for (int q = from; q < to; q++) {
+                    results[q] = compute(index, queries.get(0, q), queries.get(1, q), queries.get(2, q),
+                            queries.get(3, q), queries.get(4, q));
+                }
+            }));
+            return batchReport(count, 0, startTime);
+        }
+
+        // 第一步（并行）：每个查询的角点分组键
+        long[] keys = new long[count];
+        pool.invoke(new RangeTask(0, count, (from, to) -> {
+            Bracket bracket = new Bracket();
+            for (int q = from; q < to; q++) {
+                findBracket(axes, queries.get(0, q),
+                        AngleUtils.normalize360(queries.get(1, q)),
+                        AngleUtils.normalize360(queries.get(2, q)), bracket);
+                keys[q] = bracketKey(axes, bracket, q);
+            }
+        }));
+
+        // 第二步：按键分组，每组解析一次角点，再用计数排序把同组查询排到一起
+        Map<Long, Integer> groupIds = new HashMap<>();
+        List<Corners> groupCorners = new ArrayList<>();
+        int[] groupOfQuery = new int[count];
+        Bracket bracket = new Bracket();
+        for (int q = 0; q < count; q++) {
+            Integer group = groupIds.get(keys[q]);
+            if (group == null) {
+                group = groupCorners.size();
+                groupIds.put(keys[q], group);
+                findBracket(axes, queries.get(0, q),
+                        AngleUtils.normalize360(queries.get(1, q)),
+                        AngleUtils.normalize360(queries.get(2, q)), bracket);
+                groupCorners.add(resolveCorners(index, bracket));
+            }
+            groupOfQuery[q] = group;
+        }
+
+        int[] groupStarts = new int[groupCorners.size() + 1];
+        for (int q = 0; q < count; q++) {
+            groupStarts[groupOfQuery[q] + 1]++;
+        }
+        for (int g = 0; g < groupCorners.size(); g++) {
+            groupStarts[g + 1] += groupStarts[g];
+        }
+        int[] order = new int[count];
+        int[] fill = Arrays.copyOf(groupStarts, groupCorners.size());
+        for (int q = 0; q < count; q++) {
+            order[fill[groupOfQuery[q]]++] = q;
+        }
+
+        // 第三步（并行）：同组查询共享角点切片，逐个求值写回原位置
+        Corners[] corners = groupCorners.toArray(new Corners[0]);
+        if (index.observationMode == ObservationMode.BILINEAR) {
+            pool.invoke(new RangeTask(0, count, (from, to) ->
+                    evaluateBilinearRange(index, corners, groupOfQuery, order, queries, results, from, to)));
+        } else {
+            pool.invoke(new RangeTask(0, count, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    int q = order[i];
+                    results[q] = evaluate(index, corners[groupOfQuery[q]], queries.get(0, q),
+                            AngleUtils.normalize360(queries.get(1, q)),
+                            AngleUtils.normalize360(queries.get(2, q)),
+                            AngleUtils.normalize360(queries.get(3, q)),
+                            AngleUtils.normalize360(queries.get(4, q)));
+                }
+            }));
+        }
+
+        return batchReport(count, corners.length, startTime);
+    }
+
+    private static BatchReport batchReport(int count, int cornerGroupCount, long startTime) {
+        long elapsed = System.nanoTime() - startTime;
+        if (RcsMetrics.ENABLED) {
+            RcsMetrics.BATCH.record(elapsed);
+            RcsMetrics.BATCH_QUERIES.add(count);
+        }
+        return new BatchReport(count, cornerGroupCount, elapsed);
+    }
+
+    /**
+     * 双线性模式的批量求值：区间内同组的连续查询先整理成 theta/phi 数组，
+     * 每个角点网格对整段调用一次 interpolateAll，最后逐个查询合成。
+     */
+    private static void evaluateBilinearRange(SliceIndex index, Corners[] corners, int[] groupOfQuery, int[] order,
+                                              QueryView queries, double[] results, int from, int to) {
+        int capacity = to - from;
+        double[] thetas = new double[capacity];
+        double[] phis = new double[capacity];
+        double[][] cornerValues = new double[8][capacity];
+
+        int runStart = from;
+        while (runStart < to) {
+            int group = groupOfQuery[order[runStart]];
+            int runEnd = runStart + 1;
+            while (runEnd < to && groupOfQuery[order[runEnd]] == group) {
+                runEnd++;
+            }
+            int length = runEnd - runStart;
+            for (int i = 0; i < length; i++) {
+                int q = order[runStart + i];
+                thetas[i] = AngleUtils.normalize360(queries.get(3, q));
+                phis[i] = AngleUtils.normalize360(queries.get(4, q));
+            }
+
+            Corners groupCorners = corners[group];
+            for (int c = 0; c < 8; c++) {
+                Slice[] slices = groupCorners.slices[c];
+                ObservationGrid grid = interpolationGrid(index, slices);
+                if (grid != null) {
+                    grid.interpolateAll(thetas, phis, cornerValues[c], length);
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        cornerValues[c][i] = getClosestRCS(slices, thetas[i], phis[i]);
+                    }
+                }
+            }
+
+            for (int i = 0; i < length; i++) {
+                int q = order[runStart + i];
+                results[q] = combine(groupCorners, queries.get(0, q),
+                        AngleUtils.normalize360(queries.get(1, q)),
+                        AngleUtils.normalize360(queries.get(2, q)),
+                        cornerValues[0][i], cornerValues[1][i], cornerValues[2][i], cornerValues[3][i],
+                        cornerValues[4][i], cornerValues[5][i], cornerValues[6][i], cornerValues[7][i]);
+            }
+            runStart = runEnd;
+        }
+    }
+
+    /**
+     * 把上下界编码成分组键；轴过长导致编码溢出时退化为每个查询单独成组。
+     */
+    private static long bracketKey(Axes axes, Bracket bracket, int query) {
+        long frequencyRadix = axes.frequencies.length;
+        long elevationRadix = axes.incidentElevations.length + 1;
+        long azimuthRadix = axes.incidentAzimuths.length + 1;
+        try {
+            long key = bracket.frequencyLower;
+            key = Math.addExact(Math.multiplyExact(key, frequencyRadix), bracket.frequencyUpper);
+            key = Math.addExact(Math.multiplyExact(key, elevationRadix), bracket.elevation.lower + 1);
+            key = Math.addExact(Math.multiplyExact(key, elevationRadix), bracket.elevation.upper + 1);
+            key = Math.addExact(Math.multiplyExact(key, 2), bracket.elevation.wrapped ? 1 : 0);
+            key = Math.addExact(Math.multiplyExact(key, azimuthRadix), bracket.azimuth.lower + 1);
+            key = Math.addExact(Math.multiplyExact(key, azimuthRadix), bracket.azimuth.upper + 1);
+            key = Math.addExact(Math.multiplyExact(key, 2), bracket.azimuth.wrapped ? 1 : 0);
+            return key;
+        } catch (ArithmeticException e) {
+            return -1L - query;
+        }
+    }
+
+    /**
+     * 把 [from, to) 区间二分到阈值以下后执行的并行任务。
+     */
+    private static class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 1024;
+
+        interface RangeBody {
+            void run(int from, int to);
+        }
+
+        private final int from;
+        private final int to;
+        private final RangeBody body;
+
+        RangeTask(int from, int to, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                body.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, middle, body), new RangeTask(middle, to, body));
+        }
+    }
+
+    /**
+     * 找到频率和入射角在各自轴上的上下界。
+     */
+    private static void findBracket(Axes axes, double frequency, double normalizedIncidentElevation,
+                                    double normalizedIncidentAzimuth, Bracket bracket) {
+        // 找到最接近的频率点
+        double[] frequencies = axes.frequencies;
+        if (frequencies.length == 0) {
+            throw new IllegalStateException("没有可用的RCS数据");
+        }
+
+        findFrequencyBounds(frequencies, frequency, bracket);
+
+        // 找到最接近的入射俯仰角点和入射方位角点（周期化）
+        findBoundingAngles(axes.incidentElevations, normalizedIncidentElevation, bracket.elevation);
+        findBoundingAngles(axes.incidentAzimuths, normalizedIncidentAzimuth, bracket.azimuth);
+    }
+
+    /**
+     * 频率轴上的上下界：下界取最后一个不大于目标的频率，上界取第一个不小于目标的频率，找不到时都退回第一个频率。
+     */
+    private static void findFrequencyBounds(double[] frequencies, double frequency, Bracket bracket) {
+        if (frequencies.length == 0) {
+            throw new IllegalStateException("没有可用的RCS数据");
+        }
+        int upperBound = upperBound(frequencies, frequency);
+        int lowerBound = lowerBound(frequencies, frequency);
+        bracket.frequencyLower = upperBound > 0 ? upperBound - 1 : 0;
+        bracket.frequencyUpper = lowerBound < frequencies.length ? lowerBound : 0;
+    }
 
+    /**
+     * 由上下界得到三条轴的端点值，并解析 8 个角点各自命中的切片。
+     */
+    private static Corners resolveCorners(SliceIndex index, Bracket bracket) {
         // 三维线性插值（频率、入射俯仰、入射方位）
-        double f1 = closestFreq1;
-        double f2 = closestFreq2;
-        double e1 = elevBounds[0];
-        double e2 = elevBounds[1];
-        double a1 = azBounds[0];
-        double a2 = azBounds[1];
+        return resolveCorners(index, bracket, index.axes.frequencies[bracket.frequencyLower],
+                index.axes.frequencies[bracket.frequencyUpper]);
+    }
+
+    /**
+     * 以给定的两个频率为频率轴端点解析角点，入射角上下界取自 bracket。
+     * 两个频率相同时频率上的插值直接取 f1 一侧，f2 一侧的角点与 f1 共用。
+     */
+    private static Corners resolveCorners(SliceIndex index, Bracket bracket, double f1, double f2) {
+        Axes axes = index.axes;
+        double e1 = angleAt(axes.incidentElevations, bracket.elevation.lower, false);
+        double e2 = angleAt(axes.incidentElevations, bracket.elevation.upper, bracket.elevation.wrapped);
+        double a1 = angleAt(axes.incidentAzimuths, bracket.azimuth.lower, false);
+        double a2 = angleAt(axes.incidentAzimuths, bracket.azimuth.upper, bracket.azimuth.wrapped);
 
         // 若上界小于下界，说明跨越 360°，插值时将上界抬升 360°
-        double inputElev = normalizedIncidentElevation;
-        if (e2 < e1) {
+        boolean elevationShifted = e2 < e1;
+        if (elevationShifted) {
             e2 += 360.0;
-            if (inputElev < e1) {
-                inputElev += 360.0;
-            }
         }
-
-        double inputAz = normalizedIncidentAzimuth;
-        if (a2 < a1) {
+        boolean azimuthShifted = a2 < a1;
+        if (azimuthShifted) {
             a2 += 360.0;
-            if (inputAz < a1) {
-                inputAz += 360.0;
-            }
         }
 
-        double rcs_f1_e1_a1 = getClosestRCS(f1, e1, a1, normalizedTheta, normalizedPhi);
-        double rcs_f1_e1_a2 = getClosestRCS(f1, e1, a2, normalizedTheta, normalizedPhi);
-        double rcs_f1_e2_a1 = getClosestRCS(f1, e2, a1, normalizedTheta, normalizedPhi);
-        double rcs_f1_e2_a2 = getClosestRCS(f1, e2, a2, normalizedTheta, normalizedPhi);
+        Slice[][] slices = new Slice[8][];
+        slices[0] = findSlices(index, f1, e1, a1);
+        slices[1] = findSlices(index, f1, e1, a2);
+        slices[2] = findSlices(index, f1, e2, a1);
+        slices[3] = findSlices(index, f1, e2, a2);
+        if (f2 == f1) {
+            System.arraycopy(slices, 0, slices, 4, 4);
+        } else {
+            slices[4] = findSlices(index, f2, e1, a1);
+            slices[5] = findSlices(index, f2, e1, a2);
+            slices[6] = findSlices(index, f2, e2, a1);
+            slices[7] = findSlices(index, f2, e2, a2);
+        }
+        return new Corners(f1, f2, e1, e2, a1, a2, elevationShifted, azimuthShifted, slices);
+    }
+
+    private static double evaluate(SliceIndex index, Corners corners, double frequency, double normalizedIncidentElevation,
+                            double normalizedIncidentAzimuth, double normalizedTheta, double normalizedPhi) {
+        Slice[][] slices = corners.slices;
+        double rcs_f1_e1_a1 = observationValue(index, slices[0], normalizedTheta, normalizedPhi);
+        double rcs_f1_e1_a2 = observationValue(index, slices[1], normalizedTheta, normalizedPhi);
+        double rcs_f1_e2_a1 = observationValue(index, slices[2], normalizedTheta, normalizedPhi);
+        double rcs_f1_e2_a2 = observationValue(index, slices[3], normalizedTheta, normalizedPhi);
 
-        double rcs_f2_e1_a1 = getClosestRCS(f2, e1, a1, normalizedTheta, normalizedPhi);
-        double rcs_f2_e1_a2 = getClosestRCS(f2, e1, a2, normalizedTheta, normalizedPhi);
-        double rcs_f2_e2_a1 = getClosestRCS(f2, e2, a1, normalizedTheta, normalizedPhi);
-        double rcs_f2_e2_a2 = getClosestRCS(f2, e2, a2, normalizedTheta, normalizedPhi);
+        // 两个频率相同时频率插值只取 f1 一侧，不必再取 f2 的角点值
+        boolean single = corners.f1 == corners.f2;
+        double rcs_f2_e1_a1 = single ? rcs_f1_e1_a1 : observationValue(index, slices[4], normalizedTheta, normalizedPhi);
+        double rcs_f2_e1_a2 = single ? rcs_f1_e1_a2 : observationValue(index, slices[5], normalizedTheta, normalizedPhi);
+        double rcs_f2_e2_a1 = single ? rcs_f1_e2_a1 : observationValue(index, slices[6], normalizedTheta, normalizedPhi);
+        double rcs_f2_e2_a2 = single ? rcs_f1_e2_a2 : observationValue(index, slices[7], normalizedTheta, normalizedPhi);
+
+        return combine(corners, frequency, normalizedIncidentElevation, normalizedIncidentAzimuth,
+                rcs_f1_e1_a1, rcs_f1_e1_a2, rcs_f1_e2_a1, rcs_f1_e2_a2,
+                rcs_f2_e1_a1, rcs_f2_e1_a2, rcs_f2_e2_a1, rcs_f2_e2_a2);
+    }
+
+    /**
+     * 8 个角点的观测值先在入射方位/俯仰上双线性插值，再在频率上线性插值。
+     */
+    private static double combine(Corners corners, double frequency, double normalizedIncidentElevation,
+                                  double normalizedIncidentAzimuth,
+                                  double rcs_f1_e1_a1, double rcs_f1_e1_a2, double rcs_f1_e2_a1, double rcs_f1_e2_a2,
+                                  double rcs_f2_e1_a1, double rcs_f2_e1_a2, double rcs_f2_e2_a1, double rcs_f2_e2_a2) {
+        double inputElev = normalizedIncidentElevation;
+        if (corners.elevationShifted && inputElev < corners.e1) {
+            inputElev += 360.0;
+        }
+        double inputAz = normalizedIncidentAzimuth;
+        if (corners.azimuthShifted && inputAz < corners.a1) {
+            inputAz += 360.0;
+        }
 
         double rcsFreq1 = bilinear(rcs_f1_e1_a1, rcs_f1_e1_a2, rcs_f1_e2_a1, rcs_f1_e2_a2,
-                a1, a2, e1, e2, inputAz, inputElev);
+                corners.a1, corners.a2, corners.e1, corners.e2, inputAz, inputElev);
         double rcsFreq2 = bilinear(rcs_f2_e1_a1, rcs_f2_e1_a2, rcs_f2_e2_a1, rcs_f2_e2_a2,
-                a1, a2, e1, e2, inputAz, inputElev);
+                corners.a1, corners.a2, corners.e1, corners.e2, inputAz, inputElev);
 
-        return interpolate(rcsFreq1, rcsFreq2, f1, f2, frequency);
+        return interpolate(rcsFreq1, rcsFreq2, corners.f1, corners.f2, frequency);
+    }
+
+    /**
+     * 频率和入射角都在容差范围内的切片，按切片序号排列。
+     */
+    private static Slice[] findSlices(SliceIndex index, double frequency, double incidentElevation, double incidentAzimuth) {
+        List<Slice> matched = new ArrayList<>();
+        double[] sliceFrequencies = index.sliceFrequencies;
+        double elevation = AngleUtils.normalize360(incidentElevation);
+
+        // 频率轴有序，先用放宽的区间二分定位，再逐个按原容差精确判定
+        int start = lowerBound(sliceFrequencies, frequency - 2 * MATCH_TOLERANCE);
+        for (int i = start; i < sliceFrequencies.length && sliceFrequencies[i] <= frequency + 2 * MATCH_TOLERANCE; i++) {
+            if (!(Math.abs(sliceFrequencies[i] - frequency) < MATCH_TOLERANCE)) {
+                continue;
+            }
+            // 俯仰角同样先二分出放宽的窗口，跨 0/360° 时两端各取一段
+            Slice[] slices = index.slicesByFrequency[i];
+            double[] elevations = index.elevationsByFrequency[i];
+            double[] azimuths = index.azimuthsByFrequency[i];
+            double low = elevation - 2 * MATCH_TOLERANCE;
+            double high = elevation + 2 * MATCH_TOLERANCE;
+            collectMatches(slices, elevations, azimuths, low, high, incidentElevation, incidentAzimuth, matched);
+            if (low < 0) {
+                collectMatches(slices, elevations, azimuths, low + 360.0, 360.0,
+                        incidentElevation, incidentAzimuth, matched);
+            }
+            if (high >= 360.0) {
+                collectMatches(slices, elevations, azimuths, 0.0, high - 360.0,
+                        incidentElevation, incidentAzimuth, matched);
+            }
+        }
+        if (matched.size() > 1) {
+            // 多个切片命中时保持数据表中的先后顺序，与逐个比较时一致
+            matched.sort(Comparator.comparingInt(slice -> slice.ordinal));
+        }
+        return matched.toArray(new Slice[0]);
+    }
+
+    /**
+     * 俯仰角落在 [low, high] 内的切片中，按原容差精确判定入射俯仰和方位。
+     * 俯仰角相同的一段切片按方位角有序，每段内再二分出放宽的方位角窗口，跨 0/360° 时两端各取一段。
+     */
+    private static void collectMatches(Slice[] slices, double[] elevations, double[] azimuths,
+                                       double low, double high, double incidentElevation,
+                                       double incidentAzimuth, List<Slice> matched) {
+        double azimuth = AngleUtils.normalize360(incidentAzimuth);
+        double azimuthLow = azimuth - 2 * MATCH_TOLERANCE;
+        double azimuthHigh = azimuth + 2 * MATCH_TOLERANCE;
+        int run = lowerBound(elevations, 0, elevations.length, low);
+        while (run < elevations.length && elevations[run] <= high) {
+            int runEnd = upperBound(elevations, run, elevations.length, elevations[run]);
+            collectRun(slices, azimuths, run, runEnd, azimuthLow, azimuthHigh,
+                    incidentElevation, incidentAzimuth, matched);
+            if (azimuthLow < 0) {
+                collectRun(slices, azimuths, run, runEnd, azimuthLow + 360.0, 360.0,
+                        incidentElevation, incidentAzimuth, matched);
+            }
+            if (azimuthHigh >= 360.0) {
+                collectRun(slices, azimuths, run, runEnd, 0.0, azimuthHigh - 360.0,
+                        incidentElevation, incidentAzimuth, matched);
+            }
+            run = runEnd;
+        }
+    }
+
+    /**
+     * 俯仰角相同的 [from, to) 段内，方位角落在 [low, high] 的切片逐个按原容差精确判定。
+     */
+    private static void collectRun(Slice[] slices, double[] azimuths, int from, int to, double low, double high,
+                                   double incidentElevation, double incidentAzimuth, List<Slice> matched) {
+        for (int j = lowerBound(azimuths, from, to, low); j < to && azimuths[j] <= high; j++) {
+            Slice slice = slices[j];
+            if (AngleUtils.circularDifference(slice.incidentElevation, incidentElevation) < MATCH_TOLERANCE
+                    && AngleUtils.circularDifference(slice.incidentAzimuth, incidentAzimuth) < MATCH_TOLERANCE) {
+                matched.add(slice);
+            }
+        }
+    }
+
+    /**
+     * 一个角点在观测方向上的 RCS：双线性模式下在首个命中切片的网格上插值，否则取最近点。
+     */
+    private static double observationValue(SliceIndex index, Slice[] slices, double theta, double phi) {
+        ObservationGrid grid = interpolationGrid(index, slices);
+        if (grid != null) {
+            return grid.interpolate(theta, phi);
+        }
+        return getClosestRCS(slices, theta, phi);
+    }
+
+    /**
+     * 双线性模式下可用于插值的网格（首个有数据的命中切片），不可插值时返回 null。
+     */
+    private static ObservationGrid interpolationGrid(SliceIndex index, Slice[] slices) {
+        SliceData data = interpolationSlice(index, slices);
+        return data != null ? data.getGrid() : null;
+    }
+
+    /**
+     * interpolationGrid 所在的切片数据，用于插值 RCS 以外的列。
+     */
+    private static SliceData interpolationSlice(SliceIndex index, Slice[] slices) {
+        if (index.observationMode != ObservationMode.BILINEAR) {
+            return null;
+        }
+        for (Slice slice : slices) {
+            SliceData data = slice.data();
+            if (!data.isEmpty()) {
+                return data.getGrid().canInterpolate() ? data : null;
+            }
+        }
+        return null;
     }
 
-    private double getClosestRCS(double frequency, double incidentElevation, double incidentAzimuth, double theta, double phi) {
-        // 找到最接近的theta和phi的数据点
-        RCSData closestData = null;
+    private static double getClosestRCS(Slice[] slices, double theta, double phi) {
+        // 在命中的切片中找到最接近的theta和phi的数据点
+        RcsTable closestTable = null;
+        int closestOrdinal = -1;
+        int closestRow = -1;
         double minDistance = Double.MAX_VALUE;
 
-        for (RCSData data : rcsDataList) {
-            if (Math.abs(data.getFrequency() - frequency) < 0.1
-                    && AngleUtils.circularDifference(data.getIncidentElevation(), incidentElevation) < 0.1
-                    && AngleUtils.circularDifference(data.getIncidentAzimuth(), incidentAzimuth) < 0.1) {
-                double deltaTheta = AngleUtils.circularDifference(data.getTheta(), theta);
-                double deltaPhi = AngleUtils.circularDifference(data.getPhi(), phi);
-                double distance = Math.sqrt(
-                        Math.pow(deltaTheta, 2) +
-                        Math.pow(deltaPhi, 2)
-                );
-
-                if (distance < minDistance) {
-                    minDistance = distance;
-                    closestData = data;
-                }
+        for (Slice slice : slices) {
+            SliceData data = slice.data();
+            if (data.isEmpty()) {
+                continue;
+            }
+            RcsTable rcsTable = data.getRcsTable();
+            int row = data.getGrid().nearestRow(theta, phi);
+            double distance = ObservationGrid.distance(rcsTable.getTheta(row), rcsTable.getPhi(row), theta, phi);
+            // 多个切片落在容差内时，与逐点扫描一样取距离最小、序号最靠前的点（先比切片序号，再比行号）
+            if (distance < minDistance || (distance == minDistance
+                    && (slice.ordinal < closestOrdinal || (slice.ordinal == closestOrdinal && row < closestRow)))) {
+                minDistance = distance;
+                closestTable = rcsTable;
+                closestOrdinal = slice.ordinal;
+                closestRow = row;
             }
         }
 
-        if (closestData == null) {
+        if (closestTable == null) {
             // 如果找不到匹配的数据点，返回默认值
             return -50.0;
         }
 
-        return closestData.getRcsValue();
+        return closestTable.getRcsValue(closestRow);
+    }
+
+    /**
+     * 第一个不小于 target 的下标，全部小于 target 时返回数组长度。
+     */
+    private static int lowerBound(double[] sorted, double target) {
+        return lowerBound(sorted, 0, sorted.length, target);
+    }
+
+    /**
+     * [from, to) 内第一个不小于 target 的下标，全部小于 target 时返回 to。
+     */
+    private static int lowerBound(double[] sorted, int from, int to, double target) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 
-    private double interpolate(double value1, double value2, double x1, double x2, double x) {
+    private static double interpolate(double value1, double value2, double x1, double x2, double x) {
         if (x1 == x2) {
             return value1;
         }
@@ -135,7 +1658,7 @@ public class InterpolationEngine {
         return value1 + (value2 - value1) * (x - x1) / (x2 - x1);
     }
 
-    private double bilinear(double q11, double q12, double q21, double q22,
+    private static double bilinear(double q11, double q12, double q21, double q22,
                             double x1, double x2, double y1, double y2,
                             double x, double y) {
         if (x1 == x2 && y1 == y2) {
@@ -155,33 +1678,64 @@ public class InterpolationEngine {
         return interpolate(r1, r2, y1, y2, y);
     }
 
+    /**
+     * 第一个大于 target 的下标，全部不大于 target 时返回数组长度。
+     */
+    private static int upperBound(double[] sorted, double target) {
+        return upperBound(sorted, 0, sorted.length, target);
+    }
+
+    /**
+     * [from, to) 内第一个大于 target 的下标，全部不大于 target 时返回 to。
+     */
+    private static int upperBound(double[] sorted, int from, int to, double target) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
     /**
      * 计算周期角度的上下界，保证 0°/360° 连接处连续。
+     * 结果写入 bounds 的 lower/upper 下标，上界越过 360° 时 wrapped 为 true。
      */
-    private double[] findBoundingAngles(List<Double> sortedAngles, double targetAngle) {
-        if (sortedAngles.isEmpty()) {
-            return new double[]{0.0, 0.0};
+    private static void findBoundingAngles(double[] sortedAngles, double targetAngle, AngleBounds bounds) {
+        if (sortedAngles.length == 0) {
+            bounds.set(-1, -1, false);
+            return;
         }
 
-        if (sortedAngles.size() == 1) {
-            return new double[]{sortedAngles.get(0), sortedAngles.get(0)};
+        if (sortedAngles.length == 1) {
+            bounds.set(0, 0, false);
+            return;
         }
 
         double target = AngleUtils.normalize360(targetAngle);
-        double lower = sortedAngles.get(sortedAngles.size() - 1);
-        double upper = sortedAngles.get(0) + 360.0;
-
-        for (int i = 0; i < sortedAngles.size(); i++) {
-            double current = sortedAngles.get(i);
-            double next = (i == sortedAngles.size() - 1) ? sortedAngles.get(0) + 360.0 : sortedAngles.get(i + 1);
+        int upper = lowerBound(sortedAngles, target);
 
-            if (target >= current && target <= next) {
-                lower = current;
-                upper = next;
-                break;
-            }
+        if (upper > 0 && upper < sortedAngles.length) {
+            // sortedAngles[upper - 1] < target <= sortedAngles[upper]
+            bounds.set(upper - 1, upper, false);
+        } else if (upper == 0 && sortedAngles[0] == target) {
+            bounds.set(0, 1, false);
+        } else {
+            // 目标落在最大角与最小角之间，跨越 360° 连接处
+            bounds.set(sortedAngles.length - 1, 0, true);
         }
+    }
 
-        return new double[]{lower, upper};
+    /**
+     * 轴下标对应的角度值，空轴按 0° 处理。
+     */
+    private static double angleAt(double[] sortedAngles, int index, boolean wrapped) {
+        double value = index < 0 ? 0.0 : sortedAngles[index];
+        return wrapped ? value + 360.0 : value;
     }
-}
\ No newline at end of file
+}
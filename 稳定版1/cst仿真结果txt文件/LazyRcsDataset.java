@@ -0,0 +1,209 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按需加载的数据集：启动时只建立文件目录（每个文件一个切片，只有频率和入射方向、没有样本），
+ * 插值引擎第一次用到某个切片时才解析对应文件并建立观测角网格。
+ * 常驻切片按最近使用顺序保存在一个有内存上限的 LRU 中，超出上限时淘汰最久未用的切片，再次用到时重新加载。
+ * 建立目录时只读每个文件开头到第一个有效行，预先标出空文件和无法解析的文件，
+ * 插值引擎像一次性加载时一样跳过这些切片，结果与一次性加载一致。
+ */
+public class LazyRcsDataset {
+    private final RcsTable catalog;
+    private final File[] files;
+    private final long maxResidentBytes;
+    // 加载切片时读取的列
+    private final Set<RcsTable.Column> columns;
+    // 没有任何有效样本的切片
+    private final BitSet emptySlices = new BitSet();
+
+    // 同一切片的并发加载只做一次，不同切片可以并行加载
+    private final Object[] loadLocks;
+    // 按访问顺序排列的常驻切片，访问时持有 this 锁
+    private final LinkedHashMap<Integer, SliceData> resident = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    /**
+     * @param catalog          只含切片、不含样本的目录表，切片 s 的数据来自 files[s]
+     * @param files            每个切片对应的 CST 文本文件
+     * @param maxResidentBytes 常驻切片的估算内存上限（字节）
+     */
+    public LazyRcsDataset(RcsTable catalog, File[] files, long maxResidentBytes) {
+        this(catalog, files, maxResidentBytes, Set.of(RcsTable.Column.RCS));
+    }
+
+    /**
+     * @param columns 加载切片时除 RCS 外还要读取的列
+     */
+    public LazyRcsDataset(RcsTable catalog, File[] files, long maxResidentBytes, Set<RcsTable.Column> columns) {
+        if (catalog.getSliceCount() != files.length) {
+            throw new IllegalArgumentException("目录切片数与文件数不一致");
+        }
+        if (maxResidentBytes <= 0) {
+            throw new IllegalArgumentException("常驻内存上限必须为正数");
+        }
+        this.catalog = catalog;
+        this.files = files.clone();
+        this.maxResidentBytes = maxResidentBytes;
+        this.columns = Set.copyOf(columns);
+        this.loadLocks = new Object[files.length];
+        for (int i = 0; i < loadLocks.length; i++) {
+            loadLocks[i] = new Object();
+            if (!hasSamples(this.files[i])) {
+                emptySlices.set(i);
+            }
+        }
+        RcsMetrics.gauge("lazySlices.hits", this::getHitCount);
+        RcsMetrics.gauge("lazySlices.loads", this::getLoadCount);
+        RcsMetrics.gauge("lazySlices.evictions", this::getEvictionCount);
+    }
+
+    /**
+     * 文件目录：频率和入射方向字典与完整加载时一致，所有切片都不含样本。
+     */
+    public RcsTable getCatalog() {
+        return catalog;
+    }
+
+    public int getSliceCount() {
+        return files.length;
+    }
+
+    /**
+     * 切片对应的文件是否为空或无法解析（加载后没有样本）。
+     */
+    public boolean isSliceEmpty(int slice) {
+        return emptySlices.get(slice);
+    }
+
+    /**
+     * 读取失败的文件与完整加载时一样按空切片处理。
+     */
+    private static boolean hasSamples(File file) {
+        try {
+            return CstTextParser.hasSamples(file);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("读取文件 " + file.getName() + " 失败: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 切片加载后可用的列，总是包含 RCS。
+     */
+    public Set<RcsTable.Column> getColumns() {
+        Set<RcsTable.Column> loaded = EnumSet.of(RcsTable.Column.RCS);
+        loaded.addAll(columns);
+        return loaded;
+    }
+
+    /**
+     * 取切片数据，不在内存中时加载。读取失败的文件按空切片处理，与完整加载时一致。
+     */
+    public SliceData getSlice(int slice) {
+        SliceData data = residentSlice(slice);
+        if (data != null) {
+            hits.increment();
+            return data;
+        }
+        synchronized (loadLocks[slice]) {
+            // 等锁期间可能已被其他线程加载
+            data = residentSlice(slice);
+            if (data != null) {
+                hits.increment();
+                return data;
+            }
+            long start = System.nanoTime();
+            data = load(slice);
+            loadNanos.add(System.nanoTime() - start);
+            loads.increment();
+            admit(slice, data);
+            return data;
+        }
+    }
+
+    private synchronized SliceData residentSlice(int slice) {
+        return resident.get(slice);
+    }
+
+    private synchronized void admit(int slice, SliceData data) {
+        resident.put(slice, data);
+        residentBytes += data.estimatedBytes();
+        // 至少保留刚加载的切片，单个切片超过上限时也能完成查询
+        Iterator<Map.Entry<Integer, SliceData>> eldest = resident.entrySet().iterator();
+        while (residentBytes > maxResidentBytes && resident.size() > 1) {
+            Map.Entry<Integer, SliceData> entry = eldest.next();
+            residentBytes -= entry.getValue().estimatedBytes();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private SliceData load(int slice) {
+        RcsTable.Builder builder = new RcsTable.Builder(columns).beginSlice(catalog.getSliceFrequency(slice),
+                catalog.getSliceIncidentElevation(slice), catalog.getSliceIncidentAzimuth(slice));
+        try {
+            builder.addAll(CstTextParser.parse(files[slice], columns));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("读取文件 " + files[slice].getName() + " 失败: " + e.getMessage());
+        }
+        RcsTable table = builder.build();
+        return new SliceData(table, ObservationGrid.ofSlice(table, 0));
+    }
+
+    /**
+     * 清空常驻切片，统计数据保留。
+     */
+    public synchronized void clear() {
+        resident.clear();
+        residentBytes = 0;
+    }
+
+    public synchronized int getResidentSliceCount() {
+        return resident.size();
+    }
+
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    public long getMaxResidentBytes() {
+        return maxResidentBytes;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getLoadNanos() {
+        return loadNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("按需加载: 常驻 %d/%d 个切片, 约 %.1f/%.1f MB, 命中 %d, 加载 %d 次（%.1f ms）, 淘汰 %d",
+                getResidentSliceCount(), getSliceCount(), getResidentBytes() / 1048576.0,
+                maxResidentBytes / 1048576.0, getHitCount(), getLoadCount(), getLoadNanos() / 1e6,
+                getEvictionCount());
+    }
+}
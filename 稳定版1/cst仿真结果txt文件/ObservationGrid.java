@@ -0,0 +1,417 @@
+import java.util.Arrays;
+
+/**
+ * 单个切片（固定频率与入射方向）内按观测角 theta/phi 的最近邻索引。
+ * CST 导出的是 5° 规则网格，直接按下标定位相邻格点；
+ * 非规则网格退化为按 theta 排序后的剪枝扫描。
+ * 距离与并列规则与逐点扫描完全一致：环向差的欧氏距离，距离相同取原始序号最小者。
+ * 构造时给出 RCS 值的规则网格还可以在 theta/phi 上做双线性插值，两条轴都按 0/360° 环向连接。
+ */
+public class ObservationGrid {
+    // 规则网格：theta/phi 轴与格点对应的原始序号（下标 = thetaIndex * phiAxis.length + phiIndex）
+    private final double[] thetaAxis;
+    private final double[] phiAxis;
+    private final int[] cellRows;
+    // 规则网格：按格点下标连续存放的 RCS 值，未提供时为 null
+    private final double[] cellValues;
+    // 等间距轴的步长倒数，可直接算出下标；非等间距时为 0，改用二分
+    private final double thetaInverseStep;
+    private final double phiInverseStep;
+
+    // 非规则网格：按 theta 升序排列的采样点
+    private final double[] sortedThetas;
+    private final double[] sortedPhis;
+    private final int[] sortedRows;
+
+    /**
+     * @param thetas 切片内各点的观测俯仰角（已周期化）
+     * @param phis   切片内各点的观测方位角（已周期化）
+     * @param rows   各点在原始数据中的序号，用于并列时保持原有的先后顺序
+     */
+    public ObservationGrid(double[] thetas, double[] phis, int[] rows) {
+        this(thetas, phis, rows, null);
+    }
+
+    /**
+     * @param values 各点的 RCS 值，用于双线性插值；为 null 时只支持最近邻查询
+     */
+    public ObservationGrid(double[] thetas, double[] phis, int[] rows, double[] values) {
+        double[] thetaValues = distinctSorted(thetas);
+        double[] phiValues = distinctSorted(phis);
+        int[] cells = null;
+
+        if ((long) thetaValues.length * phiValues.length == rows.length) {
+            cells = new int[rows.length];
+            Arrays.fill(cells, -1);
+            for (int i = 0; i < rows.length; i++) {
+                int cell = Arrays.binarySearch(thetaValues, thetas[i]) * phiValues.length
+                        + Arrays.binarySearch(phiValues, phis[i]);
+                if (cells[cell] != -1) {
+                    // 出现重复格点，说明不是完整规则网格
+                    cells = null;
+                    break;
+                }
+                cells[cell] = rows[i];
+            }
+        }
+
+        if (cells != null) {
+            this.thetaAxis = thetaValues;
+            this.phiAxis = phiValues;
+            this.cellRows = cells;
+            if (values != null) {
+                this.cellValues = new double[cells.length];
+                for (int i = 0; i < rows.length; i++) {
+                    cellValues[Arrays.binarySearch(thetaValues, thetas[i]) * phiValues.length
+                            + Arrays.binarySearch(phiValues, phis[i])] = values[i];
+                }
+            } else {
+                this.cellValues = null;
+            }
+            this.thetaInverseStep = inverseUniformStep(thetaValues);
+            this.phiInverseStep = inverseUniformStep(phiValues);
+            this.sortedThetas = null;
+            this.sortedPhis = null;
+            this.sortedRows = null;
+        } else {
+            Integer[] order = new Integer[rows.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(thetas[a], thetas[b]));
+
+            this.sortedThetas = new double[rows.length];
+            this.sortedPhis = new double[rows.length];
+            this.sortedRows = new int[rows.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedThetas[i] = thetas[order[i]];
+                sortedPhis[i] = phis[order[i]];
+                sortedRows[i] = rows[order[i]];
+            }
+            this.thetaAxis = null;
+            this.phiAxis = null;
+            this.cellRows = null;
+            this.cellValues = null;
+            this.thetaInverseStep = 0.0;
+            this.phiInverseStep = 0.0;
+        }
+    }
+
+    /**
+     * 由数据表中一个切片的样本建立网格：角度周期化，行号沿用数据表中的行号，并带上 RCS 值以支持插值。
+     */
+    static ObservationGrid ofSlice(RcsTable rcsTable, int slice) {
+        int start = rcsTable.getSliceStart(slice);
+        int end = rcsTable.getSliceEnd(slice);
+        double[] thetas = new double[end - start];
+        double[] phis = new double[end - start];
+        int[] rows = new int[end - start];
+        double[] values = new double[end - start];
+        for (int row = start; row < end; row++) {
+            thetas[row - start] = AngleUtils.normalize360(rcsTable.getTheta(row));
+            phis[row - start] = AngleUtils.normalize360(rcsTable.getPhi(row));
+            rows[row - start] = row;
+            values[row - start] = rcsTable.getRcsValue(row);
+        }
+        return new ObservationGrid(thetas, phis, rows, values);
+    }
+
+    public boolean isRegular() {
+        return cellRows != null;
+    }
+
+    /**
+     * 返回距离 (theta, phi) 最近的采样点在原始数据中的序号，切片为空时返回 -1。
+     */
+    public int nearestRow(double theta, double phi) {
+        return isRegular() ? nearestOnGrid(theta, phi) : nearestBySweep(theta, phi);
+    }
+
+    /**
+     * 批量最近点：rows[i] = nearestRow(thetas[i], phis[i])，i ∈ [0, count)。
+     * 规则网格上与前一个目标 theta（或 phi）相同时沿用其候选格点和该方向的距离平方，
+     * 方向图切面这类一个角固定的顺序查询因此只需在另一个方向上求环向差。
+     */
+    public void nearestRows(double[] thetas, double[] phis, int[] rows, int count) {
+        if (!isRegular()) {
+            for (int i = 0; i < count; i++) {
+                rows[i] = nearestBySweep(thetas[i], phis[i]);
+            }
+            return;
+        }
+        int[] thetaCandidates = new int[2];
+        int[] phiCandidates = new int[2];
+        double[] thetaSquares = new double[2];
+        double[] phiSquares = new double[2];
+        double lastTheta = Double.NaN;
+        double lastPhi = Double.NaN;
+        for (int i = 0; i < count; i++) {
+            double theta = thetas[i];
+            double phi = phis[i];
+            if (Double.compare(theta, lastTheta) != 0) {
+                candidates(thetaAxis, theta, thetaCandidates, thetaSquares);
+                lastTheta = theta;
+            }
+            if (Double.compare(phi, lastPhi) != 0) {
+                candidates(phiAxis, phi, phiCandidates, phiSquares);
+                lastPhi = phi;
+            }
+            // 与 nearestOnGrid 相同的候选顺序、距离公式和并列规则
+            int bestRow = -1;
+            double minDistance = Double.MAX_VALUE;
+            for (int t = 0; t < 2; t++) {
+                for (int p = 0; p < 2; p++) {
+                    int row = cellRows[thetaCandidates[t] * phiAxis.length + phiCandidates[p]];
+                    double d = Math.sqrt(thetaSquares[t] + phiSquares[p]);
+                    if (d < minDistance || (d == minDistance && row < bestRow)) {
+                        minDistance = d;
+                        bestRow = row;
+                    }
+                }
+            }
+            rows[i] = bestRow;
+        }
+    }
+
+    /**
+     * 目标两侧的相邻格点及其与目标环向差的平方。
+     */
+    private static void candidates(double[] axis, double target, int[] indices, double[] squares) {
+        int upper = lowerBound(axis, target);
+        indices[0] = wrap(upper - 1, axis.length);
+        indices[1] = wrap(upper, axis.length);
+        squares[0] = Math.pow(AngleUtils.circularDifference(axis[indices[0]], target), 2);
+        squares[1] = Math.pow(AngleUtils.circularDifference(axis[indices[1]], target), 2);
+    }
+
+    /**
+     * 是否支持 theta/phi 双线性插值（规则网格且提供了 RCS 值）。
+     */
+    public boolean canInterpolate() {
+        return cellValues != null;
+    }
+
+    /**
+     * 在 (theta, phi) 所在网格单元的四个格点间做双线性插值，角度需已周期化。
+     * 目标落在最大格点与最小格点之间时跨 360° 连接处插值。
+     */
+    public double interpolate(double theta, double phi) {
+        int phiCount = phiAxis.length;
+        int t0 = locate(thetaAxis, thetaInverseStep, theta);
+        int p0 = locate(phiAxis, phiInverseStep, phi);
+        int t1 = t0 + 1 == thetaAxis.length ? 0 : t0 + 1;
+        int p1 = p0 + 1 == phiCount ? 0 : p0 + 1;
+        double wt = weight(thetaAxis, t0, t1, theta);
+        double wp = weight(phiAxis, p0, p1, phi);
+
+        double[] values = cellValues;
+        double low = values[t0 * phiCount + p0] * (1.0 - wp) + values[t0 * phiCount + p1] * wp;
+        double high = values[t1 * phiCount + p0] * (1.0 - wp) + values[t1 * phiCount + p1] * wp;
+        return low * (1.0 - wt) + high * wt;
+    }
+
+    /**
+     * (theta, phi) 所在网格单元四个格点的原始序号与两条轴上的权重，用于插值 RCS 以外的列。
+     * rows 依次为 (t0, p0)、(t0, p1)、(t1, p0)、(t1, p1)，weights 为 {theta 权重, phi 权重}；
+     * 按 interpolate 的公式组合这四个点的值即得到插值结果。只适用于规则网格，角度需已周期化。
+     */
+    public void interpolationCell(double theta, double phi, int[] rows, double[] weights) {
+        int phiCount = phiAxis.length;
+        int t0 = locate(thetaAxis, thetaInverseStep, theta);
+        int p0 = locate(phiAxis, phiInverseStep, phi);
+        int t1 = t0 + 1 == thetaAxis.length ? 0 : t0 + 1;
+        int p1 = p0 + 1 == phiCount ? 0 : p0 + 1;
+        rows[0] = cellRows[t0 * phiCount + p0];
+        rows[1] = cellRows[t0 * phiCount + p1];
+        rows[2] = cellRows[t1 * phiCount + p0];
+        rows[3] = cellRows[t1 * phiCount + p1];
+        weights[0] = weight(thetaAxis, t0, t1, theta);
+        weights[1] = weight(phiAxis, p0, p1, phi);
+    }
+
+    /**
+     * 批量插值：out[i] = interpolate(thetas[i], phis[i])，i ∈ [0, count)。
+     * 循环体无分配、无虚调用，等间距轴上不做二分，便于 JIT 展开和调度。
+     */
+    public void interpolateAll(double[] thetas, double[] phis, double[] out, int count) {
+        double[] thetaValues = thetaAxis;
+        double[] phiValues = phiAxis;
+        double[] values = cellValues;
+        int thetaCount = thetaValues.length;
+        int phiCount = phiValues.length;
+        for (int i = 0; i < count; i++) {
+            double theta = thetas[i];
+            double phi = phis[i];
+            int t0 = locate(thetaValues, thetaInverseStep, theta);
+            int p0 = locate(phiValues, phiInverseStep, phi);
+            int t1 = t0 + 1 == thetaCount ? 0 : t0 + 1;
+            int p1 = p0 + 1 == phiCount ? 0 : p0 + 1;
+            double wt = weight(thetaValues, t0, t1, theta);
+            double wp = weight(phiValues, p0, p1, phi);
+            double low = values[t0 * phiCount + p0] * (1.0 - wp) + values[t0 * phiCount + p1] * wp;
+            double high = values[t1 * phiCount + p0] * (1.0 - wp) + values[t1 * phiCount + p1] * wp;
+            out[i] = low * (1.0 - wt) + high * wt;
+        }
+    }
+
+    /**
+     * 与逐点扫描相同的距离定义。
+     */
+    static double distance(double dataTheta, double dataPhi, double theta, double phi) {
+        double deltaTheta = AngleUtils.circularDifference(dataTheta, theta);
+        double deltaPhi = AngleUtils.circularDifference(dataPhi, phi);
+        return Math.sqrt(Math.pow(deltaTheta, 2) + Math.pow(deltaPhi, 2));
+    }
+
+    private int nearestOnGrid(double theta, double phi) {
+        // 环向上最近的点一定是目标两侧的相邻格点之一，规则网格下只需比较 2×2 个候选
+        int thetaUpper = lowerBound(thetaAxis, theta);
+        int phiUpper = lowerBound(phiAxis, phi);
+        int[] thetaCandidates = {wrap(thetaUpper - 1, thetaAxis.length), wrap(thetaUpper, thetaAxis.length)};
+        int[] phiCandidates = {wrap(phiUpper - 1, phiAxis.length), wrap(phiUpper, phiAxis.length)};
+
+        int bestRow = -1;
+        double minDistance = Double.MAX_VALUE;
+        for (int ti : thetaCandidates) {
+            for (int pi : phiCandidates) {
+                int row = cellRows[ti * phiAxis.length + pi];
+                double d = distance(thetaAxis[ti], phiAxis[pi], theta, phi);
+                if (d < minDistance || (d == minDistance && row < bestRow)) {
+                    minDistance = d;
+                    bestRow = row;
+                }
+            }
+        }
+        return bestRow;
+    }
+
+    private int nearestBySweep(double theta, double phi) {
+        int n = sortedRows.length;
+        if (n == 0) {
+            return -1;
+        }
+
+        // 从目标 theta 处向两侧环向扫描，theta 差已超过当前最优距离的一侧即可停止
+        int up = lowerBound(sortedThetas, theta);
+        int down = up - 1;
+        boolean upActive = true;
+        boolean downActive = true;
+        int bestRow = -1;
+        double minDistance = Double.MAX_VALUE;
+
+        for (int visited = 0; visited < n && (upActive || downActive); ) {
+            if (upActive) {
+                int i = wrap(up++, n);
+                if (AngleUtils.circularDifference(sortedThetas[i], theta) > minDistance) {
+                    upActive = false;
+                } else {
+                    double d = distance(sortedThetas[i], sortedPhis[i], theta, phi);
+                    if (d < minDistance || (d == minDistance && sortedRows[i] < bestRow)) {
+                        minDistance = d;
+                        bestRow = sortedRows[i];
+                    }
+                    visited++;
+                }
+            }
+            if (downActive && visited < n) {
+                int i = wrap(down--, n);
+                if (AngleUtils.circularDifference(sortedThetas[i], theta) > minDistance) {
+                    downActive = false;
+                } else {
+                    double d = distance(sortedThetas[i], sortedPhis[i], theta, phi);
+                    if (d < minDistance || (d == minDistance && sortedRows[i] < bestRow)) {
+                        minDistance = d;
+                        bestRow = sortedRows[i];
+                    }
+                    visited++;
+                }
+            }
+        }
+        return bestRow;
+    }
+
+    /**
+     * 最后一个不大于 target 的格点下标；target 小于所有格点时环向取最后一个格点。
+     */
+    private static int locate(double[] axis, double inverseStep, double target) {
+        int n = axis.length;
+        int index;
+        if (inverseStep > 0) {
+            index = (int) Math.floor((target - axis[0]) * inverseStep);
+            index = Math.max(-1, Math.min(n - 1, index));
+            // 浮点舍入可能让估算下标偏差一格，按实际格点值校正
+            if (index + 1 < n && axis[index + 1] <= target) {
+                index++;
+            } else if (index >= 0 && axis[index] > target) {
+                index--;
+            }
+        } else {
+            index = lowerBound(axis, target);
+            if (index == n || axis[index] > target) {
+                index--;
+            }
+        }
+        return index < 0 ? n - 1 : index;
+    }
+
+    /**
+     * target 在 [axis[lower], axis[upper]] 环向区间内的插值权重，区间跨 360° 时按环向长度计算。
+     */
+    private static double weight(double[] axis, int lower, int upper, double target) {
+        if (lower == upper) {
+            return 0.0;
+        }
+        double gap = axis[upper] - axis[lower];
+        if (gap <= 0) {
+            gap += 360.0;
+        }
+        double offset = target - axis[lower];
+        if (offset < 0) {
+            offset += 360.0;
+        }
+        return offset / gap;
+    }
+
+    /**
+     * 等间距轴返回步长倒数，否则返回 0。
+     */
+    private static double inverseUniformStep(double[] axis) {
+        int n = axis.length;
+        if (n < 2) {
+            return 0.0;
+        }
+        double step = (axis[n - 1] - axis[0]) / (n - 1);
+        for (int i = 1; i < n; i++) {
+            if (Math.abs(axis[i] - (axis[0] + i * step)) > 1e-9 * step) {
+                return 0.0;
+            }
+        }
+        return 1.0 / step;
+    }
+
+    private static double[] distinctSorted(double[] values) {
+        return Arrays.stream(values).distinct().sorted().toArray();
+    }
+
+    /**
+     * 第一个不小于 target 的下标，全部小于 target 时返回数组长度。
+     */
+    private static int lowerBound(double[] sorted, double target) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int wrap(int index, int length) {
+        int wrapped = index % length;
+        return wrapped < 0 ? wrapped + length : wrapped;
+    }
+}
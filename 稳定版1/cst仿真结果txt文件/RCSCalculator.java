@@ -1,67 +1,218 @@
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
 
 public class RCSCalculator {
     public static void main(String[] args) {
+        // --batch：无界面批量计算，不创建任何窗口
+        if (BatchRunner.isBatchMode(args)) {
+            System.exit(BatchRunner.run(args));
+        }
+        // --serve：本机 HTTP 查询服务，服务线程会让进程保持运行
+        if (RcsHttpServer.isServerMode(args)) {
+            int code = RcsHttpServer.run(args);
+            if (code != 0) {
+                System.exit(code);
+            }
+            return;
+        }
+
+        long startNanos = System.nanoTime();
         SwingUtilities.invokeLater(() -> {
-            // 创建并设置主窗口
+            // 创建并设置主窗口，先显示加载进度，数据在后台读取
             JFrame frame = new JFrame("双站RCS计算器");
             frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
             frame.setSize(900, 700);
             frame.setLocationRelativeTo(null);
             frame.setLayout(new BorderLayout());
 
+            JLabel placeholder = new JLabel("正在读取RCS数据...", JLabel.CENTER);
+            frame.add(placeholder, BorderLayout.CENTER);
+
+            JProgressBar progressBar = new JProgressBar();
+            progressBar.setIndeterminate(true);
+            progressBar.setStringPainted(true);
+            progressBar.setString("正在扫描数据文件...");
+            frame.add(progressBar, BorderLayout.SOUTH);
+
+            // 显示窗口
+            frame.setVisible(true);
+            System.out.printf("窗口已显示: %.1f ms%n", (System.nanoTime() - startNanos) / 1e6);
+
+            new StartupLoader(frame, placeholder, progressBar, startNanos).execute();
+        });
+    }
+
+    /**
+     * 后台读取数据并逐步交给界面：第一批切片到达即创建面板，可立即查询已加载的
+     * (频率, 入射方向) 组合；之后每到一批就原子替换引擎和面板的数据表，直到全部读完。
+     */
+    private static class StartupLoader extends SwingWorker<RcsTable, RcsTable> {
+        private final JFrame frame;
+        private final JLabel placeholder;
+        private final JProgressBar progressBar;
+        private final long startNanos;
+        private final DataReader dataReader = new DataReader();
+
+        // 只在后台线程上创建和更新，面板在事件线程上通过 process/done 拿到
+        private volatile InterpolationEngine interpolationEngine;
+        private VisualizationPanel visualizationPanel;
+
+        StartupLoader(JFrame frame, JLabel placeholder, JProgressBar progressBar, long startNanos) {
+            this.frame = frame;
+            this.placeholder = placeholder;
+            this.progressBar = progressBar;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        protected RcsTable doInBackground() {
+            // 读取数据
+            System.out.println("正在读取RCS数据...");
+            dataReader.setLoadListener(new DataReader.LoadListener() {
+                @Override
+                public void fileLoaded(int loadedFiles, int totalFiles) {
+                    SwingUtilities.invokeLater(() -> showProgress(loadedFiles, totalFiles));
+                }
+
+                @Override
+                public void partialTableAvailable(RcsTable partialTable) {
+                    // 索引在后台线程上构建，事件线程只负责换表和重绘
+                    updateEngine(partialTable);
+                    publish(partialTable);
+                }
+            });
+            RcsTable rcsTable = dataReader.readAllData();
+            dataReader.setLoadListener(null);
+            updateEngine(rcsTable);
+            return rcsTable;
+        }
+
+        @Override
+        protected void process(List<RcsTable> partialTables) {
+            // 只需要最新的一批
+            showTable(partialTables.get(partialTables.size() - 1));
+        }
+
+        @Override
+        protected void done() {
+            RcsTable rcsTable;
+            try {
+                rcsTable = get();
+            } catch (InterruptedException | ExecutionException e) {
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                cause.printStackTrace();
+                placeholder.setText("加载数据失败");
+                frame.remove(progressBar);
+                frame.revalidate();
+                JOptionPane.showMessageDialog(frame,
+                        "加载数据失败: " + cause.getMessage(),
+                        "错误", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            showTable(rcsTable);
+            frame.remove(progressBar);
+            frame.revalidate();
+
+            printStatistics(rcsTable);
+            System.out.printf("数据加载完成，共读取 %d 个数据点，耗时 %.1f ms%n",
+                    rcsTable.size(), (System.nanoTime() - startNanos) / 1e6);
+
+            // -Drcs.watch=true 监视数据目录，文件变化时自动重载
+            if (Boolean.getBoolean("rcs.watch")) {
+                startWatcher(rcsTable);
+            }
+        }
+
+        private void startWatcher(RcsTable rcsTable) {
             try {
-                // 读取数据
-                System.out.println("正在读取RCS数据...");
-                DataReader dataReader = new DataReader();
-                List<RCSData> rcsDataList = dataReader.readAllData();
+                new RcsDataWatcher(dataReader, rcsTable, reloaded -> {
+                    // 引擎在监视线程上换新索引，面板在事件线程上换表并重绘
+                    interpolationEngine.setRcsTable(reloaded);
+                    SwingUtilities.invokeLater(() -> visualizationPanel.setRcsTable(reloaded));
+                }).start();
+            } catch (IOException e) {
+                System.err.println("无法监视数据目录: " + e.getMessage());
+            }
+        }
 
+        private void updateEngine(RcsTable rcsTable) {
+            if (interpolationEngine == null) {
                 // 初始化插值引擎
                 System.out.println("正在初始化插值引擎...");
-                InterpolationEngine interpolationEngine = new InterpolationEngine(rcsDataList);
-
-                // 统计频率点和入射方向
-                List<Double> frequencies = rcsDataList.stream()
-                        .map(RCSData::getFrequency)
-                        .distinct()
-                        .sorted()
-                        .toList();
-
-                List<Double> incidentElevations = rcsDataList.stream()
-                        .map(RCSData::getIncidentElevation)
-                        .distinct()
-                        .sorted()
-                        .toList();
-
-                List<Double> incidentAzimuths = rcsDataList.stream()
-                        .map(RCSData::getIncidentAzimuth)
-                        .distinct()
-                        .sorted()
-                        .toList();
-
-                System.out.println("插值引擎初始化完成:");
-                System.out.println("- 频率点数量: " + frequencies.size());
-                System.out.println("- 入射俯仰角数量: " + incidentElevations.size());
-                System.out.println("- 入射方位角数量: " + incidentAzimuths.size());
-                System.out.println("- 总数据点数量: " + rcsDataList.size());
-
-                // 创建可视化面板
-                VisualizationPanel visualizationPanel = new VisualizationPanel(rcsDataList, interpolationEngine);
-                frame.add(visualizationPanel, BorderLayout.CENTER);
+                interpolationEngine = createEngine(rcsTable);
+            } else {
+                interpolationEngine.setRcsTable(rcsTable);
+            }
+        }
 
-                System.out.println("数据加载完成，共读取 " + rcsDataList.size() + " 个数据点");
+        private void showProgress(int loadedFiles, int totalFiles) {
+            progressBar.setIndeterminate(false);
+            progressBar.setMaximum(totalFiles);
+            progressBar.setValue(loadedFiles);
+            progressBar.setString("已读取 " + loadedFiles + " / " + totalFiles + " 个文件");
+        }
 
-            } catch (Exception e) {
-                e.printStackTrace();
-                JOptionPane.showMessageDialog(frame, 
-                        "加载数据失败: " + e.getMessage(), 
-                        "错误", JOptionPane.ERROR_MESSAGE);
+        private void showTable(RcsTable rcsTable) {
+            if (visualizationPanel == null) {
+                // 创建可视化面板，替换占位标签
+                visualizationPanel = new VisualizationPanel(rcsTable, interpolationEngine);
+                frame.remove(placeholder);
+                frame.add(visualizationPanel, BorderLayout.CENTER);
+                frame.revalidate();
+                frame.repaint();
+                System.out.printf("首个可交互画面: %.1f ms（%d 个数据点）%n",
+                        (System.nanoTime() - startNanos) / 1e6, rcsTable.size());
+            } else {
+                visualizationPanel.setRcsTable(rcsTable);
             }
+        }
+    }
 
-            // 显示窗口
-            frame.setVisible(true);
-        });
+    private static InterpolationEngine createEngine(RcsTable rcsTable) {
+        InterpolationEngine interpolationEngine = new InterpolationEngine(rcsTable);
+        // -Drcs.observationMode=bilinear 在观测角上双线性插值，默认取最近采样点
+        if ("bilinear".equalsIgnoreCase(System.getProperty("rcs.observationMode"))) {
+            interpolationEngine.setObservationMode(InterpolationEngine.ObservationMode.BILINEAR);
+        }
+        // -Drcs.incidentMode=spherical 按球面最近方向插值入射方向，默认在入射角网格上双线性插值
+        if ("spherical".equalsIgnoreCase(System.getProperty("rcs.incidentMode"))) {
+            interpolationEngine.setIncidentMode(InterpolationEngine.IncidentMode.SPHERICAL);
+        }
+        // -Drcs.resultCache=<条数> 开启单点查询结果缓存
+        int resultCacheEntries = Integer.getInteger("rcs.resultCache", 0);
+        if (resultCacheEntries > 0) {
+            interpolationEngine.setResultCache(new RcsResultCache(resultCacheEntries));
+        }
+        return interpolationEngine;
+    }
+
+    private static void printStatistics(RcsTable rcsTable) {
+        // 统计频率点和入射方向（直接取字典，无需遍历全部样本）
+        int frequencyCount = rcsTable.getFrequencies().length;
+        long incidentElevationCount = IntStream.range(0, rcsTable.getDirectionCount())
+                .mapToDouble(rcsTable::getIncidentElevation)
+                .distinct()
+                .count();
+        long incidentAzimuthCount = IntStream.range(0, rcsTable.getDirectionCount())
+                .mapToDouble(rcsTable::getIncidentAzimuth)
+                .distinct()
+                .count();
+
+        System.out.println("插值引擎初始化完成:");
+        System.out.println("- 频率点数量: " + frequencyCount);
+        System.out.println("- 入射俯仰角数量: " + incidentElevationCount);
+        System.out.println("- 入射方位角数量: " + incidentAzimuthCount);
+        System.out.println("- 总数据点数量: " + rcsTable.size());
+        RcsStatistics.Summary total = rcsTable.getStatistics().getTotal();
+        if (!total.isEmpty()) {
+            System.out.printf("- RCS 范围: %.2f ~ %.2f dB(m²)，平均 %.2f，中位数 %.2f，峰值方向 (%.1f°, %.1f°)%n",
+                    total.getMin(), total.getMax(), total.getMean(), total.percentile(0.5),
+                    total.getPeakTheta(), total.getPeakPhi());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,295 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.geom.Path2D;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 方向图切面：固定频率和入射方向，画出观测方位角 phi 一整圈（固定当前观测俯仰角）
+ * 或观测俯仰角 theta 0~180°（固定当前观测方位角）上的 RCS 曲线。
+ * 切面由插值引擎一次算出，只在切换到该页时在后台计算，过期结果直接丢弃。
+ */
+public class RcsCutPlot extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    // 切面采样步长（度），phi 切面 3601 点、theta 切面 1801 点
+    private static final double CUT_STEP_DEGREES = 0.1;
+    private static final int MARGIN_LEFT = 60;
+    private static final int MARGIN_RIGHT = 20;
+    private static final int MARGIN_TOP = 50;
+    private static final int MARGIN_BOTTOM = 40;
+
+    private final InterpolationEngine interpolationEngine;
+    private final JComboBox<String> axisBox = new JComboBox<>(new String[]{
+            "phi 切面（固定观测俯仰角）", "theta 切面（固定观测方位角）"});
+    private final PlotArea plotArea = new PlotArea();
+    private RcsTable rcsTable;
+
+    // 只在事件线程上访问
+    private double requestedTheta;
+    private double requestedPhi;
+    private CutKey requestedKey;
+    private CutKey buildingKey;
+    private Future<?> pendingBuild;
+    private InterpolationEngine.PatternCut cut;
+    private CutKey cutKey;
+    private double cutMinRCS;
+    private double cutMaxRCS;
+
+    private final ExecutorService cutExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rcs-cut");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 决定一条切面的全部条件；插值方式变化后需要重新计算。
+     */
+    private static class CutKey {
+        final RcsTable rcsTable;
+        final double frequency;
+        final double incidentElevation;
+        final double incidentAzimuth;
+        final InterpolationEngine.CutAxis axis;
+        final double fixedAngle;
+        final InterpolationEngine.ObservationMode observationMode;
+        final InterpolationEngine.IncidentMode incidentMode;
+
+        CutKey(RcsTable rcsTable, double frequency, double incidentElevation, double incidentAzimuth,
+               InterpolationEngine.CutAxis axis, double fixedAngle,
+               InterpolationEngine.ObservationMode observationMode, InterpolationEngine.IncidentMode incidentMode) {
+            this.rcsTable = rcsTable;
+            this.frequency = frequency;
+            this.incidentElevation = incidentElevation;
+            this.incidentAzimuth = incidentAzimuth;
+            this.axis = axis;
+            this.fixedAngle = fixedAngle;
+            this.observationMode = observationMode;
+            this.incidentMode = incidentMode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CutKey)) {
+                return false;
+            }
+            CutKey other = (CutKey) o;
+            return rcsTable == other.rcsTable
+                    && Double.compare(frequency, other.frequency) == 0
+                    && Double.compare(incidentElevation, other.incidentElevation) == 0
+                    && Double.compare(incidentAzimuth, other.incidentAzimuth) == 0
+                    && axis == other.axis
+                    && Double.compare(fixedAngle, other.fixedAngle) == 0
+                    && observationMode == other.observationMode
+                    && incidentMode == other.incidentMode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(rcsTable), frequency, incidentElevation, incidentAzimuth,
+                    axis, fixedAngle, observationMode, incidentMode);
+        }
+    }
+
+    public RcsCutPlot(RcsTable rcsTable, InterpolationEngine interpolationEngine) {
+        super(new BorderLayout());
+        this.rcsTable = rcsTable;
+        this.interpolationEngine = interpolationEngine;
+
+        JPanel options = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        options.add(new JLabel("切面:"));
+        options.add(axisBox);
+        axisBox.addActionListener(e -> {
+            if (requestedKey != null) {
+                showCut(requestedKey.frequency, requestedKey.incidentElevation, requestedKey.incidentAzimuth,
+                        requestedTheta, requestedPhi);
+            }
+        });
+        add(options, BorderLayout.NORTH);
+        plotArea.setBackground(Color.WHITE);
+        add(plotArea, BorderLayout.CENTER);
+
+        // 不可见时只记录请求，切换到切面页时再计算
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing()) {
+                ensureCut();
+            }
+        });
+    }
+
+    /**
+     * 显示经过当前观测方向 (theta, phi) 的切面；切面方向由下拉框决定，另一观测角固定为当前值。
+     */
+    public void showCut(double frequency, double incidentElevation, double incidentAzimuth,
+                        double theta, double phi) {
+        requestedTheta = theta;
+        requestedPhi = phi;
+        InterpolationEngine.CutAxis axis = axisBox.getSelectedIndex() == 0
+                ? InterpolationEngine.CutAxis.PHI : InterpolationEngine.CutAxis.THETA;
+        requestedKey = new CutKey(rcsTable, frequency, incidentElevation, incidentAzimuth, axis,
+                axis == InterpolationEngine.CutAxis.PHI ? theta : phi,
+                interpolationEngine.getObservationMode(), interpolationEngine.getIncidentMode());
+        plotArea.repaint();
+        ensureCut();
+    }
+
+    /**
+     * 数据表变化后当前切面作废，按新数据重新计算。
+     */
+    public void setRcsTable(RcsTable rcsTable) {
+        this.rcsTable = rcsTable;
+        if (requestedKey != null) {
+            showCut(requestedKey.frequency, requestedKey.incidentElevation, requestedKey.incidentAzimuth,
+                    requestedTheta, requestedPhi);
+        }
+    }
+
+    private void ensureCut() {
+        CutKey key = requestedKey;
+        if (key == null || key.equals(cutKey) || !isShowing() || key.equals(buildingKey)) {
+            return;
+        }
+        if (pendingBuild != null) {
+            pendingBuild.cancel(false);
+        }
+        buildingKey = key;
+        InterpolationEngine engine = interpolationEngine;
+        pendingBuild = cutExecutor.submit(() -> {
+            try {
+                InterpolationEngine.PatternCut built = engine.calculatePatternCut(key.frequency,
+                        key.incidentElevation, key.incidentAzimuth, key.axis, key.fixedAngle,
+                        0.0, key.axis == InterpolationEngine.CutAxis.PHI ? 360.0 : 180.0, CUT_STEP_DEGREES);
+                SwingUtilities.invokeLater(() -> cutBuilt(key, built));
+            } catch (RuntimeException ex) {
+                System.err.println("计算方向图切面失败: " + ex.getMessage());
+                SwingUtilities.invokeLater(() -> cutBuilt(key, null));
+            }
+        });
+    }
+
+    private void cutBuilt(CutKey key, InterpolationEngine.PatternCut built) {
+        if (key.equals(buildingKey)) {
+            buildingKey = null;
+        }
+        if (built == null) {
+            return;
+        }
+        if (!key.equals(requestedKey)) {
+            // 计算期间请求已变化
+            ensureCut();
+            return;
+        }
+        cut = built;
+        cutKey = key;
+        cutMinRCS = Double.POSITIVE_INFINITY;
+        cutMaxRCS = Double.NEGATIVE_INFINITY;
+        for (double value : built.getRcsValues()) {
+            cutMinRCS = Math.min(cutMinRCS, value);
+            cutMaxRCS = Math.max(cutMaxRCS, value);
+        }
+        plotArea.repaint();
+    }
+
+    /**
+     * 直角坐标曲线：横轴为扫描的观测角，纵轴为 RCS (dB)，当前观测方向用红点标出。
+     */
+    private class PlotArea extends JPanel {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            int width = getWidth();
+            int height = getHeight();
+            if (width <= 0 || height <= 0) {
+                return;
+            }
+            if (cut == null) {
+                g.setColor(Color.BLACK);
+                String message = requestedKey == null ? "点击计算或拖动滑块后显示经过当前观测方向的方向图切面"
+                        : "正在计算方向图切面...";
+                g.drawString(message, 20, height / 2);
+                return;
+            }
+
+            long start = RcsMetrics.now();
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setFont(getFont());
+            int plotWidth = width - MARGIN_LEFT - MARGIN_RIGHT;
+            int plotHeight = height - MARGIN_TOP - MARGIN_BOTTOM;
+            if (plotWidth <= 0 || plotHeight <= 0) {
+                return;
+            }
+
+            double[] angles = cut.getAngles();
+            double[] values = cut.getRcsValues();
+            double angleMin = angles[0];
+            double angleMax = angles[angles.length - 1];
+            double angleSpan = Math.max(angleMax - angleMin, 1e-9);
+            // 纵轴按 10 dB 取整，数值全部相同时也留出 10 dB 的范围
+            double rcsMin = Math.floor(cutMinRCS / 10.0) * 10.0;
+            double rcsMax = Math.max(Math.ceil(cutMaxRCS / 10.0) * 10.0, rcsMin + 10.0);
+            double rcsSpan = rcsMax - rcsMin;
+
+            // 网格与刻度
+            double angleTick = angleSpan > 180.0 ? 45.0 : 30.0;
+            for (double a = Math.ceil(angleMin / angleTick) * angleTick; a <= angleMax; a += angleTick) {
+                int x = MARGIN_LEFT + (int) Math.round((a - angleMin) / angleSpan * plotWidth);
+                g2d.setColor(new Color(225, 225, 225));
+                g2d.drawLine(x, MARGIN_TOP, x, MARGIN_TOP + plotHeight);
+                g2d.setColor(Color.DARK_GRAY);
+                g2d.drawString(String.format("%.0f°", a), x - 10, MARGIN_TOP + plotHeight + 16);
+            }
+            double rcsTick = rcsSpan > 60.0 ? 20.0 : rcsSpan > 20.0 ? 10.0 : 2.0;
+            for (double r = rcsMin; r <= rcsMax + 1e-9; r += rcsTick) {
+                int y = MARGIN_TOP + plotHeight - (int) Math.round((r - rcsMin) / rcsSpan * plotHeight);
+                g2d.setColor(new Color(225, 225, 225));
+                g2d.drawLine(MARGIN_LEFT, y, MARGIN_LEFT + plotWidth, y);
+                g2d.setColor(Color.DARK_GRAY);
+                g2d.drawString(String.format("%.0f", r), MARGIN_LEFT - 35, y + 4);
+            }
+            g2d.setColor(Color.BLACK);
+            g2d.drawRect(MARGIN_LEFT, MARGIN_TOP, plotWidth, plotHeight);
+
+            // 曲线
+            Path2D.Double path = new Path2D.Double();
+            for (int i = 0; i < angles.length; i++) {
+                double x = MARGIN_LEFT + (angles[i] - angleMin) / angleSpan * plotWidth;
+                double y = MARGIN_TOP + plotHeight - (values[i] - rcsMin) / rcsSpan * plotHeight;
+                if (i == 0) {
+                    path.moveTo(x, y);
+                } else {
+                    path.lineTo(x, y);
+                }
+            }
+            g2d.setColor(new Color(0, 90, 200));
+            g2d.draw(path);
+
+            // 当前观测方向
+            boolean phiCut = cutKey.axis == InterpolationEngine.CutAxis.PHI;
+            double current = phiCut ? requestedPhi : requestedTheta;
+            int marker = (int) Math.round((current - angleMin) / CUT_STEP_DEGREES);
+            if (marker >= 0 && marker < angles.length) {
+                int x = MARGIN_LEFT + (int) Math.round((angles[marker] - angleMin) / angleSpan * plotWidth);
+                int y = MARGIN_TOP + plotHeight
+                        - (int) Math.round((values[marker] - rcsMin) / rcsSpan * plotHeight);
+                g2d.setColor(Color.RED);
+                g2d.fillOval(x - 4, y - 4, 8, 8);
+            }
+
+            g2d.setColor(Color.BLACK);
+            g2d.drawString(String.format("频率: %.1f MHz, 入射俯仰角/方位角: %.1f° / %.1f°, %s = %.1f°",
+                    cutKey.frequency, cutKey.incidentElevation, cutKey.incidentAzimuth,
+                    phiCut ? "观测俯仰角" : "观测方位角", cutKey.fixedAngle), 10, 20);
+            String status = !cutKey.equals(requestedKey) ? "  正在计算新的切面..." : "";
+            g2d.drawString(String.format("RCS: %.1f ~ %.1f dB(m²)%s", cutMinRCS, cutMaxRCS, status), 10, 38);
+            g2d.drawString(phiCut ? "观测方位角 phi" : "观测俯仰角 theta",
+                    MARGIN_LEFT + plotWidth / 2 - 40, height - 6);
+            RcsMetrics.lap(RcsMetrics.PAINT_CUT, start);
+        }
+    }
+}
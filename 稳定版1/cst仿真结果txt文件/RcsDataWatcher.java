@@ -0,0 +1,189 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 监视数据目录，分析人员把重新导出的 CST 文件放进 方向N 文件夹后自动重载，无需重启程序。
+ * 变化事件先攒到一段静默期结束（文件往往分多次写完），再只重新解析变化的文件（方向清单变化时全部重新解析），
+ * 未变化的切片直接从当前数据表复制，构建出新的不可变数据表后交给回调整体替换。
+ * 方向清单可能位于数据目录的上级目录或由 -Drcs.directionManifest 指定，清单所在目录也一并监视。
+ * 新数据表在后台线程上完整构建后才发布，正在进行的查询继续使用旧表，不需要加锁。
+ */
+public class RcsDataWatcher implements Closeable {
+    private static final long QUIET_PERIOD_MILLIS = 500;
+
+    private final DataReader dataReader;
+    private final Path rootDirectory;
+    private final Consumer<RcsTable> reloadListener;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final Thread thread;
+
+    private RcsTable currentTable;
+    // 当前使用的方向清单文件，没有清单时为 null
+    private Path manifestFile;
+
+    /**
+     * 一段静默期内累计的变化。
+     */
+    private static class PendingChanges {
+        final Set<File> files = new HashSet<>();
+        // 事件丢失或目录结构变化时重新扫描并全部重新解析
+        boolean rescanAll;
+        boolean directoriesChanged;
+
+        boolean isEmpty() {
+            return files.isEmpty() && !rescanAll && !directoriesChanged;
+        }
+    }
+
+    /**
+     * @param dataReader     读取 currentTable 所用的 DataReader，重载时复用它记录的文件与切片对应关系
+     * @param currentTable   当前数据表
+     * @param reloadListener 新数据表构建完成后在监视线程上调用
+     */
+    public RcsDataWatcher(DataReader dataReader, RcsTable currentTable, Consumer<RcsTable> reloadListener)
+            throws IOException {
+        this.dataReader = dataReader;
+        this.rootDirectory = dataReader.getDataDirectory().getAbsoluteFile().toPath();
+        this.currentTable = currentTable;
+        this.reloadListener = reloadListener;
+        this.watchService = rootDirectory.getFileSystem().newWatchService();
+
+        register(rootDirectory);
+        File[] children = rootDirectory.toFile().listFiles(File::isDirectory);
+        if (children != null) {
+            for (File child : children) {
+                register(child.toPath());
+            }
+        }
+        watchManifest();
+
+        this.thread = new Thread(this::watchLoop, "rcs-watcher");
+        thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+        System.out.println("正在监视数据目录 " + rootDirectory + " 的变化");
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+
+    private void register(Path directory) throws IOException {
+        WatchKey key = directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        watchedDirectories.put(key, directory);
+    }
+
+    /**
+     * 监视当前方向清单所在的目录（通常是数据目录的上级目录），清单换了位置时改为监视新位置。
+     */
+    private void watchManifest() throws IOException {
+        File source = dataReader.getDirectionManifest().getSource();
+        manifestFile = source != null ? source.getAbsoluteFile().toPath() : null;
+        if (manifestFile != null && !watchedDirectories.containsValue(manifestFile.getParent())) {
+            register(manifestFile.getParent());
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                PendingChanges changes = new PendingChanges();
+                collect(watchService.take(), changes);
+                WatchKey key;
+                while ((key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changes);
+                }
+                if (!changes.isEmpty()) {
+                    reload(changes);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close() 结束监视
+        }
+    }
+
+    private void collect(WatchKey key, PendingChanges changes) {
+        Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changes.rescanAll = true;
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+            Path child = directory.resolve((Path) event.context());
+            if (child.equals(manifestFile)) {
+                // 方向清单变化会改变所有切片的入射角
+                changes.rescanAll = true;
+            } else if (directory.equals(rootDirectory)) {
+                // 根目录下只关心方向文件夹的增删，快照文件等其他变化忽略
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+                    try {
+                        register(child);
+                    } catch (IOException e) {
+                        System.err.println("无法监视文件夹 " + child + ": " + e.getMessage());
+                    }
+                    changes.directoriesChanged = true;
+                } else if (child.getFileName().toString().equals(DirectionManifest.FILE_NAME)) {
+                    // 数据目录中新建的清单优先于上级目录中的清单
+                    changes.rescanAll = true;
+                } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE
+                        && watchedDirectories.containsValue(child)) {
+                    changes.directoriesChanged = true;
+                }
+            } else if (!rootDirectory.equals(directory.getParent())) {
+                // 只为方向清单而监视的目录，其他文件的变化忽略
+                continue;
+            } else if (child.getFileName().toString().endsWith(".txt")) {
+                changes.files.add(child.toFile());
+            }
+        }
+        if (!key.reset()) {
+            // 文件夹已被删除
+            watchedDirectories.remove(key);
+            changes.directoriesChanged = true;
+        }
+    }
+
+    private void reload(PendingChanges changes) {
+        long start = System.nanoTime();
+        try {
+            RcsTable reloaded = dataReader.reloadChangedFiles(currentTable, changes.rescanAll ? null : changes.files);
+            currentTable = reloaded;
+            System.out.printf("检测到数据变化（%d 个文件），已重新加载 %d 个数据点，耗时 %.1f ms%n",
+                    changes.files.size(), reloaded.size(), (System.nanoTime() - start) / 1e6);
+            reloadListener.accept(reloaded);
+            watchManifest();
+        } catch (IOException e) {
+            System.err.println("无法监视方向清单: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // 重载失败时保留当前数据，等待下一次变化
+            System.err.println("重新加载数据失败: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,418 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本机 HTTP 查询服务：数据只加载一次，其他仿真工具通过 HTTP 查询双站 RCS，不必各自嵌入和读取 CST 数据。
+ * 基于 JDK 自带的 com.sun.net.httpserver，运行在 JDK 21 及以上时每个请求一个虚拟线程，否则使用固定大小的线程池。
+ *
+ * 接口：
+ * <ul>
+ *   <li>GET /rcs?frequency=&amp;incidentElevation=&amp;incidentAzimuth=&amp;theta=&amp;phi= → {"rcs":值}</li>
+ *   <li>POST /rcs/batch，Content-Type 为 application/octet-stream 时请求体是大端 double 流，每 5 个为一次查询
+ *       （与批量模式的 binary 格式相同），响应为每次查询一个大端 double；否则按 JSON 解析
+ *       [[频率,入射俯仰角,入射方位角,观测俯仰角,观测方位角], ...]（也可包在 {"queries": ...} 中），响应 {"rcs":[...]}</li>
+ *   <li>GET /health → 数据规模和已处理的请求数</li>
+ * </ul>
+ */
+public class RcsHttpServer {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "用法: java RCSCalculator --serve [选项]",
+            "  --port <n>             监听端口，默认 8080",
+            "  --bind <地址>          监听地址，默认 127.0.0.1（只接受本机连接）",
+            "  --threads <n>          没有虚拟线程（JDK 21 以下）时的工作线程数，默认为 CPU 核数的 8 倍",
+            "  --mode <nearest|bilinear>  观测角取值方式，默认 nearest",
+            "  --incident <grid|spherical>  入射方向插值方式，默认 grid");
+
+    private static final int FIELDS = 5;
+    // 单个批量请求的查询数上限，防止一个请求占满内存
+    private static final int MAX_BATCH_QUERIES = 1 << 20;
+    private static final int BACKLOG = 4096;
+
+    private String bindAddress = "127.0.0.1";
+    private int port = 8080;
+    private int threads = Runtime.getRuntime().availableProcessors() * 8;
+    private InterpolationEngine.ObservationMode mode = InterpolationEngine.ObservationMode.NEAREST;
+    private InterpolationEngine.IncidentMode incidentMode = InterpolationEngine.IncidentMode.GRID;
+
+    private InterpolationEngine engine;
+    private volatile RcsTable rcsTable;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+
+    /**
+     * 命令行参数中是否要求服务模式。
+     */
+    public static boolean isServerMode(String[] args) {
+        for (String arg : args) {
+            if ("--serve".equals(arg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 加载数据并启动服务，启动成功后立即返回 0（服务线程保持进程运行），失败时返回非零退出码。
+     */
+    public static int run(String[] args) {
+        RcsHttpServer server = new RcsHttpServer();
+        try {
+            server.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        try {
+            server.start();
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("启动查询服务失败: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--serve":
+                    break;
+                case "--port":
+                    port = positiveInt(value(args, ++i, arg), arg);
+                    break;
+                case "--bind":
+                    bindAddress = value(args, ++i, arg);
+                    break;
+                case "--threads":
+                    threads = positiveInt(value(args, ++i, arg), arg);
+                    break;
+                case "--mode":
+                    String modeName = value(args, ++i, arg);
+                    if ("bilinear".equalsIgnoreCase(modeName)) {
+                        mode = InterpolationEngine.ObservationMode.BILINEAR;
+                    } else if ("nearest".equalsIgnoreCase(modeName)) {
+                        mode = InterpolationEngine.ObservationMode.NEAREST;
+                    } else {
+                        throw new IllegalArgumentException("未知观测角取值方式: " + modeName);
+                    }
+                    break;
+                case "--incident":
+                    String incidentName = value(args, ++i, arg);
+                    if ("spherical".equalsIgnoreCase(incidentName)) {
+                        incidentMode = InterpolationEngine.IncidentMode.SPHERICAL;
+                    } else if ("grid".equalsIgnoreCase(incidentName)) {
+                        incidentMode = InterpolationEngine.IncidentMode.GRID;
+                    } else {
+                        throw new IllegalArgumentException("未知入射方向插值方式: " + incidentName);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知参数: " + arg);
+            }
+        }
+    }
+
+    private void start() throws IOException {
+        long loadStart = System.nanoTime();
+        DataReader dataReader = new DataReader();
+        rcsTable = dataReader.readAllData();
+        engine = new InterpolationEngine(rcsTable);
+        engine.setObservationMode(mode);
+        engine.setIncidentMode(incidentMode);
+        System.out.printf("数据加载完成: %d 个数据点, 耗时 %.1f ms%n", rcsTable.size(),
+                (System.nanoTime() - loadStart) / 1e6);
+
+        // JDK HttpServer 默认不设 TCP_NODELAY，响应头和响应体分两次写出时会被 Nagle 与延迟确认卡住约 40 ms；
+        // 必须在 HttpServer 类初始化前设置，命令行已指定时尊重命令行
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(bindAddress, port), BACKLOG);
+        server.createContext("/rcs", this::handleSingle);
+        server.createContext("/rcs/batch", this::handleBatch);
+        server.createContext("/health", this::handleHealth);
+        ExecutorService executor = newRequestExecutor(threads);
+        server.setExecutor(executor);
+        server.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(0);
+            executor.shutdownNow();
+        }, "rcs-http-shutdown"));
+
+        // -Drcs.watch=true 时数据文件变化后自动重载，正在处理的请求继续使用旧数据
+        if (Boolean.getBoolean("rcs.watch")) {
+            new RcsDataWatcher(dataReader, rcsTable, reloaded -> {
+                engine.setRcsTable(reloaded);
+                rcsTable = reloaded;
+            }).start();
+        }
+        System.out.println("查询服务已启动: http://" + bindAddress + ":" + server.getAddress().getPort() + "/");
+    }
+
+    /**
+     * JDK 21 起每个请求一个虚拟线程；编译目标是 JDK 17，所以通过反射取工厂方法，取不到时退回固定大小的线程池。
+     */
+    private static ExecutorService newRequestExecutor(int threads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            System.out.println("请求线程: 虚拟线程");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("请求线程: " + threads + " 个平台线程（当前 JDK 不支持虚拟线程）");
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "rcs-http-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void handleSingle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "只支持 GET");
+                return;
+            }
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            double value;
+            try {
+                value = engine.calculateRCS(
+                        requiredNumber(parameters, "frequency"),
+                        requiredNumber(parameters, "incidentElevation"),
+                        requiredNumber(parameters, "incidentAzimuth"),
+                        requiredNumber(parameters, "theta"),
+                        requiredNumber(parameters, "phi"));
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+            requests.increment();
+            queries.increment();
+            sendJson(exchange, 200, "{\"rcs\":" + jsonNumber(value) + "}");
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, "计算失败: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "只支持 POST");
+                return;
+            }
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            boolean binary = contentType != null && contentType.startsWith("application/octet-stream");
+
+            double[] batch;
+            try {
+                byte[] body = readBody(exchange.getRequestBody());
+                batch = binary ? parseBinary(body) : parseJson(new String(body, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+            double[] results = new double[batch.length / FIELDS];
+            if (results.length > 0) {
+                engine.calculateRCSBatch(batch, results);
+            }
+            requests.increment();
+            queries.add(results.length);
+
+            if (binary) {
+                ByteBuffer buffer = ByteBuffer.allocate(results.length * Double.BYTES);
+                buffer.asDoubleBuffer().put(results);
+                send(exchange, 200, "application/octet-stream", buffer.array());
+            } else {
+                StringBuilder json = new StringBuilder(results.length * 12 + 10).append("{\"rcs\":[");
+                for (int i = 0; i < results.length; i++) {
+                    if (i > 0) {
+                        json.append(',');
+                    }
+                    json.append(jsonNumber(results[i]));
+                }
+                sendJson(exchange, 200, json.append("]}").toString());
+            }
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, "计算失败: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        try {
+            RcsTable table = rcsTable;
+            sendJson(exchange, 200, String.format(
+                    "{\"status\":\"ok\",\"points\":%d,\"slices\":%d,\"observationMode\":\"%s\","
+                            + "\"incidentMode\":\"%s\",\"requests\":%d,\"queries\":%d}",
+                    table.size(), table.getSliceCount(), engine.getObservationMode(), engine.getIncidentMode(),
+                    requests.sum(), queries.sum()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_BATCH_QUERIES * FIELDS * Double.BYTES + 1);
+        if (body.length > MAX_BATCH_QUERIES * FIELDS * Double.BYTES) {
+            throw new IllegalArgumentException("单个请求最多 " + MAX_BATCH_QUERIES + " 次查询");
+        }
+        return body;
+    }
+
+    private static double[] parseBinary(byte[] body) {
+        if (body.length % (FIELDS * Double.BYTES) != 0) {
+            throw new IllegalArgumentException("二进制请求长度不是 5 个 double 的整数倍");
+        }
+        double[] batch = new double[body.length / Double.BYTES];
+        ByteBuffer.wrap(body).asDoubleBuffer().get(batch);
+        return batch;
+    }
+
+    /**
+     * 解析由数字组成的 JSON 数组（可以嵌套），第一个 '[' 之前的内容（如 {"queries":）忽略。
+     */
+    private static double[] parseJson(String body) {
+        int start = body.indexOf('[');
+        if (start < 0) {
+            throw new IllegalArgumentException("JSON 请求中没有查询数组");
+        }
+        double[] numbers = new double[64];
+        int count = 0;
+        int depth = 0;
+        int i = start;
+        while (i < body.length()) {
+            char c = body.charAt(i);
+            if (c == '[') {
+                depth++;
+                i++;
+            } else if (c == ']') {
+                depth--;
+                i++;
+                if (depth == 0) {
+                    break;
+                }
+            } else if (c == ',' || Character.isWhitespace(c)) {
+                i++;
+            } else {
+                int end = i;
+                while (end < body.length() && "+-.0123456789eE".indexOf(body.charAt(end)) >= 0) {
+                    end++;
+                }
+                if (end == i) {
+                    throw new IllegalArgumentException("JSON 请求第 " + i + " 个字符无法识别: " + c);
+                }
+                if (count == numbers.length) {
+                    if (count >= MAX_BATCH_QUERIES * FIELDS) {
+                        throw new IllegalArgumentException("单个请求最多 " + MAX_BATCH_QUERIES + " 次查询");
+                    }
+                    numbers = Arrays.copyOf(numbers, count * 2);
+                }
+                try {
+                    numbers[count++] = Double.parseDouble(body.substring(i, end));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("JSON 请求中的数字格式错误: " + body.substring(i, end));
+                }
+                i = end;
+            }
+        }
+        if (depth != 0) {
+            throw new IllegalArgumentException("JSON 请求的方括号不匹配");
+        }
+        if (count % FIELDS != 0) {
+            throw new IllegalArgumentException("每次查询需要 5 个数：频率、入射俯仰角、入射方位角、观测俯仰角、观测方位角");
+        }
+        return Arrays.copyOf(numbers, count);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static double requiredNumber(Map<String, String> parameters, String name) {
+        String text = parameters.get(name);
+        if (text == null) {
+            throw new IllegalArgumentException("缺少参数 " + name);
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("参数 " + name + " 不是数字: " + text);
+        }
+    }
+
+    /**
+     * JSON 没有 NaN 和无穷大，输出为 null。
+     */
+    private static String jsonNumber(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}");
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        send(exchange, status, "application/json; charset=utf-8", json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " 缺少参数值");
+        }
+        return args[index];
+    }
+
+    private static int positiveInt(String text, String option) {
+        try {
+            int value = Integer.parseInt(text);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException ignored) {
+            // 统一在下面报错
+        }
+        throw new IllegalArgumentException(option + " 需要正整数: " + text);
+    }
+}
@@ -0,0 +1,250 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * RcsHttpServer 的压测工具：模拟大量并发的本机客户端，每个客户端顺序发出若干请求，
+ * 统计延迟分位数（p50/p90/p99/最大）和吞吐。请求用异步 HttpClient 发出，几千个并发客户端也不需要几千个线程。
+ *
+ * <pre>
+ * java RcsLoadTest --url http://127.0.0.1:8080 --clients 2000 --requests 20
+ * java RcsLoadTest --clients 500 --batch 1000 --format binary
+ * </pre>
+ */
+public class RcsLoadTest {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "用法: java RcsLoadTest [选项]",
+            "  --url <地址>           服务地址，默认 http://127.0.0.1:8080",
+            "  --clients <n>          并发客户端数，默认 1000",
+            "  --requests <n>         每个客户端的请求数，默认 20",
+            "  --batch <n>            每个请求的查询数，0 表示单点 GET /rcs（默认 0）",
+            "  --format <binary|json> 批量请求的格式，默认 binary",
+            "  --warmup <n>           正式统计前每个客户端先发的请求数，默认 2");
+
+    private static final int FIELDS = 5;
+
+    private String url = "http://127.0.0.1:8080";
+    private int clients = 1000;
+    private int requestsPerClient = 20;
+    private int batchSize;
+    private boolean binary = true;
+    private int warmupRequests = 2;
+    // 第一个失败的原因，压测结束后打印
+    private final AtomicReference<String> firstFailure = new AtomicReference<>();
+
+    public static void main(String[] args) throws Exception {
+        RcsLoadTest loadTest = new RcsLoadTest();
+        try {
+            loadTest.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        System.exit(loadTest.execute() ? 0 : 1);
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--url":
+                    url = value(args, ++i, arg).replaceAll("/+$", "");
+                    break;
+                case "--clients":
+                    clients = positiveInt(value(args, ++i, arg), arg);
+                    break;
+                case "--requests":
+                    requestsPerClient = positiveInt(value(args, ++i, arg), arg);
+                    break;
+                case "--batch":
+                    batchSize = nonNegativeInt(value(args, ++i, arg), arg);
+                    break;
+                case "--format":
+                    String format = value(args, ++i, arg);
+                    if (!"binary".equals(format) && !"json".equals(format)) {
+                        throw new IllegalArgumentException("未知格式: " + format);
+                    }
+                    binary = "binary".equals(format);
+                    break;
+                case "--warmup":
+                    warmupRequests = nonNegativeInt(value(args, ++i, arg), arg);
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知参数: " + arg);
+            }
+        }
+    }
+
+    /**
+     * 一个客户端：按顺序发出请求，上一个完成后再发下一个。
+     */
+    private class Client {
+        final SplittableRandom random;
+        final int total;
+        final long[] latencies;
+        final AtomicInteger recorded;
+        final AtomicLong failures;
+        final CompletableFuture<Void> finished = new CompletableFuture<>();
+        int sent;
+
+        Client(int index, long[] latencies, AtomicInteger recorded, AtomicLong failures) {
+            this.random = new SplittableRandom(index);
+            this.total = warmupRequests + requestsPerClient;
+            this.latencies = latencies;
+            this.recorded = recorded;
+            this.failures = failures;
+        }
+
+        void sendNext(HttpClient httpClient) {
+            if (sent == total) {
+                finished.complete(null);
+                return;
+            }
+            boolean measured = sent >= warmupRequests;
+            sent++;
+            HttpRequest request = nextRequest(random);
+            long start = System.nanoTime();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, error) -> {
+                long elapsed = System.nanoTime() - start;
+                if (error != null || response.statusCode() != 200) {
+                    failures.incrementAndGet();
+                    firstFailure.compareAndSet(null, error != null ? error.toString()
+                            : "HTTP " + response.statusCode() + ": " + new String(response.body(), StandardCharsets.UTF_8));
+                } else if (measured) {
+                    latencies[recorded.getAndIncrement()] = elapsed;
+                }
+                sendNext(httpClient);
+            });
+        }
+    }
+
+    private boolean execute() throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                    Thread thread = new Thread(runnable, "rcs-load");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+
+        long[] latencies = new long[clients * requestsPerClient];
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicLong failures = new AtomicLong();
+        Client[] workers = new Client[clients];
+        for (int i = 0; i < clients; i++) {
+            workers[i] = new Client(i, latencies, recorded, failures);
+        }
+
+        System.out.printf("压测 %s: %d 个并发客户端, 每个 %d 个请求（另有 %d 个预热）, %s%n", url, clients,
+                requestsPerClient, warmupRequests,
+                batchSize == 0 ? "单点查询" : "每个请求 " + batchSize + " 次查询 (" + (binary ? "binary" : "json") + ")");
+        long start = System.nanoTime();
+        for (Client worker : workers) {
+            worker.sendNext(httpClient);
+        }
+        CompletableFuture.allOf(Arrays.stream(workers).map(worker -> worker.finished)
+                .toArray(CompletableFuture[]::new)).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int count = recorded.get();
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        long requests = (long) clients * (warmupRequests + requestsPerClient);
+        System.out.printf("完成 %d 个请求, 失败 %d, 总耗时 %.2f s%n", requests, failures.get(), seconds);
+        if (firstFailure.get() != null) {
+            System.out.println("首个失败: " + firstFailure.get());
+        }
+        System.out.printf("吞吐: %.0f 请求/秒, %.0f 次查询/秒%n", requests / seconds,
+                requests * Math.max(1, batchSize) / seconds);
+        if (count > 0) {
+            System.out.printf("延迟: p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, 最大 %.2f ms%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    sorted[count - 1] / 1e6);
+        }
+        return failures.get() == 0;
+    }
+
+    private HttpRequest nextRequest(SplittableRandom random) {
+        if (batchSize == 0) {
+            return HttpRequest.newBuilder(URI.create(String.format(
+                            "%s/rcs?frequency=%.3f&incidentElevation=%.3f&incidentAzimuth=%.3f&theta=%.3f&phi=%.3f",
+                            url, frequency(random), angle(random), angle(random), random.nextDouble(0, 180),
+                            angle(random))))
+                    .GET().build();
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url + "/rcs/batch"));
+        if (binary) {
+            ByteBuffer body = ByteBuffer.allocate(batchSize * FIELDS * Double.BYTES);
+            for (int i = 0; i < batchSize; i++) {
+                body.putDouble(frequency(random)).putDouble(angle(random)).putDouble(angle(random))
+                        .putDouble(random.nextDouble(0, 180)).putDouble(angle(random));
+            }
+            return builder.header("Content-Type", "application/octet-stream")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body.array())).build();
+        }
+        StringBuilder json = new StringBuilder(batchSize * 48).append('[');
+        for (int i = 0; i < batchSize; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format("[%.3f,%.3f,%.3f,%.3f,%.3f]", frequency(random), angle(random), angle(random),
+                    random.nextDouble(0, 180), angle(random)));
+        }
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json.append(']').toString())).build();
+    }
+
+    private static double frequency(SplittableRandom random) {
+        return random.nextDouble(5, 30);
+    }
+
+    private static double angle(SplittableRandom random) {
+        return random.nextDouble(0, 360);
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.min(sorted.length - 1, Math.max(0, Math.ceil(fraction * sorted.length) - 1));
+        return sorted[index] / 1e6;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " 缺少参数值");
+        }
+        return args[index];
+    }
+
+    private static int positiveInt(String text, String option) {
+        int value = nonNegativeInt(text, option);
+        if (value == 0) {
+            throw new IllegalArgumentException(option + " 需要正整数: " + text);
+        }
+        return value;
+    }
+
+    private static int nonNegativeInt(String text, String option) {
+        try {
+            int value = Integer.parseInt(text);
+            if (value >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException ignored) {
+            // 统一在下面报错
+        }
+        throw new IllegalArgumentException(option + " 需要非负整数: " + text);
+    }
+}
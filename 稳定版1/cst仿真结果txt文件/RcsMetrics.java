@@ -0,0 +1,394 @@
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 运行指标：计数器和低开销的延迟直方图，覆盖数据加载、单次查询的各阶段、批量计算和界面绘制。
+ * 加 -Drcs.metrics=true 开启，开启后注册 MBean rcs:type=Metrics（可用 jconsole 查看），
+ * -Drcs.metrics.logInterval=秒数 时再定期打印一行汇总。
+ *
+ * 关闭时 ENABLED 是常量 false，热路径上的 if (RcsMetrics.ENABLED) 和 now()/lap() 会被 JIT 整段消除，没有可测的开销。
+ */
+public final class RcsMetrics {
+    public static final boolean ENABLED = Boolean.getBoolean("rcs.metrics");
+
+    private static final List<Histogram> HISTOGRAMS = new ArrayList<>();
+    private static final List<Counter> COUNTERS = new ArrayList<>();
+    // 由各组件注册的读数（例如缓存命中数），同名的后注册者覆盖先注册者
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentSkipListMap<>();
+
+    public static final Histogram LOAD = histogram("load", "完整读取或重载数据");
+    public static final Histogram FILE_PARSE = histogram("fileParse", "解析单个 CST 文件");
+    public static final Counter FOLDERS_SCANNED = counter("foldersScanned", "扫描过的方向文件夹数");
+    public static final Counter FILES_LISTED = counter("filesListed", "扫描方向文件夹时列出的 TXT 文件数");
+    public static final Counter FILES_PARSED = counter("filesParsed", "已解析的文件数");
+    public static final Counter POINTS_PARSED = counter("pointsParsed", "已解析的数据点数");
+    public static final Counter SNAPSHOT_HITS = counter("snapshotHits", "从快照读取的次数");
+    public static final Counter SNAPSHOT_MISSES = counter("snapshotMisses", "快照不可用、解析文本的次数");
+
+    public static final Histogram QUERY = histogram("query", "calculateRCS 单次查询（含缓存）");
+    public static final Histogram QUERY_BRACKET = histogram("query.bracket", "频率与入射角定界");
+    public static final Histogram QUERY_CORNERS = histogram("query.corners",
+            "角点切片查找（球面模式为近邻查找与取值）");
+    public static final Histogram QUERY_EVALUATE = histogram("query.evaluate", "角点观测值与插值");
+    public static final Histogram BATCH = histogram("batch", "calculateRCSBatch 一次调用");
+    public static final Counter BATCH_QUERIES = counter("batchQueries", "批量计算的查询数");
+    public static final Histogram SWEEP = histogram("sweep", "calculateFrequencySweep 一次扫频");
+    public static final Histogram CUT = histogram("cut", "calculatePatternCut 一条方向图切面");
+
+    public static final Histogram PAINT_POLAR = histogram("paint.polar", "极坐标图绘制");
+    public static final Histogram PAINT_PATTERN = histogram("paint.pattern", "三维方向图绘制");
+    public static final Histogram PAINT_CUT = histogram("paint.cut", "方向图切面绘制");
+
+    static {
+        if (ENABLED) {
+            register();
+            long interval = Long.getLong("rcs.metrics.logInterval", 0L);
+            if (interval > 0) {
+                ScheduledExecutorService logger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "rcs-metrics");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                logger.scheduleAtFixedRate(() -> System.out.println(summary()), interval, interval, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private RcsMetrics() {
+    }
+
+    /**
+     * 计时起点，关闭时返回 0 且不读时钟。
+     */
+    public static long now() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * 把从 since 到现在的耗时记入 histogram，返回现在的时刻作为下一阶段的起点；关闭时什么也不做。
+     */
+    public static long lap(Histogram histogram, long since) {
+        if (!ENABLED) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+        histogram.record(now - since);
+        return now;
+    }
+
+    /**
+     * 注册一个读数，开启指标时出现在 MBean 和汇总行中；关闭时忽略。
+     */
+    public static void gauge(String name, LongSupplier supplier) {
+        if (ENABLED) {
+            GAUGES.put(name, supplier);
+        }
+    }
+
+    /**
+     * 一行汇总：每个有数据的直方图的次数、p50、p99、最大值，以及非零的计数器和读数。
+     */
+    public static String summary() {
+        StringBuilder line = new StringBuilder("运行指标:");
+        for (Histogram histogram : HISTOGRAMS) {
+            if (histogram.getCount() > 0) {
+                line.append(String.format(" %s[%d次 p50 %s p99 %s 最大 %s]", histogram.name, histogram.getCount(),
+                        formatNanos(histogram.percentile(0.5)), formatNanos(histogram.percentile(0.99)),
+                        formatNanos(histogram.getMax())));
+            }
+        }
+        for (Counter counter : COUNTERS) {
+            if (counter.get() != 0) {
+                line.append(' ').append(counter.name).append('=').append(counter.get());
+            }
+        }
+        for (Map.Entry<String, LongSupplier> gauge : GAUGES.entrySet()) {
+            line.append(' ').append(gauge.getKey()).append('=').append(gauge.getValue().getAsLong());
+        }
+        return line.toString();
+    }
+
+    /**
+     * 清零所有直方图和计数器，读数由各组件自己维护，不受影响。
+     */
+    public static void reset() {
+        HISTOGRAMS.forEach(Histogram::reset);
+        COUNTERS.forEach(Counter::reset);
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos >= 1_000_000_000L) {
+            return String.format("%.2fs", nanos / 1e9);
+        }
+        if (nanos >= 1_000_000L) {
+            return String.format("%.2fms", nanos / 1e6);
+        }
+        return String.format("%.1fµs", nanos / 1e3);
+    }
+
+    private static Histogram histogram(String name, String description) {
+        Histogram histogram = new Histogram(name, description);
+        HISTOGRAMS.add(histogram);
+        return histogram;
+    }
+
+    private static Counter counter(String name, String description) {
+        Counter counter = new Counter(name, description);
+        COUNTERS.add(counter);
+        return counter;
+    }
+
+    private static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsBean(),
+                    new ObjectName("rcs:type=Metrics"));
+        } catch (JMException e) {
+            System.err.println("注册运行指标 MBean 失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 计数器。
+     */
+    public static final class Counter {
+        final String name;
+        final String description;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        public void add(long delta) {
+            value.add(delta);
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        void reset() {
+            value.reset();
+        }
+    }
+
+    /**
+     * 纳秒延迟直方图：对数-线性分箱，每个 2 的幂区间再等分 16 份，相对误差不超过 1/16；
+     * 记录时只做几次无锁累加，不分配内存。
+     */
+    public static final class Histogram {
+        private static final int SUB_BITS = 4;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int BUCKET_COUNT = (64 - SUB_BITS) * SUB_COUNT;
+
+        final String name;
+        final String description;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+        private Histogram(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        public void record(long nanos) {
+            long value = Math.max(0L, nanos);
+            buckets.incrementAndGet(bucket(value));
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        private static int bucket(long value) {
+            if (value < SUB_COUNT) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+            return (shift + 1) * SUB_COUNT + (int) ((value >>> shift) & (SUB_COUNT - 1));
+        }
+
+        private static long bucketLow(int bucket) {
+            if (bucket < 2 * SUB_COUNT) {
+                return bucket;
+            }
+            int shift = bucket / SUB_COUNT - 1;
+            return (long) ((bucket & (SUB_COUNT - 1)) | SUB_COUNT) << shift;
+        }
+
+        private static long bucketWidth(int bucket) {
+            return bucket < 2 * SUB_COUNT ? 1L : 1L << (bucket / SUB_COUNT - 1);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long n = count.sum();
+            return n == 0 ? 0.0 : (double) sum.sum() / n;
+        }
+
+        /**
+         * 分位数（纳秒，fraction 取 0~1），取所在分箱的中点；记录与读取并发时是近似值。
+         */
+        public long percentile(double fraction) {
+            long[] counts = new long[BUCKET_COUNT];
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(fraction * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(getMax(), bucketLow(i) + bucketWidth(i) / 2);
+                }
+            }
+            return getMax();
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets.set(i, 0L);
+            }
+            count.reset();
+            sum.reset();
+            max.reset();
+        }
+    }
+
+    /**
+     * 把直方图、计数器和读数展开成 MBean 属性：直方图为 名称.count / .meanMicros / .p50Micros / .p99Micros / .maxMicros，
+     * 另有 reset 操作。
+     */
+    private static final class MetricsBean implements DynamicMBean {
+        private static final String[] HISTOGRAM_FIELDS = {"count", "meanMicros", "p50Micros", "p99Micros", "maxMicros"};
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            int dot = attribute.lastIndexOf('.');
+            if (dot > 0) {
+                String field = attribute.substring(dot + 1);
+                for (Histogram histogram : HISTOGRAMS) {
+                    if (histogram.name.equals(attribute.substring(0, dot))) {
+                        switch (field) {
+                            case "count":
+                                return histogram.getCount();
+                            case "meanMicros":
+                                return histogram.getMean() / 1e3;
+                            case "p50Micros":
+                                return histogram.percentile(0.5) / 1e3;
+                            case "p99Micros":
+                                return histogram.percentile(0.99) / 1e3;
+                            case "maxMicros":
+                                return histogram.getMax() / 1e3;
+                            default:
+                                break;
+                        }
+                    }
+                }
+            }
+            for (Counter counter : COUNTERS) {
+                if (counter.name.equals(attribute)) {
+                    return counter.get();
+                }
+            }
+            LongSupplier gauge = GAUGES.get(attribute);
+            if (gauge != null) {
+                return gauge.getAsLong();
+            }
+            throw new AttributeNotFoundException(attribute);
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("运行指标只读: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, getAttribute(attribute)));
+                } catch (AttributeNotFoundException ignored) {
+                    // 按 DynamicMBean 约定，取不到的属性不出现在结果中
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            if ("reset".equals(actionName)) {
+                reset();
+                return null;
+            }
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (Histogram histogram : HISTOGRAMS) {
+                for (String field : HISTOGRAM_FIELDS) {
+                    String type = "count".equals(field) ? "long" : "double";
+                    attributes.add(new MBeanAttributeInfo(histogram.name + "." + field, type,
+                            histogram.description, true, false, false));
+                }
+            }
+            for (Counter counter : COUNTERS) {
+                attributes.add(new MBeanAttributeInfo(counter.name, "long", counter.description, true, false, false));
+            }
+            for (String gauge : GAUGES.keySet()) {
+                attributes.add(new MBeanAttributeInfo(gauge, "long", gauge, true, false, false));
+            }
+            MBeanOperationInfo resetOperation = new MBeanOperationInfo("reset", "清零直方图和计数器",
+                    null, "void", MBeanOperationInfo.ACTION);
+            return new MBeanInfo(RcsMetrics.class.getName(), "双站 RCS 工具运行指标",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null,
+                    new MBeanOperationInfo[]{resetOperation}, null);
+        }
+    }
+}
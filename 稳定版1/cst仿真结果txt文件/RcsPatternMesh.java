@@ -0,0 +1,172 @@
+import java.util.Arrays;
+
+/**
+ * 一个 (频率, 入射方向) 下整个观测球面的 RCS 方向图网格：顶点在 theta/phi 上等间隔采样，
+ * 半径和颜色都由 RCS (dB) 映射。构建后不可变，旋转、缩放时只需重新投影顶点。
+ */
+public class RcsPatternMesh {
+    // 最小 RCS 也保留一点半径，零点方向不会缩成一个点
+    private static final double MIN_RADIUS = 0.1;
+
+    private final int thetaCount;
+    private final int phiCount;
+    private final double stepDegrees;
+    // 顶点坐标按 x0, y0, z0, x1, ... 排列，y 轴对应 theta = 0
+    private final double[] positions;
+    // 每个三角形三个顶点下标，均按外法线方向逆时针排列
+    private final int[] triangles;
+    private final int[] triangleColors;
+    private final double minRCS;
+    private final double maxRCS;
+
+    private RcsPatternMesh(int thetaCount, int phiCount, double stepDegrees, double[] positions, int[] triangles,
+                           int[] triangleColors, double minRCS, double maxRCS) {
+        this.thetaCount = thetaCount;
+        this.phiCount = phiCount;
+        this.stepDegrees = stepDegrees;
+        this.positions = positions;
+        this.triangles = triangles;
+        this.triangleColors = triangleColors;
+        this.minRCS = minRCS;
+        this.maxRCS = maxRCS;
+    }
+
+    /**
+     * 采样网格上第 t 个 theta、第 p 个 phi 的顶点序号，rcsValues 按此顺序排列。
+     */
+    public static int vertexIndex(int t, int p, int phiCount) {
+        return t * phiCount + p;
+    }
+
+    /**
+     * @param rcsValues   按 vertexIndex 排列的 RCS 值，theta 从 0 到 180°、phi 从 0 到 360°（含首尾）
+     * @param thetaCount  theta 采样数
+     * @param phiCount    phi 采样数
+     * @param stepDegrees 采样步长（度）
+     */
+    public static RcsPatternMesh build(double[] rcsValues, int thetaCount, int phiCount, double stepDegrees) {
+        int vertexCount = thetaCount * phiCount;
+        if (thetaCount < 2 || phiCount < 2 || rcsValues.length < vertexCount) {
+            throw new IllegalArgumentException("方向图采样点不足");
+        }
+
+        double minRCS = Double.POSITIVE_INFINITY;
+        double maxRCS = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < vertexCount; i++) {
+            minRCS = Math.min(minRCS, rcsValues[i]);
+            maxRCS = Math.max(maxRCS, rcsValues[i]);
+        }
+        double range = maxRCS > minRCS ? maxRCS - minRCS : 1.0;
+
+        double[] radii = new double[vertexCount];
+        double[] thetas = new double[vertexCount];
+        double[] phis = new double[vertexCount];
+        for (int t = 0; t < thetaCount; t++) {
+            for (int p = 0; p < phiCount; p++) {
+                int v = vertexIndex(t, p, phiCount);
+                radii[v] = MIN_RADIUS + (1 - MIN_RADIUS) * (rcsValues[v] - minRCS) / range;
+                thetas[v] = t * stepDegrees;
+                phis[v] = p * stepDegrees;
+            }
+        }
+        double[] positions = new double[vertexCount * 3];
+        CoordinateTransformer.sphericalToCartesian(radii, thetas, phis, vertexCount, positions,
+                new CoordinateTransformer.TrigTable(stepDegrees));
+
+        // 每个网格四边形拆成两个三角形，极点处退化的三角形不要
+        int[] triangles = new int[(thetaCount - 1) * (phiCount - 1) * 6];
+        int[] triangleColors = new int[(thetaCount - 1) * (phiCount - 1) * 2];
+        int triangleCount = 0;
+        for (int t = 0; t + 1 < thetaCount; t++) {
+            for (int p = 0; p + 1 < phiCount; p++) {
+                int a = vertexIndex(t, p, phiCount);
+                int b = vertexIndex(t + 1, p, phiCount);
+                int c = vertexIndex(t + 1, p + 1, phiCount);
+                int d = vertexIndex(t, p + 1, phiCount);
+                triangleCount = addTriangle(positions, rcsValues, minRCS, maxRCS, a, b, c,
+                        triangles, triangleColors, triangleCount);
+                triangleCount = addTriangle(positions, rcsValues, minRCS, maxRCS, a, c, d,
+                        triangles, triangleColors, triangleCount);
+            }
+        }
+        return new RcsPatternMesh(thetaCount, phiCount, stepDegrees, positions,
+                Arrays.copyOf(triangles, triangleCount * 3),
+                Arrays.copyOf(triangleColors, triangleCount), minRCS, maxRCS);
+    }
+
+    private static int addTriangle(double[] positions, double[] rcsValues, double minRCS, double maxRCS,
+                                   int a, int b, int c, int[] triangles, int[] triangleColors, int triangleCount) {
+        double ax = positions[a * 3];
+        double ay = positions[a * 3 + 1];
+        double az = positions[a * 3 + 2];
+        double ux = positions[b * 3] - ax;
+        double uy = positions[b * 3 + 1] - ay;
+        double uz = positions[b * 3 + 2] - az;
+        double vx = positions[c * 3] - ax;
+        double vy = positions[c * 3 + 1] - ay;
+        double vz = positions[c * 3 + 2] - az;
+        double nx = uy * vz - uz * vy;
+        double ny = uz * vx - ux * vz;
+        double nz = ux * vy - uy * vx;
+        if (nx * nx + ny * ny + nz * nz < 1e-24) {
+            return triangleCount;
+        }
+        // 方向图相对原点是星形的，法线与重心同向即朝外
+        boolean outward = nx * (ax + ux / 3 + vx / 3) + ny * (ay + uy / 3 + vy / 3) + nz * (az + uz / 3 + vz / 3) >= 0;
+        triangles[triangleCount * 3] = a;
+        triangles[triangleCount * 3 + 1] = outward ? b : c;
+        triangles[triangleCount * 3 + 2] = outward ? c : b;
+        double rcs = (rcsValues[a] + rcsValues[b] + rcsValues[c]) / 3;
+        triangleColors[triangleCount] = VisualizationPanel.getRgbForRCS(rcs, minRCS, maxRCS);
+        return triangleCount + 1;
+    }
+
+    public int getThetaCount() {
+        return thetaCount;
+    }
+
+    public int getPhiCount() {
+        return phiCount;
+    }
+
+    public double getStepDegrees() {
+        return stepDegrees;
+    }
+
+    public int getVertexCount() {
+        return positions.length / 3;
+    }
+
+    public int getTriangleCount() {
+        return triangleColors.length;
+    }
+
+    /**
+     * 顶点坐标，调用方不得修改返回的数组。
+     */
+    public double[] getPositions() {
+        return positions;
+    }
+
+    /**
+     * 三角形顶点下标，调用方不得修改返回的数组。
+     */
+    public int[] getTriangles() {
+        return triangles;
+    }
+
+    /**
+     * 三角形颜色 (RGB)，调用方不得修改返回的数组。
+     */
+    public int[] getTriangleColors() {
+        return triangleColors;
+    }
+
+    public double getMinRCS() {
+        return minRCS;
+    }
+
+    public double getMaxRCS() {
+        return maxRCS;
+    }
+}
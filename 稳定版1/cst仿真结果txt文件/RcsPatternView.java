@@ -0,0 +1,419 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 三维 RCS 方向图：把一个 (频率, 入射方向) 下整个观测球面的 RCS 画成半径和颜色都随 RCS 变化的网格。
+ * 网格在后台线程上通过插值引擎批量采样构建，按 (数据表, 频率, 入射方向, 插值方式) 缓存；
+ * 鼠标拖动旋转、滚轮缩放时只重新投影顶点，由纯 Java 的 z 缓冲光栅化画到 BufferedImage。
+ */
+public class RcsPatternView extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    // 观测角采样步长（度），theta 0~180°、phi 0~360° 共 91 × 181 个顶点
+    private static final double MESH_STEP_DEGREES = 2.0;
+    private static final int MAX_CACHED_MESHES = 8;
+    // 每像素拖动对应的旋转角度（度）
+    private static final double DEGREES_PER_PIXEL = 0.5;
+
+    private final InterpolationEngine interpolationEngine;
+    private RcsTable rcsTable;
+
+    // 只在事件线程上访问
+    private final LinkedHashMap<MeshKey, RcsPatternMesh> meshCache =
+            new LinkedHashMap<MeshKey, RcsPatternMesh>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<MeshKey, RcsPatternMesh> eldest) {
+                    return size() > MAX_CACHED_MESHES;
+                }
+            };
+    private MeshKey requestedKey;
+    private MeshKey buildingKey;
+    private Future<?> pendingBuild;
+    private RcsPatternMesh mesh;
+    private MeshKey meshKey;
+
+    private final ExecutorService meshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rcs-mesh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 视角：先绕竖直轴转 yaw，再绕屏幕水平轴转 pitch
+    private double yaw = 30.0;
+    private double pitch = 20.0;
+    private double zoom = 1.0;
+    private CoordinateTransformer.Rotation viewRotation;
+
+    // 每帧复用的缓冲区，只在尺寸或网格变化时重新分配
+    private BufferedImage frame;
+    private int[] pixels;
+    private float[] depth;
+    private double[] viewPositions;
+    private double averageFrameMillis;
+
+    /**
+     * 决定一个网格的全部条件；插值方式变化后需要重新采样。
+     */
+    private static class MeshKey {
+        final RcsTable rcsTable;
+        final double frequency;
+        final double incidentElevation;
+        final double incidentAzimuth;
+        final InterpolationEngine.ObservationMode observationMode;
+        final InterpolationEngine.IncidentMode incidentMode;
+
+        MeshKey(RcsTable rcsTable, double frequency, double incidentElevation, double incidentAzimuth,
+                InterpolationEngine.ObservationMode observationMode, InterpolationEngine.IncidentMode incidentMode) {
+            this.rcsTable = rcsTable;
+            this.frequency = frequency;
+            this.incidentElevation = incidentElevation;
+            this.incidentAzimuth = incidentAzimuth;
+            this.observationMode = observationMode;
+            this.incidentMode = incidentMode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof MeshKey)) {
+                return false;
+            }
+            MeshKey other = (MeshKey) o;
+            return rcsTable == other.rcsTable
+                    && Double.compare(frequency, other.frequency) == 0
+                    && Double.compare(incidentElevation, other.incidentElevation) == 0
+                    && Double.compare(incidentAzimuth, other.incidentAzimuth) == 0
+                    && observationMode == other.observationMode
+                    && incidentMode == other.incidentMode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(rcsTable), frequency, incidentElevation, incidentAzimuth,
+                    observationMode, incidentMode);
+        }
+    }
+
+    public RcsPatternView(RcsTable rcsTable, InterpolationEngine interpolationEngine) {
+        this.rcsTable = rcsTable;
+        this.interpolationEngine = interpolationEngine;
+        this.viewRotation = rotationFor(yaw, pitch);
+        setBackground(Color.WHITE);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            private Point last;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                last = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (last == null) {
+                    last = e.getPoint();
+                    return;
+                }
+                yaw += (e.getX() - last.x) * DEGREES_PER_PIXEL;
+                pitch += (e.getY() - last.y) * DEGREES_PER_PIXEL;
+                last = e.getPoint();
+                viewRotation = rotationFor(yaw, pitch);
+                repaint();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                zoom = Math.max(0.2, Math.min(10.0, zoom * Math.pow(1.1, -e.getPreciseWheelRotation())));
+                repaint();
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+
+        // 不可见时只记录请求，切换到三维视图时再构建网格
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing()) {
+                ensureMesh();
+            }
+        });
+    }
+
+    private static CoordinateTransformer.Rotation rotationFor(double yaw, double pitch) {
+        return CoordinateTransformer.Rotation.fromAngles(0, yaw, 0)
+                .then(CoordinateTransformer.Rotation.fromAngles(pitch, 0, 0));
+    }
+
+    /**
+     * 显示给定频率和入射方向的方向图，网格已缓存时立即切换，否则在后台构建。
+     */
+    public void showSlice(double frequency, double incidentElevation, double incidentAzimuth) {
+        requestedKey = new MeshKey(rcsTable, frequency, incidentElevation, incidentAzimuth,
+                interpolationEngine.getObservationMode(), interpolationEngine.getIncidentMode());
+        ensureMesh();
+    }
+
+    /**
+     * 数据表变化后旧网格全部作废，当前请求按新数据重新构建。
+     */
+    public void setRcsTable(RcsTable rcsTable) {
+        this.rcsTable = rcsTable;
+        meshCache.clear();
+        if (requestedKey != null) {
+            showSlice(requestedKey.frequency, requestedKey.incidentElevation, requestedKey.incidentAzimuth);
+        }
+    }
+
+    private void ensureMesh() {
+        MeshKey key = requestedKey;
+        if (key == null || key.equals(meshKey)) {
+            return;
+        }
+        RcsPatternMesh cached = meshCache.get(key);
+        if (cached != null) {
+            setMesh(key, cached);
+            return;
+        }
+        if (!isShowing() || key.equals(buildingKey)) {
+            repaint();
+            return;
+        }
+        if (pendingBuild != null) {
+            pendingBuild.cancel(false);
+        }
+        buildingKey = key;
+        InterpolationEngine engine = interpolationEngine;
+        pendingBuild = meshExecutor.submit(() -> {
+            try {
+                RcsPatternMesh built = buildMesh(engine, key);
+                SwingUtilities.invokeLater(() -> meshBuilt(key, built));
+            } catch (RuntimeException ex) {
+                System.err.println("构建三维方向图失败: " + ex.getMessage());
+                SwingUtilities.invokeLater(() -> meshBuilt(key, null));
+            }
+        });
+        repaint();
+    }
+
+    private void meshBuilt(MeshKey key, RcsPatternMesh built) {
+        if (key.equals(buildingKey)) {
+            buildingKey = null;
+        }
+        if (built == null) {
+            return;
+        }
+        meshCache.put(key, built);
+        if (key.equals(requestedKey)) {
+            setMesh(key, built);
+        } else {
+            // 构建期间请求已变化
+            ensureMesh();
+        }
+    }
+
+    private void setMesh(MeshKey key, RcsPatternMesh newMesh) {
+        mesh = newMesh;
+        meshKey = key;
+        if (viewPositions == null || viewPositions.length != newMesh.getPositions().length) {
+            viewPositions = new double[newMesh.getPositions().length];
+        }
+        repaint();
+    }
+
+    /**
+     * 用插值引擎一次批量算出整个观测球面上的采样值。
+     */
+    private static RcsPatternMesh buildMesh(InterpolationEngine engine, MeshKey key) {
+        int thetaCount = (int) Math.round(180.0 / MESH_STEP_DEGREES) + 1;
+        int phiCount = (int) Math.round(360.0 / MESH_STEP_DEGREES) + 1;
+        int count = thetaCount * phiCount;
+        double[] frequencies = new double[count];
+        double[] incidentElevations = new double[count];
+        double[] incidentAzimuths = new double[count];
+        double[] thetas = new double[count];
+        double[] phis = new double[count];
+        Arrays.fill(frequencies, key.frequency);
+        Arrays.fill(incidentElevations, key.incidentElevation);
+        Arrays.fill(incidentAzimuths, key.incidentAzimuth);
+        for (int t = 0; t < thetaCount; t++) {
+            for (int p = 0; p < phiCount; p++) {
+                int v = RcsPatternMesh.vertexIndex(t, p, phiCount);
+                thetas[v] = t * MESH_STEP_DEGREES;
+                phis[v] = p * MESH_STEP_DEGREES;
+            }
+        }
+        double[] values = new double[count];
+        engine.calculateRCSBatch(frequencies, incidentElevations, incidentAzimuths, thetas, phis, values);
+        return RcsPatternMesh.build(values, thetaCount, phiCount, MESH_STEP_DEGREES);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (mesh == null) {
+            g.setColor(Color.BLACK);
+            String message = requestedKey == null ? "点击计算或拖动滑块后显示当前频率和入射方向的三维方向图"
+                    : "正在计算三维方向图...";
+            g.drawString(message, 20, height / 2);
+            return;
+        }
+
+        long start = System.nanoTime();
+        renderFrame(width, height);
+        g.drawImage(frame, 0, 0, null);
+        long frameNanos = System.nanoTime() - start;
+        if (RcsMetrics.ENABLED) {
+            RcsMetrics.PAINT_PATTERN.record(frameNanos);
+        }
+        double frameMillis = frameNanos / 1e6;
+        averageFrameMillis = averageFrameMillis == 0 ? frameMillis : averageFrameMillis * 0.9 + frameMillis * 0.1;
+
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        drawAxes(g2d, width, height);
+        g2d.setColor(Color.BLACK);
+        g2d.setFont(getFont());
+        g2d.drawString(String.format("频率: %.1f MHz, 入射俯仰角/方位角: %.1f° / %.1f°",
+                meshKey.frequency, meshKey.incidentElevation, meshKey.incidentAzimuth), 10, 20);
+        g2d.drawString(String.format("RCS: %.1f ~ %.1f dB(m²)", mesh.getMinRCS(), mesh.getMaxRCS()), 10, 38);
+        String status = !meshKey.equals(requestedKey) ? "  正在计算新的方向图..." : "";
+        g2d.drawString(String.format("拖动鼠标旋转，滚轮缩放  渲染 %.1f ms%s", averageFrameMillis, status),
+                10, height - 10);
+    }
+
+    /**
+     * 旋转顶点、正交投影并按三角形光栅化到帧缓冲，背向观察者的三角形直接跳过。
+     */
+    private void renderFrame(int width, int height) {
+        if (frame == null || frame.getWidth() != width || frame.getHeight() != height) {
+            frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+            depth = new float[width * height];
+        }
+        Arrays.fill(pixels, 0xFFFFFF);
+        Arrays.fill(depth, Float.NEGATIVE_INFINITY);
+
+        double[] positions = mesh.getPositions();
+        viewRotation.apply(positions, viewPositions, positions.length / 3);
+
+        double scale = zoom * Math.min(width, height) * 0.45;
+        double centerX = width / 2.0;
+        double centerY = height / 2.0;
+        int[] triangles = mesh.getTriangles();
+        int[] colors = mesh.getTriangleColors();
+        double[] v = viewPositions;
+        for (int t = 0; t < colors.length; t++) {
+            int a = triangles[t * 3] * 3;
+            int b = triangles[t * 3 + 1] * 3;
+            int c = triangles[t * 3 + 2] * 3;
+            // 视图坐标系中 z 轴指向观察者，法线 z 分量不为正即背向
+            double ux = v[b] - v[a];
+            double uy = v[b + 1] - v[a + 1];
+            double uz = v[b + 2] - v[a + 2];
+            double wx = v[c] - v[a];
+            double wy = v[c + 1] - v[a + 1];
+            double wz = v[c + 2] - v[a + 2];
+            double nz = ux * wy - uy * wx;
+            if (nz <= 0) {
+                continue;
+            }
+            double nx = uy * wz - uz * wy;
+            double ny = uz * wx - ux * wz;
+            double light = 0.35 + 0.65 * nz / Math.sqrt(nx * nx + ny * ny + nz * nz);
+            fillTriangle(width, height,
+                    centerX + v[a] * scale, centerY - v[a + 1] * scale, v[a + 2],
+                    centerX + v[b] * scale, centerY - v[b + 1] * scale, v[b + 2],
+                    centerX + v[c] * scale, centerY - v[c + 1] * scale, v[c + 2],
+                    shade(colors[t], light));
+        }
+    }
+
+    private static int shade(int rgb, double light) {
+        int red = (int) (((rgb >> 16) & 0xFF) * light);
+        int green = (int) (((rgb >> 8) & 0xFF) * light);
+        int blue = (int) ((rgb & 0xFF) * light);
+        return red << 16 | green << 8 | blue;
+    }
+
+    /**
+     * 边函数法填充三角形，覆盖像素中心的部分写入，深度按重心坐标插值。
+     */
+    private void fillTriangle(int width, int height, double x0, double y0, double z0, double x1, double y1, double z1,
+                              double x2, double y2, double z2, int rgb) {
+        double area = (x1 - x0) * (y2 - y0) - (x2 - x0) * (y1 - y0);
+        if (area == 0) {
+            return;
+        }
+        int minX = Math.max(0, (int) Math.floor(Math.min(x0, Math.min(x1, x2))));
+        int maxX = Math.min(width - 1, (int) Math.ceil(Math.max(x0, Math.max(x1, x2))));
+        int minY = Math.max(0, (int) Math.floor(Math.min(y0, Math.min(y1, y2))));
+        int maxY = Math.min(height - 1, (int) Math.ceil(Math.max(y0, Math.max(y1, y2))));
+        if (minX > maxX || minY > maxY) {
+            return;
+        }
+
+        // 归一化后三个权重在三角形内都不小于 0，与顶点绕向无关
+        double inverseArea = 1.0 / area;
+        double w0StepX = (y1 - y2) * inverseArea;
+        double w1StepX = (y2 - y0) * inverseArea;
+        double w2StepX = (y0 - y1) * inverseArea;
+        for (int py = minY; py <= maxY; py++) {
+            double sy = py + 0.5;
+            double sx = minX + 0.5;
+            double w0 = ((x2 - x1) * (sy - y1) - (y2 - y1) * (sx - x1)) * inverseArea;
+            double w1 = ((x0 - x2) * (sy - y2) - (y0 - y2) * (sx - x2)) * inverseArea;
+            double w2 = ((x1 - x0) * (sy - y0) - (y1 - y0) * (sx - x0)) * inverseArea;
+            int row = py * width;
+            for (int px = minX; px <= maxX; px++) {
+                if (w0 >= 0 && w1 >= 0 && w2 >= 0) {
+                    float z = (float) (w0 * z0 + w1 * z1 + w2 * z2);
+                    int i = row + px;
+                    if (z > depth[i]) {
+                        depth[i] = z;
+                        pixels[i] = rgb;
+                    }
+                }
+                w0 += w0StepX;
+                w1 += w1StepX;
+                w2 += w2StepX;
+            }
+        }
+    }
+
+    /**
+     * 左下角的坐标轴指示：x、y、z 三个轴在当前视角下的方向，y 轴对应 theta = 0。
+     */
+    private void drawAxes(Graphics2D g2d, int width, int height) {
+        int originX = 50;
+        int originY = height - 60;
+        double[] axes = {1, 0, 0, 0, 1, 0, 0, 0, 1};
+        viewRotation.apply(axes, 3);
+        String[] labels = {"x", "y", "z"};
+        Color[] axisColors = {Color.RED, new Color(0, 150, 0), Color.BLUE};
+        g2d.setStroke(new BasicStroke(2));
+        for (int i = 0; i < 3; i++) {
+            int x = originX + (int) Math.round(axes[i * 3] * 30);
+            int y = originY - (int) Math.round(axes[i * 3 + 1] * 30);
+            g2d.setColor(axisColors[i]);
+            g2d.drawLine(originX, originY, x, y);
+            g2d.drawString(labels[i], x + 3, y - 3);
+        }
+    }
+}
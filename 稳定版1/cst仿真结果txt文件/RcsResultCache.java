@@ -0,0 +1,236 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * InterpolationEngine.calculateRCS 的可选结果缓存。
+ * 查询参数先按量化步长取整（例如 0.01° 与 0.01 MHz），同一格内的查询共享一次计算结果；
+ * 引擎用取整后的参数计算，因此命中与否不影响返回值。
+ * 缓存按键的哈希分成若干段，每段是一个独立加锁的 LRU，并发查询只在同一段上竞争。
+ */
+public class RcsResultCache {
+    private static final int SEGMENT_COUNT = 16;
+
+    private final double frequencyQuantum;
+    private final double angleQuantum;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries       最多缓存的结果数，每条约占 100 字节
+     * @param frequencyQuantum 频率量化步长 (MHz)
+     * @param angleQuantum     角度量化步长 (度)
+     */
+    public RcsResultCache(int maxEntries, double frequencyQuantum, double angleQuantum) {
+        if (maxEntries <= 0 || !(frequencyQuantum > 0) || !(angleQuantum > 0)) {
+            throw new IllegalArgumentException("缓存容量和量化步长必须为正数");
+        }
+        this.frequencyQuantum = frequencyQuantum;
+        this.angleQuantum = angleQuantum;
+        int segmentCapacity = Math.max(1, (maxEntries + SEGMENT_COUNT - 1) / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        RcsMetrics.gauge("resultCache.hits", this::getHitCount);
+        RcsMetrics.gauge("resultCache.misses", this::getMissCount);
+        RcsMetrics.gauge("resultCache.evictions", this::getEvictionCount);
+    }
+
+    /**
+     * 默认 0.01 MHz、0.01° 量化。
+     */
+    public RcsResultCache(int maxEntries) {
+        this(maxEntries, 0.01, 0.01);
+    }
+
+    /**
+     * 频率取整到量化格点。
+     */
+    public double snapFrequency(double frequency) {
+        return Math.round(frequency / frequencyQuantum) * frequencyQuantum;
+    }
+
+    /**
+     * 角度周期化后取整到量化格点，359.999° 这类取整到 360° 的值归回 0°。
+     */
+    public double snapAngle(double angle) {
+        return AngleUtils.normalize360(Math.round(AngleUtils.normalize360(angle) / angleQuantum) * angleQuantum);
+    }
+
+    /**
+     * 查找已取整参数对应的结果，未命中返回 null。
+     * owner 标识结果所属的数据版本，版本不同的旧结果视为未命中。
+     */
+    public Entry get(Object owner, double frequency, double incidentElevation, double incidentAzimuth,
+                     double theta, double phi) {
+        Key key = key(frequency, incidentElevation, incidentAzimuth, theta, phi);
+        Entry entry = segmentFor(key).get(key);
+        if (entry != null && entry.owner == owner) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(Object owner, double frequency, double incidentElevation, double incidentAzimuth,
+                    double theta, double phi, double value) {
+        Key key = key(frequency, incidentElevation, incidentAzimuth, theta, phi);
+        segmentFor(key).put(key, new Entry(owner, value));
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("结果缓存: %d 条, 命中 %d, 未命中 %d, 淘汰 %d, 命中率 %.1f%%",
+                size(), getHitCount(), getMissCount(), getEvictionCount(), getHitRate() * 100);
+    }
+
+    private Key key(double frequency, double incidentElevation, double incidentAzimuth, double theta, double phi) {
+        return new Key(
+                Math.round(frequency / frequencyQuantum),
+                Math.round(incidentElevation / angleQuantum),
+                Math.round(incidentAzimuth / angleQuantum),
+                Math.round(theta / angleQuantum),
+                Math.round(phi / angleQuantum));
+    }
+
+    private Segment segmentFor(Key key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * 缓存的结果。
+     */
+    public static class Entry {
+        private final Object owner;
+        private final double value;
+
+        Entry(Object owner, double value) {
+            this.owner = owner;
+            this.value = value;
+        }
+
+        public double getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * 五个查询参数的量化格点下标。
+     */
+    private static class Key {
+        final long frequency;
+        final long incidentElevation;
+        final long incidentAzimuth;
+        final long theta;
+        final long phi;
+        final int hash;
+
+        Key(long frequency, long incidentElevation, long incidentAzimuth, long theta, long phi) {
+            this.frequency = frequency;
+            this.incidentElevation = incidentElevation;
+            this.incidentAzimuth = incidentAzimuth;
+            this.theta = theta;
+            this.phi = phi;
+            long h = frequency;
+            h = h * 31 + incidentElevation;
+            h = h * 31 + incidentAzimuth;
+            h = h * 31 + theta;
+            h = h * 31 + phi;
+            this.hash = Long.hashCode(h * 0x9E3779B97F4A7C15L);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return frequency == other.frequency
+                    && incidentElevation == other.incidentElevation
+                    && incidentAzimuth == other.incidentAzimuth
+                    && theta == other.theta
+                    && phi == other.phi;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 按访问顺序淘汰的一段缓存。
+     */
+    private class Segment {
+        private final LinkedHashMap<Key, Entry> map;
+
+        Segment(int capacity) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized Entry get(Key key) {
+            return map.get(key);
+        }
+
+        synchronized void put(Key key, Entry entry) {
+            map.put(key, entry);
+        }
+
+        synchronized void clear() {
+            map.clear();
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
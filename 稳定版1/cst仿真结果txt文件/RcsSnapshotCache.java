@@ -0,0 +1,265 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * 已解析 CST 数据的二进制快照。
+ * 首次读取文本后写出快照，之后启动时通过 FileChannel.map 映射快照直接还原 RcsTable。
+ * 快照头部记录源文件清单（路径、大小、修改时间），任一源文件变化都会使快照失效并重建。
+ * 快照带上写入时已加载的附加列；读取时只还原请求的列，缺少任一请求的列视为未命中。
+ *
+ * 文件布局（大端）：
+ * <pre>
+ * int magic, int version
+ * int 源文件数, 每个文件: int 路径字节数, 路径(UTF-8), long 大小, long 修改时间
+ * int 频率数, double[] 频率
+ * int 方向数, double[] 入射俯仰, double[] 入射方位
+ * int 切片数, int[] 频率下标, int[] 方向下标, int[] 行偏移(切片数 + 1)
+ * int 行数, long theta 列偏移, long phi 列偏移, long RCS 列偏移
+ * int 附加列数, 每列: int 列在 CST 文件中的位置, long 列偏移
+ * (对齐到 8 字节) double[] theta, double[] phi, double[] RCS, 各附加列 double[]
+ * long CRC32(之前所有字节)
+ * </pre>
+ */
+public class RcsSnapshotCache {
+    private static final int MAGIC = 0x52435331; // "RCS1"
+    private static final int VERSION = 2;
+
+    private final File snapshotFile;
+
+    public RcsSnapshotCache(File snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * 快照存在、完整且与源文件清单一致时返回只含 RCS 列的数据表，否则返回 null。
+     */
+    public RcsTable load(List<File> sourceFiles) {
+        return load(sourceFiles, Set.of(RcsTable.Column.RCS));
+    }
+
+    /**
+     * 快照存在、完整、与源文件清单一致且包含 columns 中的全部列时返回还原的数据表，否则返回 null。
+     * 快照中多出的列不会读入。
+     */
+    public RcsTable load(List<File> sourceFiles, Set<RcsTable.Column> columns) {
+        if (!snapshotFile.isFile()) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < 16 || length > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+
+            // 先校验尾部 CRC，避免读到写了一半的快照
+            ByteBuffer body = buffer.duplicate();
+            body.limit((int) length - 8);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if (crc.getValue() != buffer.getLong((int) length - 8)) {
+                return null;
+            }
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            if (!manifestMatches(buffer, sourceFiles)) {
+                return null;
+            }
+
+            double[] frequencies = readDoubles(buffer, buffer.getInt());
+            int directionCount = buffer.getInt();
+            double[] elevations = readDoubles(buffer, directionCount);
+            double[] azimuths = readDoubles(buffer, directionCount);
+
+            int sliceCount = buffer.getInt();
+            int[] sliceFrequencyIndices = readInts(buffer, sliceCount);
+            int[] sliceDirectionIndices = readInts(buffer, sliceCount);
+            int[] sliceOffsets = readInts(buffer, sliceCount + 1);
+
+            int rowCount = buffer.getInt();
+            double[] thetas = readColumn(buffer, buffer.getLong(), rowCount);
+            double[] phis = readColumn(buffer, buffer.getLong(), rowCount);
+            double[] rcsValues = readColumn(buffer, buffer.getLong(), rowCount);
+
+            double[][] extraColumns = new double[RcsTable.Column.values().length][];
+            int extraCount = buffer.getInt();
+            for (int i = 0; i < extraCount; i++) {
+                RcsTable.Column column = RcsTable.Column.fromFileIndex(buffer.getInt());
+                long offset = buffer.getLong();
+                if (columns.contains(column)) {
+                    extraColumns[column.ordinal()] = readColumn(buffer, offset, rowCount);
+                }
+            }
+            for (RcsTable.Column column : columns) {
+                if (column != RcsTable.Column.RCS && extraColumns[column.ordinal()] == null) {
+                    return null;
+                }
+            }
+
+            return new RcsTable(frequencies, elevations, azimuths,
+                    sliceFrequencyIndices, sliceDirectionIndices, sliceOffsets,
+                    thetas, phis, rcsValues, extraColumns);
+        } catch (IOException | RuntimeException e) {
+            // 快照损坏时视为未命中，由调用方重新解析文本
+            System.err.println("读取快照 " + snapshotFile.getName() + " 失败: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 写出快照，带上数据表已加载的全部列。先写临时文件再原子替换，写入失败不影响本次运行。
+     */
+    public void write(List<File> sourceFiles, RcsTable table) {
+        try {
+            byte[][] paths = new byte[sourceFiles.size()][];
+            int headerSize = 4 + 4 + 4;
+            for (int i = 0; i < paths.length; i++) {
+                paths[i] = sourceFiles.get(i).getPath().getBytes(StandardCharsets.UTF_8);
+                headerSize += 4 + paths[i].length + 8 + 8;
+            }
+            List<RcsTable.Column> extraColumns = new ArrayList<>(table.getColumns());
+            extraColumns.remove(RcsTable.Column.RCS);
+            int sliceCount = table.getSliceCount();
+            int directionCount = table.getDirectionCount();
+            headerSize += 4 + 8 * table.getFrequencies().length;
+            headerSize += 4 + 16 * directionCount;
+            headerSize += 4 + 4 * sliceCount * 3 + 4;
+            headerSize += 4 + 8 * 3;
+            headerSize += 4 + 12 * extraColumns.size();
+
+            long columnStart = align8(headerSize);
+            long columnBytes = 8L * table.size();
+            long totalSize = columnStart + columnBytes * (3 + extraColumns.size()) + 8;
+            if (totalSize > Integer.MAX_VALUE) {
+                System.err.println("数据量过大，跳过写入快照");
+                return;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) totalSize);
+            buffer.putInt(MAGIC).putInt(VERSION);
+
+            buffer.putInt(paths.length);
+            for (int i = 0; i < paths.length; i++) {
+                File source = sourceFiles.get(i);
+                buffer.putInt(paths[i].length).put(paths[i]);
+                buffer.putLong(source.length()).putLong(source.lastModified());
+            }
+
+            double[] frequencies = table.getFrequencies();
+            buffer.putInt(frequencies.length);
+            for (double frequency : frequencies) {
+                buffer.putDouble(frequency);
+            }
+            buffer.putInt(directionCount);
+            for (int d = 0; d < directionCount; d++) {
+                buffer.putDouble(table.getIncidentElevation(d));
+            }
+            for (int d = 0; d < directionCount; d++) {
+                buffer.putDouble(table.getIncidentAzimuth(d));
+            }
+
+            buffer.putInt(sliceCount);
+            for (int s = 0; s < sliceCount; s++) {
+                buffer.putInt(table.getSliceFrequencyIndex(s));
+            }
+            for (int s = 0; s < sliceCount; s++) {
+                buffer.putInt(table.getSliceDirectionIndex(s));
+            }
+            for (int s = 0; s < sliceCount; s++) {
+                buffer.putInt(table.getSliceStart(s));
+            }
+            buffer.putInt(sliceCount == 0 ? 0 : table.getSliceEnd(sliceCount - 1));
+
+            buffer.putInt(table.size());
+            buffer.putLong(columnStart).putLong(columnStart + columnBytes).putLong(columnStart + columnBytes * 2);
+            buffer.putInt(extraColumns.size());
+            for (int i = 0; i < extraColumns.size(); i++) {
+                buffer.putInt(extraColumns.get(i).getFileIndex()).putLong(columnStart + columnBytes * (3 + i));
+            }
+
+            buffer.position((int) columnStart);
+            for (int row = 0; row < table.size(); row++) {
+                buffer.putDouble(table.getTheta(row));
+            }
+            for (int row = 0; row < table.size(); row++) {
+                buffer.putDouble(table.getPhi(row));
+            }
+            for (int row = 0; row < table.size(); row++) {
+                buffer.putDouble(table.getRcsValue(row));
+            }
+            for (RcsTable.Column column : extraColumns) {
+                for (int row = 0; row < table.size(); row++) {
+                    buffer.putDouble(table.getValue(column, row));
+                }
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), 0, buffer.position());
+            buffer.putLong(crc.getValue());
+
+            File tempFile = new File(snapshotFile.getPath() + ".tmp");
+            Files.write(tempFile.toPath(), buffer.array());
+            Files.move(tempFile.toPath(), snapshotFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("写入快照 " + snapshotFile.getName() + " 失败: " + e.getMessage());
+        }
+    }
+
+    private static boolean manifestMatches(ByteBuffer buffer, List<File> sourceFiles) {
+        int fileCount = buffer.getInt();
+        if (fileCount != sourceFiles.size()) {
+            return false;
+        }
+        for (File source : sourceFiles) {
+            byte[] path = new byte[buffer.getInt()];
+            buffer.get(path);
+            long size = buffer.getLong();
+            long lastModified = buffer.getLong();
+            if (!source.getPath().equals(new String(path, StandardCharsets.UTF_8))
+                    || source.length() != size
+                    || source.lastModified() != lastModified) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double[] readDoubles(ByteBuffer buffer, int count) {
+        double[] values = new double[count];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + 8 * count);
+        return values;
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * count);
+        return values;
+    }
+
+    private static double[] readColumn(ByteBuffer buffer, long offset, int count) {
+        double[] values = new double[count];
+        buffer.duplicate().position((int) offset).asDoubleBuffer().get(values);
+        return values;
+    }
+
+    private static long align8(long position) {
+        return (position + 7) & ~7L;
+    }
+}
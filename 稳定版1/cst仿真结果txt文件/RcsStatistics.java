@@ -0,0 +1,291 @@
+import java.util.Arrays;
+
+/**
+ * 数据表的统计立方：每个切片、每个 (频率, 入射方向) 组合、每个频率（汇总全部入射方向）、每个入射方向（汇总全部频率）
+ * 以及全表的最小值、最大值、平均值、峰值方向和分位数。
+ * 切片统计只在构建时扫描一次样本，汇总统计由切片统计合并得到；之后的查询都不再扫描样本，
+ * 最值、平均值和峰值方向为 O(1)，分位数在固定分箱的累计直方图上二分查找。
+ */
+public class RcsStatistics {
+    // 分位数直方图：[-200, 100) dB，每箱 0.25 dB，超出范围的值计入两端的箱
+    private static final double HISTOGRAM_MIN = -200.0;
+    private static final double BIN_WIDTH = 0.25;
+    private static final int BIN_COUNT = 1200;
+
+    private static final Summary EMPTY = new Summary(0, Double.NaN, Double.NaN, 0.0, Double.NaN, Double.NaN,
+            new int[BIN_COUNT]);
+
+    private final int directionCount;
+    private final Summary[] slices;
+    private final Summary[] cells;
+    private final Summary[] frequencies;
+    private final Summary[] directions;
+    private final Summary total;
+
+    /**
+     * 一组样本的统计，不可变。
+     */
+    public static class Summary {
+        private final int count;
+        private final double min;
+        private final double max;
+        private final double sum;
+        private final double peakTheta;
+        private final double peakPhi;
+        // cumulative[i] 为落在前 i + 1 个箱中的样本数
+        private final int[] cumulative;
+
+        private Summary(int count, double min, double max, double sum, double peakTheta, double peakPhi,
+                        int[] cumulative) {
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.sum = sum;
+            this.peakTheta = peakTheta;
+            this.peakPhi = peakPhi;
+            this.cumulative = cumulative;
+        }
+
+        /**
+         * 扫描数据表中一个切片的样本，NaN 不参与统计。
+         */
+        static Summary ofSlice(RcsTable table, int slice) {
+            int count = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            double sum = 0.0;
+            int peakRow = -1;
+            int[] cumulative = new int[BIN_COUNT];
+            for (int row = table.getSliceStart(slice); row < table.getSliceEnd(slice); row++) {
+                double value = table.getRcsValue(row);
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                count++;
+                sum += value;
+                min = Math.min(min, value);
+                if (value > max) {
+                    max = value;
+                    peakRow = row;
+                }
+                cumulative[bin(value)]++;
+            }
+            if (count == 0) {
+                return EMPTY;
+            }
+            for (int i = 1; i < BIN_COUNT; i++) {
+                cumulative[i] += cumulative[i - 1];
+            }
+            return new Summary(count, min, max, sum, table.getTheta(peakRow), table.getPhi(peakRow), cumulative);
+        }
+
+        /**
+         * 合并多组统计，峰值方向取最大值所在的那一组（相同时取靠前的）。
+         */
+        static Summary merge(Summary[] parts) {
+            int count = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            double sum = 0.0;
+            Summary peak = null;
+            int[] cumulative = new int[BIN_COUNT];
+            for (Summary part : parts) {
+                if (part.count == 0) {
+                    continue;
+                }
+                count += part.count;
+                sum += part.sum;
+                min = Math.min(min, part.min);
+                if (part.max > max) {
+                    max = part.max;
+                    peak = part;
+                }
+                for (int i = 0; i < BIN_COUNT; i++) {
+                    cumulative[i] += part.cumulative[i];
+                }
+            }
+            if (count == 0) {
+                return EMPTY;
+            }
+            return new Summary(count, min, max, sum, peak.peakTheta, peak.peakPhi, cumulative);
+        }
+
+        public boolean isEmpty() {
+            return count == 0;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * 最小 RCS，没有样本时为 NaN。
+         */
+        public double getMin() {
+            return min;
+        }
+
+        /**
+         * 最大 RCS，没有样本时为 NaN。
+         */
+        public double getMax() {
+            return max;
+        }
+
+        /**
+         * dB 值的算术平均，没有样本时为 NaN。
+         */
+        public double getMean() {
+            return count == 0 ? Double.NaN : sum / count;
+        }
+
+        /**
+         * 最大 RCS 所在的观测俯仰角。
+         */
+        public double getPeakTheta() {
+            return peakTheta;
+        }
+
+        /**
+         * 最大 RCS 所在的观测方位角。
+         */
+        public double getPeakPhi() {
+            return peakPhi;
+        }
+
+        /**
+         * 分位数（fraction 取 0~1，0.5 为中位数），在所在分箱内线性插值，误差不超过一个分箱宽度 0.25 dB；
+         * 0 和 1 分别精确返回最小值和最大值。没有样本时为 NaN。
+         */
+        public double percentile(double fraction) {
+            if (count == 0) {
+                return Double.NaN;
+            }
+            if (fraction <= 0) {
+                return min;
+            }
+            if (fraction >= 1) {
+                return max;
+            }
+            double rank = fraction * count;
+            // 第一个累计数不小于 rank 的箱
+            int low = 0;
+            int high = BIN_COUNT - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < rank) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int before = low > 0 ? cumulative[low - 1] : 0;
+            int inBin = cumulative[low] - before;
+            double position = inBin > 0 ? (rank - before) / inBin : 0.0;
+            double value = HISTOGRAM_MIN + (low + position) * BIN_WIDTH;
+            return Math.max(min, Math.min(max, value));
+        }
+    }
+
+    private RcsStatistics(int directionCount, Summary[] slices, Summary[] cells, Summary[] frequencies,
+                          Summary[] directions, Summary total) {
+        this.directionCount = directionCount;
+        this.slices = slices;
+        this.cells = cells;
+        this.frequencies = frequencies;
+        this.directions = directions;
+        this.total = total;
+    }
+
+    /**
+     * 为数据表构建统计立方。knownSlices 中非 null 的切片统计直接沿用（重载时未变化的切片），其余切片扫描样本。
+     */
+    static RcsStatistics of(RcsTable table, Summary[] knownSlices) {
+        int sliceCount = table.getSliceCount();
+        int frequencyCount = table.getFrequencies().length;
+        int directionCount = table.getDirectionCount();
+
+        Summary[] slices = new Summary[sliceCount];
+        for (int s = 0; s < sliceCount; s++) {
+            Summary known = knownSlices != null && s < knownSlices.length ? knownSlices[s] : null;
+            slices[s] = known != null ? known : Summary.ofSlice(table, s);
+        }
+
+        // 同一 (频率, 入射方向) 通常只有一个切片，有多个时合并
+        Summary[][] cellParts = new Summary[frequencyCount * directionCount][];
+        Summary[][] frequencyParts = new Summary[frequencyCount][];
+        Summary[][] directionParts = new Summary[directionCount][];
+        for (int s = 0; s < sliceCount; s++) {
+            int f = table.getSliceFrequencyIndex(s);
+            int d = table.getSliceDirectionIndex(s);
+            cellParts[f * directionCount + d] = append(cellParts[f * directionCount + d], slices[s]);
+            frequencyParts[f] = append(frequencyParts[f], slices[s]);
+            directionParts[d] = append(directionParts[d], slices[s]);
+        }
+
+        Summary[] cells = new Summary[cellParts.length];
+        for (int i = 0; i < cells.length; i++) {
+            Summary[] parts = cellParts[i];
+            cells[i] = parts == null ? EMPTY : parts.length == 1 ? parts[0] : Summary.merge(parts);
+        }
+        return new RcsStatistics(directionCount, slices, cells, mergeEach(frequencyParts), mergeEach(directionParts),
+                Summary.merge(slices));
+    }
+
+    private static Summary[] append(Summary[] parts, Summary summary) {
+        if (parts == null) {
+            return new Summary[]{summary};
+        }
+        Summary[] grown = Arrays.copyOf(parts, parts.length + 1);
+        grown[parts.length] = summary;
+        return grown;
+    }
+
+    private static Summary[] mergeEach(Summary[][] parts) {
+        Summary[] merged = new Summary[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            merged[i] = parts[i] == null ? EMPTY : Summary.merge(parts[i]);
+        }
+        return merged;
+    }
+
+    private static int bin(double value) {
+        int bin = (int) Math.floor((value - HISTOGRAM_MIN) / BIN_WIDTH);
+        return Math.max(0, Math.min(BIN_COUNT - 1, bin));
+    }
+
+    /**
+     * 切片 slice 的统计（与 RcsTable 的切片序号一致）。
+     */
+    public Summary getSlice(int slice) {
+        return slices[slice];
+    }
+
+    /**
+     * 频率字典第 frequencyIndex 个频率、入射方向字典第 directionIndex 个方向的统计，没有数据时为空统计。
+     */
+    public Summary getCell(int frequencyIndex, int directionIndex) {
+        return cells[frequencyIndex * directionCount + directionIndex];
+    }
+
+    /**
+     * 一个频率下全部入射方向的汇总统计。
+     */
+    public Summary getFrequency(int frequencyIndex) {
+        return frequencies[frequencyIndex];
+    }
+
+    /**
+     * 一个入射方向下全部频率的汇总统计。
+     */
+    public Summary getDirection(int directionIndex) {
+        return directions[directionIndex];
+    }
+
+    /**
+     * 全表统计。
+     */
+    public Summary getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,516 @@
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 列式存储的 RCS 数据表。
+ * 每个样本只占 theta/phi/RCS 三个 double，频率与入射方向做字典编码后挂在切片上：
+ * 同一文件（同一频率、同一入射方向）的样本在列中连续存放，构成一个切片。
+ * 行号与读取顺序一致，和原来 List&lt;RCSData&gt; 的下标一一对应。
+ * 除 RCS 外，CST 文件中的极化分量、相位和轴比列按需加载，每列单独存成一个 double 数组，未加载的列不占内存。
+ */
+public class RcsTable {
+    private static final Column[] COLUMNS = Column.values();
+
+    /**
+     * CST 导出文件中 theta/phi 之后的数值列，fileIndex 为该列在一行中的位置（从 0 开始）。
+     */
+    public enum Column {
+        RCS(2, false),
+        ABS_THETA(3, false),
+        PHASE_THETA(4, true),
+        ABS_PHI(5, false),
+        PHASE_PHI(6, true),
+        AXIAL_RATIO(7, false);
+
+        private final int fileIndex;
+        private final boolean phase;
+
+        Column(int fileIndex, boolean phase) {
+            this.fileIndex = fileIndex;
+            this.phase = phase;
+        }
+
+        public int getFileIndex() {
+            return fileIndex;
+        }
+
+        /**
+         * 是否为相位列（度），相位不能直接线性插值。
+         */
+        public boolean isPhase() {
+            return phase;
+        }
+
+        public static Column fromFileIndex(int fileIndex) {
+            for (Column column : COLUMNS) {
+                if (column.fileIndex == fileIndex) {
+                    return column;
+                }
+            }
+            throw new IllegalArgumentException("未知的列位置: " + fileIndex);
+        }
+
+        /**
+         * 解析逗号分隔的列名（不区分大小写，如 abs_theta,phase_theta），"all" 表示全部列。
+         * 结果总是包含 RCS；空串返回只含 RCS 的集合。
+         */
+        public static Set<Column> parseList(String text) {
+            Set<Column> columns = EnumSet.of(RCS);
+            if (text == null || text.trim().isEmpty()) {
+                return columns;
+            }
+            for (String name : text.split(",")) {
+                String trimmed = name.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                if ("all".equalsIgnoreCase(trimmed)) {
+                    return EnumSet.allOf(Column.class);
+                }
+                try {
+                    columns.add(valueOf(trimmed.toUpperCase(Locale.ROOT).replace('-', '_')));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("未知的列: " + trimmed);
+                }
+            }
+            return columns;
+        }
+    }
+
+    // 频率字典（升序、去重）
+    private final double[] frequencies;
+    // 入射方向字典（按首次出现的顺序）
+    private final double[] incidentElevations;
+    private final double[] incidentAzimuths;
+
+    // 切片表：切片 s 覆盖行 [sliceOffsets[s], sliceOffsets[s + 1])
+    private final int[] sliceFrequencyIndices;
+    private final int[] sliceDirectionIndices;
+    private final int[] sliceOffsets;
+
+    // 样本列
+    private final double[] thetas;
+    private final double[] phis;
+    private final double[] rcsValues;
+    // 按 Column 序号存放的附加列，未加载的列为 null（RCS 只存在 rcsValues 中）
+    private final double[][] extraColumns;
+
+    // 统计立方在第一次使用时构建；knownSliceStatistics 是构建时可直接沿用的切片统计（可为 null）
+    private final RcsStatistics.Summary[] knownSliceStatistics;
+    private volatile RcsStatistics statistics;
+
+    RcsTable(double[] frequencies, double[] incidentElevations, double[] incidentAzimuths,
+             int[] sliceFrequencyIndices, int[] sliceDirectionIndices, int[] sliceOffsets,
+             double[] thetas, double[] phis, double[] rcsValues) {
+        this(frequencies, incidentElevations, incidentAzimuths, sliceFrequencyIndices, sliceDirectionIndices,
+                sliceOffsets, thetas, phis, rcsValues, new double[COLUMNS.length][], null);
+    }
+
+    /**
+     * @param extraColumns 按 Column 序号存放的附加列，未加载的列为 null
+     */
+    RcsTable(double[] frequencies, double[] incidentElevations, double[] incidentAzimuths,
+             int[] sliceFrequencyIndices, int[] sliceDirectionIndices, int[] sliceOffsets,
+             double[] thetas, double[] phis, double[] rcsValues, double[][] extraColumns) {
+        this(frequencies, incidentElevations, incidentAzimuths, sliceFrequencyIndices, sliceDirectionIndices,
+                sliceOffsets, thetas, phis, rcsValues, extraColumns, null);
+    }
+
+    private RcsTable(double[] frequencies, double[] incidentElevations, double[] incidentAzimuths,
+                     int[] sliceFrequencyIndices, int[] sliceDirectionIndices, int[] sliceOffsets,
+                     double[] thetas, double[] phis, double[] rcsValues, double[][] extraColumns,
+                     RcsStatistics.Summary[] knownSliceStatistics) {
+        this.frequencies = frequencies;
+        this.incidentElevations = incidentElevations;
+        this.incidentAzimuths = incidentAzimuths;
+        this.sliceFrequencyIndices = sliceFrequencyIndices;
+        this.sliceDirectionIndices = sliceDirectionIndices;
+        this.sliceOffsets = sliceOffsets;
+        this.thetas = thetas;
+        this.phis = phis;
+        this.rcsValues = rcsValues;
+        this.extraColumns = extraColumns;
+        this.knownSliceStatistics = knownSliceStatistics;
+    }
+
+    /**
+     * 由旧的对象列表构造，连续且频率、入射方向相同的样本归入同一切片。
+     */
+    public static RcsTable fromList(List<RCSData> rcsDataList) {
+        Builder builder = new Builder();
+        RCSData previous = null;
+        for (RCSData data : rcsDataList) {
+            if (previous == null
+                    || previous.getFrequency() != data.getFrequency()
+                    || previous.getIncidentElevation() != data.getIncidentElevation()
+                    || previous.getIncidentAzimuth() != data.getIncidentAzimuth()) {
+                builder.beginSlice(data.getFrequency(), data.getIncidentElevation(), data.getIncidentAzimuth());
+            }
+            builder.add(data.getTheta(), data.getPhi(), data.getRcsValue());
+            previous = data;
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return thetas.length;
+    }
+
+    public boolean isEmpty() {
+        return thetas.length == 0;
+    }
+
+    public double getTheta(int row) {
+        return thetas[row];
+    }
+
+    public double getPhi(int row) {
+        return phis[row];
+    }
+
+    public double getRcsValue(int row) {
+        return rcsValues[row];
+    }
+
+    /**
+     * 是否加载了该列，RCS 总是加载的。
+     */
+    public boolean hasColumn(Column column) {
+        return column == Column.RCS || extraColumns[column.ordinal()] != null;
+    }
+
+    /**
+     * 已加载的列，总是包含 RCS。
+     */
+    public Set<Column> getColumns() {
+        Set<Column> columns = EnumSet.of(Column.RCS);
+        for (Column column : COLUMNS) {
+            if (extraColumns[column.ordinal()] != null) {
+                columns.add(column);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * 任一已加载列的值；该列在源文件中缺失或无法解析的行为 NaN。
+     */
+    public double getValue(Column column, int row) {
+        if (column == Column.RCS) {
+            return rcsValues[row];
+        }
+        double[] values = extraColumns[column.ordinal()];
+        if (values == null) {
+            throw new IllegalStateException("未加载列: " + column);
+        }
+        return values[row];
+    }
+
+    /**
+     * 按需把一行还原成对象，便于调试输出；批量访问请直接使用列访问方法。
+     */
+    public RCSData getRow(int row) {
+        int slice = findSlice(row);
+        return new RCSData(getSliceFrequency(slice), getSliceIncidentElevation(slice), getSliceIncidentAzimuth(slice),
+                thetas[row], phis[row], rcsValues[row]);
+    }
+
+    /**
+     * 升序去重后的频率字典，调用方不得修改返回的数组。
+     */
+    public double[] getFrequencies() {
+        return frequencies;
+    }
+
+    public int getDirectionCount() {
+        return incidentElevations.length;
+    }
+
+    public double getIncidentElevation(int direction) {
+        return incidentElevations[direction];
+    }
+
+    public double getIncidentAzimuth(int direction) {
+        return incidentAzimuths[direction];
+    }
+
+    public int getSliceCount() {
+        return sliceFrequencyIndices.length;
+    }
+
+    public int getSliceFrequencyIndex(int slice) {
+        return sliceFrequencyIndices[slice];
+    }
+
+    public int getSliceDirectionIndex(int slice) {
+        return sliceDirectionIndices[slice];
+    }
+
+    public double getSliceFrequency(int slice) {
+        return frequencies[sliceFrequencyIndices[slice]];
+    }
+
+    public double getSliceIncidentElevation(int slice) {
+        return incidentElevations[sliceDirectionIndices[slice]];
+    }
+
+    public double getSliceIncidentAzimuth(int slice) {
+        return incidentAzimuths[sliceDirectionIndices[slice]];
+    }
+
+    public int getSliceStart(int slice) {
+        return sliceOffsets[slice];
+    }
+
+    public int getSliceEnd(int slice) {
+        return sliceOffsets[slice + 1];
+    }
+
+    /**
+     * 各切片及各汇总轴的统计。第一次调用时扫描样本构建（重载时未变化的切片沿用旧表的统计），之后直接返回。
+     */
+    public RcsStatistics getStatistics() {
+        RcsStatistics result = statistics;
+        if (result == null) {
+            synchronized (this) {
+                result = statistics;
+                if (result == null) {
+                    result = RcsStatistics.of(this, knownSliceStatistics);
+                    statistics = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private int findSlice(int row) {
+        if (row < 0 || row >= thetas.length) {
+            throw new IndexOutOfBoundsException("行号越界: " + row);
+        }
+        // 找最后一个起始行不大于 row 的切片（跳过空切片）
+        int low = 0;
+        int high = sliceFrequencyIndices.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (sliceOffsets[mid] <= row) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 按切片顺序追加样本的构建器，列数组按需倍增扩容。
+     */
+    public static class Builder {
+        private final Set<Double> frequencySet = new HashSet<>();
+        private final Map<List<Double>, Integer> directionIndices = new HashMap<>();
+        private double[] elevationValues = new double[8];
+        private double[] azimuthValues = new double[8];
+        private int directionCount;
+
+        private double[] sliceFrequencies = new double[16];
+        private int[] sliceDirections = new int[16];
+        private int[] offsets = new int[17];
+        private int sliceCount;
+        // 整个切片由 addSliceOf 从已有统计的表复制而来时，记下来源的切片统计
+        private RcsStatistics.Summary[] sliceStatistics = new RcsStatistics.Summary[16];
+
+        private double[] thetaColumn = new double[1024];
+        private double[] phiColumn = new double[1024];
+        private double[] rcsColumn = new double[1024];
+        // 按 Column 序号存放的附加列，不加载的列为 null
+        private final double[][] extraColumns = new double[COLUMNS.length][];
+        private int rowCount;
+
+        public Builder() {
+        }
+
+        /**
+         * @param columns 除 RCS 外还要存放的列
+         */
+        public Builder(Set<Column> columns) {
+            for (Column column : columns) {
+                if (column != Column.RCS) {
+                    extraColumns[column.ordinal()] = new double[thetaColumn.length];
+                }
+            }
+        }
+
+        /**
+         * 开始一个新的切片，之后 add 的样本都属于该切片。
+         */
+        public Builder beginSlice(double frequency, double incidentElevation, double incidentAzimuth) {
+            if (sliceCount == sliceFrequencies.length) {
+                sliceFrequencies = Arrays.copyOf(sliceFrequencies, sliceCount * 2);
+                sliceDirections = Arrays.copyOf(sliceDirections, sliceCount * 2);
+                offsets = Arrays.copyOf(offsets, sliceCount * 2 + 1);
+                sliceStatistics = Arrays.copyOf(sliceStatistics, sliceCount * 2);
+            }
+            frequencySet.add(frequency);
+            sliceFrequencies[sliceCount] = frequency;
+            sliceDirections[sliceCount] = registerDirection(incidentElevation, incidentAzimuth);
+            sliceCount++;
+            offsets[sliceCount] = rowCount;
+            return this;
+        }
+
+        public Builder add(double theta, double phi, double rcsValue) {
+            if (sliceCount == 0) {
+                throw new IllegalStateException("添加样本前必须先调用 beginSlice");
+            }
+            if (rowCount == thetaColumn.length) {
+                grow(rowCount * 2);
+            }
+            thetaColumn[rowCount] = theta;
+            phiColumn[rowCount] = phi;
+            rcsColumn[rowCount] = rcsValue;
+            for (double[] values : extraColumns) {
+                if (values != null) {
+                    values[rowCount] = Double.NaN;
+                }
+            }
+            rowCount++;
+            sliceStatistics[sliceCount - 1] = null;
+            offsets[sliceCount] = rowCount;
+            return this;
+        }
+
+        /**
+         * 批量追加 count 个样本到当前切片，附加列记为 NaN。
+         */
+        public Builder addAll(double[] thetas, double[] phis, double[] rcsValues, int count) {
+            int from = rowCount;
+            append(thetas, phis, rcsValues, 0, count);
+            for (double[] values : extraColumns) {
+                if (values != null) {
+                    Arrays.fill(values, from, rowCount, Double.NaN);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 把一个文件解析出的样本追加到当前切片，解析时没有投影的附加列记为 NaN。
+         */
+        public Builder addAll(CstTextParser.Columns columns) {
+            int from = rowCount;
+            append(columns.getThetas(), columns.getPhis(), columns.getRcsValues(), 0, columns.size());
+            copyExtraColumns(from, columns::getColumn, 0, columns.size());
+            return this;
+        }
+
+        /**
+         * 把另一张数据表中一个切片的全部样本追加到当前切片，用于重载时复用未变化的文件。
+         */
+        public Builder addSliceOf(RcsTable source, int slice) {
+            boolean wholeSlice = sliceCount > 0 && offsets[sliceCount - 1] == rowCount;
+            int start = source.sliceOffsets[slice];
+            int from = rowCount;
+            int count = source.sliceOffsets[slice + 1] - start;
+            append(source.thetas, source.phis, source.rcsValues, start, count);
+            copyExtraColumns(from, column -> source.extraColumns[column.ordinal()], start, count);
+            RcsStatistics sourceStatistics = source.statistics;
+            if (wholeSlice && sourceStatistics != null) {
+                sliceStatistics[sliceCount - 1] = sourceStatistics.getSlice(slice);
+            }
+            return this;
+        }
+
+        private Builder append(double[] thetas, double[] phis, double[] rcsValues, int from, int count) {
+            if (sliceCount == 0) {
+                throw new IllegalStateException("添加样本前必须先调用 beginSlice");
+            }
+            if (rowCount + count > thetaColumn.length) {
+                grow(Math.max(thetaColumn.length * 2, rowCount + count));
+            }
+            System.arraycopy(thetas, from, thetaColumn, rowCount, count);
+            System.arraycopy(phis, from, phiColumn, rowCount, count);
+            System.arraycopy(rcsValues, from, rcsColumn, rowCount, count);
+            rowCount += count;
+            offsets[sliceCount] = rowCount;
+            sliceStatistics[sliceCount - 1] = null;
+            return this;
+        }
+
+        /**
+         * 把 source 中各附加列的 [start, start + count) 复制到本构建器的 [to, to + count)，来源没有的列记为 NaN。
+         */
+        private void copyExtraColumns(int to, Function<Column, double[]> source, int start, int count) {
+            for (Column column : COLUMNS) {
+                double[] values = extraColumns[column.ordinal()];
+                if (values == null) {
+                    continue;
+                }
+                double[] sourceValues = column == Column.RCS ? null : source.apply(column);
+                if (sourceValues != null) {
+                    System.arraycopy(sourceValues, start, values, to, count);
+                } else {
+                    Arrays.fill(values, to, to + count, Double.NaN);
+                }
+            }
+        }
+
+        private void grow(int capacity) {
+            thetaColumn = Arrays.copyOf(thetaColumn, capacity);
+            phiColumn = Arrays.copyOf(phiColumn, capacity);
+            rcsColumn = Arrays.copyOf(rcsColumn, capacity);
+            for (int c = 0; c < extraColumns.length; c++) {
+                if (extraColumns[c] != null) {
+                    extraColumns[c] = Arrays.copyOf(extraColumns[c], capacity);
+                }
+            }
+        }
+
+        public RcsTable build() {
+            double[] sortedFrequencies = frequencySet.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+
+            int[] frequencyIndices = new int[sliceCount];
+            for (int s = 0; s < sliceCount; s++) {
+                frequencyIndices[s] = Arrays.binarySearch(sortedFrequencies, sliceFrequencies[s]);
+            }
+            double[][] builtColumns = new double[COLUMNS.length][];
+            for (int c = 0; c < extraColumns.length; c++) {
+                if (extraColumns[c] != null) {
+                    builtColumns[c] = Arrays.copyOf(extraColumns[c], rowCount);
+                }
+            }
+
+            return new RcsTable(
+                    sortedFrequencies,
+                    Arrays.copyOf(elevationValues, directionCount),
+                    Arrays.copyOf(azimuthValues, directionCount),
+                    frequencyIndices,
+                    Arrays.copyOf(sliceDirections, sliceCount),
+                    Arrays.copyOf(offsets, sliceCount + 1),
+                    Arrays.copyOf(thetaColumn, rowCount),
+                    Arrays.copyOf(phiColumn, rowCount),
+                    Arrays.copyOf(rcsColumn, rowCount),
+                    builtColumns,
+                    Arrays.copyOf(sliceStatistics, sliceCount));
+        }
+
+        private int registerDirection(double incidentElevation, double incidentAzimuth) {
+            Integer existing = directionIndices.putIfAbsent(List.of(incidentElevation, incidentAzimuth), directionCount);
+            if (existing != null) {
+                return existing;
+            }
+            if (directionCount == elevationValues.length) {
+                elevationValues = Arrays.copyOf(elevationValues, directionCount * 2);
+                azimuthValues = Arrays.copyOf(azimuthValues, directionCount * 2);
+            }
+            elevationValues[directionCount] = incidentElevation;
+            azimuthValues[directionCount] = incidentAzimuth;
+            return directionCount++;
+        }
+    }
+}
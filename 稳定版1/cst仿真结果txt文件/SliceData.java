@@ -0,0 +1,37 @@
+/**
+ * 一个 (频率, 入射方向) 切片的样本及其观测角网格，网格返回的行号指向 rcsTable 的行。
+ */
+public class SliceData {
+    // 按每行样本三列 double、网格下标与排序副本估算的常驻字节数，每个附加列再加 8 字节
+    private static final long BYTES_PER_ROW = 48;
+    private static final long BYTES_PER_EXTRA_COLUMN = 8;
+    private static final long FIXED_BYTES = 512;
+
+    private final RcsTable rcsTable;
+    private final ObservationGrid grid;
+
+    public SliceData(RcsTable rcsTable, ObservationGrid grid) {
+        this.rcsTable = rcsTable;
+        this.grid = grid;
+    }
+
+    public RcsTable getRcsTable() {
+        return rcsTable;
+    }
+
+    public ObservationGrid getGrid() {
+        return grid;
+    }
+
+    public boolean isEmpty() {
+        return rcsTable.isEmpty();
+    }
+
+    /**
+     * 常驻内存的估算值，用于懒加载时的内存上限。
+     */
+    public long estimatedBytes() {
+        long bytesPerRow = BYTES_PER_ROW + BYTES_PER_EXTRA_COLUMN * (rcsTable.getColumns().size() - 1);
+        return FIXED_BYTES + bytesPerRow * rcsTable.size();
+    }
+}
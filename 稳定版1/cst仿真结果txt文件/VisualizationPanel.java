@@ -1,30 +1,86 @@
 import javax.swing.*;
+import javax.swing.event.ChangeEvent;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class VisualizationPanel extends JPanel implements ActionListener {
+    private static final long serialVersionUID = 1L;
+
+    // 滑块以 0.1 为一格
+    private static final int SLIDER_SCALE = 10;
+
     private JTextField frequencyField;
     private JTextField incidentElevationField;
     private JTextField incidentAzimuthField;
     private JTextField observationElevationField;
     private JTextField observationAzimuthField;
+    private JSlider frequencySlider;
+    private JSlider incidentElevationSlider;
+    private JSlider incidentAzimuthSlider;
+    private JSlider observationElevationSlider;
+    private JSlider observationAzimuthSlider;
     private JButton calculateButton;
+    private JCheckBox bilinearCheckBox;
+    private JCheckBox sphericalCheckBox;
     private JLabel resultLabel;
-    private List<RCSData> rcsDataList;
+    private RcsTable rcsTable;
     private InterpolationEngine interpolationEngine;
-    private JPanel drawingPanel;
+    private RcsCanvas drawingPanel;
+    private RcsPatternView patternView;
+    private RcsCutPlot cutPlot;
     private double currentFrequency = 10.0;
     private double currentIncidentElevation = 0.0;
     private double currentIncidentAzimuth = 0.0;
     private double currentObservationElevation = 0.0;
     private double currentObservationAzimuth = 0.0;
     private double currentRCS = 0.0;
+    // 当前频率和入射方向对应切片的 RCS 范围，由后台任务算好，绘制叠加层时直接使用
+    private double currentMinRCS = Double.NaN;
+    private double currentMaxRCS = Double.NaN;
     private boolean hasCalculated = false;
 
-    public VisualizationPanel(List<RCSData> rcsDataList, InterpolationEngine interpolationEngine) {
-        this.rcsDataList = rcsDataList;
+    // 插值计算在后台线程执行；新请求到达时取消尚未开始的旧请求，已在执行的旧结果按序号丢弃
+    private final ExecutorService queryExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rcs-query");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> pendingQuery;
+    private long querySequence;
+    // 由程序同步文本框和滑块时不触发新的计算
+    private boolean synchronizingControls;
+
+    /**
+     * 一次查询的参数（角度已周期化）及其结果。
+     */
+    private static class QueryResult {
+        final double frequency;
+        final double incidentElevation;
+        final double incidentAzimuth;
+        final double observationElevation;
+        final double observationAzimuth;
+        double rcs;
+        double minRCS = Double.POSITIVE_INFINITY;
+        double maxRCS = Double.NEGATIVE_INFINITY;
+
+        QueryResult(double frequency, double incidentElevation, double incidentAzimuth,
+                    double observationElevation, double observationAzimuth) {
+            this.frequency = frequency;
+            this.incidentElevation = incidentElevation;
+            this.incidentAzimuth = incidentAzimuth;
+            this.observationElevation = observationElevation;
+            this.observationAzimuth = observationAzimuth;
+        }
+    }
+
+    public VisualizationPanel(RcsTable rcsTable, InterpolationEngine interpolationEngine) {
+        this.rcsTable = rcsTable;
         this.interpolationEngine = interpolationEngine;
         initializeUI();
     }
@@ -39,148 +95,423 @@ public class VisualizationPanel extends JPanel implements ActionListener {
         GridBagConstraints gbc = new GridBagConstraints();
         controlPanel.setBorder(BorderFactory.createTitledBorder("参数设置"));
 
-        // 设置频率输入
-        gbc.gridx = 0;
-        gbc.gridy = 0;
-        gbc.anchor = GridBagConstraints.EAST;
-        controlPanel.add(new JLabel("频率 (MHz):"), gbc);
-        gbc.gridx = 1;
-        gbc.anchor = GridBagConstraints.WEST;
+        // 每个参数一行：标签、输入框、滑块；拖动滑块时连续更新结果
+        double[] frequencies = rcsTable.getFrequencies();
+        double minFrequency = frequencies.length > 0 ? frequencies[0] : 0.0;
+        double maxFrequency = frequencies.length > 0 ? frequencies[frequencies.length - 1] : 100.0;
+
         frequencyField = new JTextField("10.0", 10);
-        controlPanel.add(frequencyField, gbc);
+        frequencySlider = createSlider(minFrequency, Math.max(maxFrequency, minFrequency + 1), 10.0);
+        addParameterRow(controlPanel, gbc, 0, "频率 (MHz):", frequencyField, frequencySlider);
 
-        // 设置入射俯仰角输入
-        gbc.gridx = 2;
-        gbc.anchor = GridBagConstraints.EAST;
-        controlPanel.add(new JLabel("入射俯仰角 (度):"), gbc);
-        gbc.gridx = 3;
-        gbc.anchor = GridBagConstraints.WEST;
         incidentElevationField = new JTextField("0.0", 10);
-        controlPanel.add(incidentElevationField, gbc);
+        incidentElevationSlider = createSlider(0, 360, 0.0);
+        addParameterRow(controlPanel, gbc, 1, "入射俯仰角 (度):", incidentElevationField, incidentElevationSlider);
 
-        // 设置入射方位角输入
-        gbc.gridx = 0;
-        gbc.gridy = 1;
-        gbc.anchor = GridBagConstraints.EAST;
-        controlPanel.add(new JLabel("入射方位角 (度):"), gbc);
-        gbc.gridx = 1;
-        gbc.anchor = GridBagConstraints.WEST;
         incidentAzimuthField = new JTextField("0.0", 10);
-        controlPanel.add(incidentAzimuthField, gbc);
+        incidentAzimuthSlider = createSlider(0, 360, 0.0);
+        addParameterRow(controlPanel, gbc, 2, "入射方位角 (度):", incidentAzimuthField, incidentAzimuthSlider);
 
-        // 设置观测俯仰角输入
-        gbc.gridx = 2;
-        gbc.gridy = 1;
-        gbc.anchor = GridBagConstraints.EAST;
-        controlPanel.add(new JLabel("观测俯仰角 (度):"), gbc);
-        gbc.gridx = 3;
-        gbc.anchor = GridBagConstraints.WEST;
         observationElevationField = new JTextField("0.0", 10);
-        controlPanel.add(observationElevationField, gbc);
+        observationElevationSlider = createSlider(0, 360, 0.0);
+        addParameterRow(controlPanel, gbc, 3, "观测俯仰角 (度):", observationElevationField, observationElevationSlider);
 
-        // 设置观测方位角输入
-        gbc.gridx = 0;
-        gbc.gridy = 2;
-        gbc.anchor = GridBagConstraints.EAST;
-        controlPanel.add(new JLabel("观测方位角 (度):"), gbc);
-        gbc.gridx = 1;
-        gbc.anchor = GridBagConstraints.WEST;
         observationAzimuthField = new JTextField("0.0", 10);
-        controlPanel.add(observationAzimuthField, gbc);
+        observationAzimuthSlider = createSlider(0, 360, 0.0);
+        addParameterRow(controlPanel, gbc, 4, "观测方位角 (度):", observationAzimuthField, observationAzimuthSlider);
 
         // 设置计算按钮
-        gbc.gridx = 2;
-        gbc.gridy = 2;
-        gbc.gridwidth = 2;
-        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.gridx = 0;
+        gbc.gridy = 5;
+        gbc.gridwidth = 3;
+        gbc.weightx = 0;
+        gbc.anchor = GridBagConstraints.CENTER;
+        gbc.fill = GridBagConstraints.NONE;
         calculateButton = new JButton("计算RCS");
         calculateButton.addActionListener(this);
         controlPanel.add(calculateButton, gbc);
 
         // 设置结果标签
-        gbc.gridx = 0;
-        gbc.gridy = 3;
-        gbc.gridwidth = 4;
+        gbc.gridy = 6;
         gbc.fill = GridBagConstraints.HORIZONTAL;
-        resultLabel = new JLabel("请输入参数并点击计算按钮", JLabel.CENTER);
+        resultLabel = new JLabel("请输入参数并点击计算按钮，或拖动滑块", JLabel.CENTER);
         resultLabel.setFont(new Font("Arial", Font.BOLD, 14));
         controlPanel.add(resultLabel, gbc);
 
+        // 观测角取值方式：默认取最近采样点，勾选后在相邻采样点间双线性插值
+        gbc.gridy = 7;
+        bilinearCheckBox = new JCheckBox("观测角双线性插值",
+                interpolationEngine.getObservationMode() == InterpolationEngine.ObservationMode.BILINEAR);
+        bilinearCheckBox.setHorizontalAlignment(SwingConstants.CENTER);
+        bilinearCheckBox.addActionListener(this);
+        controlPanel.add(bilinearCheckBox, gbc);
+
+        // 入射方向插值方式：默认在入射角网格上插值，勾选后取球面上最近的实测方向加权
+        gbc.gridy = 8;
+        sphericalCheckBox = new JCheckBox("入射方向球面插值",
+                interpolationEngine.getIncidentMode() == InterpolationEngine.IncidentMode.SPHERICAL);
+        sphericalCheckBox.setHorizontalAlignment(SwingConstants.CENTER);
+        sphericalCheckBox.addActionListener(this);
+        controlPanel.add(sphericalCheckBox, gbc);
+
         add(controlPanel, BorderLayout.NORTH);
 
         // 绘制区域与控制面板分离，避免控件遮挡图形
         drawingPanel = new RcsCanvas();
         drawingPanel.setBackground(Color.WHITE);
-        add(drawingPanel, BorderLayout.CENTER);
+
+        // 三维方向图只在切换到该页时才构建网格
+        patternView = new RcsPatternView(rcsTable, interpolationEngine);
+        cutPlot = new RcsCutPlot(rcsTable, interpolationEngine);
+        JTabbedPane views = new JTabbedPane();
+        views.addTab("极坐标图", drawingPanel);
+        views.addTab("三维方向图", patternView);
+        views.addTab("方向图切面", cutPlot);
+        add(views, BorderLayout.CENTER);
+    }
+
+    private JSlider createSlider(double min, double max, double value) {
+        int sliderMin = (int) Math.floor(min * SLIDER_SCALE);
+        int sliderMax = (int) Math.ceil(max * SLIDER_SCALE);
+        int sliderValue = (int) Math.round(Math.max(min, Math.min(max, value)) * SLIDER_SCALE);
+        JSlider slider = new JSlider(sliderMin, sliderMax, sliderValue);
+        slider.addChangeListener(this::sliderChanged);
+        return slider;
+    }
+
+    /**
+     * 数据分批到达时频率范围会扩大，按当前数据表调整频率滑块的范围。
+     */
+    private void updateFrequencyRange() {
+        double[] frequencies = rcsTable.getFrequencies();
+        if (frequencies.length == 0) {
+            return;
+        }
+        double minFrequency = frequencies[0];
+        double maxFrequency = Math.max(frequencies[frequencies.length - 1], minFrequency + 1);
+        synchronizingControls = true;
+        try {
+            frequencySlider.setMinimum((int) Math.floor(minFrequency * SLIDER_SCALE));
+            frequencySlider.setMaximum((int) Math.ceil(maxFrequency * SLIDER_SCALE));
+            setSliderValue(frequencySlider, frequencyField);
+        } finally {
+            synchronizingControls = false;
+        }
+    }
+
+    private void addParameterRow(JPanel controlPanel, GridBagConstraints gbc, int row,
+                                 String label, JTextField field, JSlider slider) {
+        gbc.gridy = row;
+        gbc.gridwidth = 1;
+
+        gbc.gridx = 0;
+        gbc.weightx = 0;
+        gbc.fill = GridBagConstraints.NONE;
+        gbc.anchor = GridBagConstraints.EAST;
+        controlPanel.add(new JLabel(label), gbc);
+
+        gbc.gridx = 1;
+        gbc.anchor = GridBagConstraints.WEST;
+        field.addActionListener(this);
+        controlPanel.add(field, gbc);
+
+        gbc.gridx = 2;
+        gbc.weightx = 1;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        controlPanel.add(slider, gbc);
     }
 
     @Override
     public void actionPerformed(ActionEvent e) {
-        if (e.getSource() == calculateButton) {
+        Object source = e.getSource();
+        if (source == calculateButton) {
             calculateRCS();
+        } else if (source == bilinearCheckBox) {
+            interpolationEngine.setObservationMode(bilinearCheckBox.isSelected()
+                    ? InterpolationEngine.ObservationMode.BILINEAR
+                    : InterpolationEngine.ObservationMode.NEAREST);
+            if (hasCalculated) {
+                calculateRCS();
+            }
+        } else if (source == sphericalCheckBox) {
+            interpolationEngine.setIncidentMode(sphericalCheckBox.isSelected()
+                    ? InterpolationEngine.IncidentMode.SPHERICAL
+                    : InterpolationEngine.IncidentMode.GRID);
+            if (hasCalculated) {
+                calculateRCS();
+            }
+        } else if (source instanceof JTextField) {
+            // 输入框回车：同步滑块位置后计算
+            synchronizeSlidersFromFields();
+            calculateRCS();
+        }
+    }
+
+    private void sliderChanged(ChangeEvent e) {
+        if (synchronizingControls) {
+            return;
+        }
+        JSlider slider = (JSlider) e.getSource();
+        String text = String.valueOf((double) slider.getValue() / SLIDER_SCALE);
+        synchronizingControls = true;
+        try {
+            if (slider == frequencySlider) {
+                frequencyField.setText(text);
+            } else if (slider == incidentElevationSlider) {
+                incidentElevationField.setText(text);
+            } else if (slider == incidentAzimuthSlider) {
+                incidentAzimuthField.setText(text);
+            } else if (slider == observationElevationSlider) {
+                observationElevationField.setText(text);
+            } else if (slider == observationAzimuthSlider) {
+                observationAzimuthField.setText(text);
+            }
+        } finally {
+            synchronizingControls = false;
+        }
+        calculateRCS();
+    }
+
+    private void synchronizeSlidersFromFields() {
+        synchronizingControls = true;
+        try {
+            setSliderValue(frequencySlider, frequencyField);
+            setSliderValue(incidentElevationSlider, incidentElevationField);
+            setSliderValue(incidentAzimuthSlider, incidentAzimuthField);
+            setSliderValue(observationElevationSlider, observationElevationField);
+            setSliderValue(observationAzimuthSlider, observationAzimuthField);
+        } finally {
+            synchronizingControls = false;
         }
     }
 
+    private void setSliderValue(JSlider slider, JTextField field) {
+        try {
+            slider.setValue((int) Math.round(Double.parseDouble(field.getText()) * SLIDER_SCALE));
+        } catch (NumberFormatException ignored) {
+            // 格式错误在计算时统一提示
+        }
+    }
+
+    /**
+     * 读取输入并提交后台计算，结果回到事件线程后更新标签和叠加层。
+     */
     private void calculateRCS() {
+        QueryResult query;
         try {
-            currentFrequency = Double.parseDouble(frequencyField.getText());
-            currentIncidentElevation = AngleUtils.normalize360(Double.parseDouble(incidentElevationField.getText()));
-            currentIncidentAzimuth = AngleUtils.normalize360(Double.parseDouble(incidentAzimuthField.getText()));
-            currentObservationElevation = AngleUtils.normalize360(Double.parseDouble(observationElevationField.getText()));
-            currentObservationAzimuth = AngleUtils.normalize360(Double.parseDouble(observationAzimuthField.getText()));
-
-            // 使用插值引擎计算RCS值
-            currentRCS = interpolationEngine.calculateRCS(
-                    currentFrequency,
-                    currentIncidentElevation,
-                    currentIncidentAzimuth,
-                    currentObservationElevation,
-                    currentObservationAzimuth
-            );
-            hasCalculated = true;
-
-            // 更新结果标签
-            resultLabel.setText(String.format(
-                "频率: %.1f MHz, 入射俯仰角/方位角: %.1f° / %.1f°, 观测俯仰角/方位角: %.1f° / %.1f° → RCS: %.2f dB(m²)",
-                currentFrequency, currentIncidentElevation, currentIncidentAzimuth,
-                currentObservationElevation, currentObservationAzimuth, currentRCS
-            ));
-
-            // 重绘面板
-            repaint();
+            query = new QueryResult(
+                    Double.parseDouble(frequencyField.getText()),
+                    AngleUtils.normalize360(Double.parseDouble(incidentElevationField.getText())),
+                    AngleUtils.normalize360(Double.parseDouble(incidentAzimuthField.getText())),
+                    AngleUtils.normalize360(Double.parseDouble(observationElevationField.getText())),
+                    AngleUtils.normalize360(Double.parseDouble(observationAzimuthField.getText())));
         } catch (NumberFormatException ex) {
             resultLabel.setText("输入参数格式错误，请输入数字");
-        } catch (Exception ex) {
-            resultLabel.setText("计算RCS失败: " + ex.getMessage());
+            return;
+        }
+
+        long sequence = ++querySequence;
+        if (pendingQuery != null) {
+            pendingQuery.cancel(false);
+        }
+        RcsTable table = rcsTable;
+        InterpolationEngine engine = interpolationEngine;
+        pendingQuery = queryExecutor.submit(() -> {
+            try {
+                // 使用插值引擎计算RCS值
+                query.rcs = engine.calculateRCS(query.frequency, query.incidentElevation, query.incidentAzimuth,
+                        query.observationElevation, query.observationAzimuth);
+                computeSliceRange(table, query);
+                SwingUtilities.invokeLater(() -> applyResult(sequence, query));
+            } catch (RuntimeException ex) {
+                SwingUtilities.invokeLater(() -> {
+                    if (sequence == querySequence) {
+                        resultLabel.setText("计算RCS失败: " + ex.getMessage());
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 当前频率、入射俯仰和入射方位下各切片的 RCS 范围，用于把当前点映射到极坐标半径。
+     * 只需按切片判断频率和入射方向，最值直接取切片统计，不再扫描样本。
+     */
+    private static void computeSliceRange(RcsTable table, QueryResult query) {
+        RcsStatistics statistics = table.getStatistics();
+        for (int slice = 0; slice < table.getSliceCount(); slice++) {
+            if (Math.abs(table.getSliceFrequency(slice) - query.frequency) < 0.1
+                    && AngleUtils.circularDifference(table.getSliceIncidentElevation(slice), query.incidentElevation) < 1.0
+                    && AngleUtils.circularDifference(table.getSliceIncidentAzimuth(slice), query.incidentAzimuth) < 1.0) {
+                RcsStatistics.Summary summary = statistics.getSlice(slice);
+                if (!summary.isEmpty()) {
+                    query.minRCS = Math.min(query.minRCS, summary.getMin());
+                    query.maxRCS = Math.max(query.maxRCS, summary.getMax());
+                }
+            }
         }
     }
 
-    public void setRCSDataList(List<RCSData> rcsDataList) {
-        this.rcsDataList = rcsDataList;
+    private void applyResult(long sequence, QueryResult result) {
+        if (sequence != querySequence) {
+            // 已有更新的请求，丢弃过期结果
+            return;
+        }
+        currentFrequency = result.frequency;
+        currentIncidentElevation = result.incidentElevation;
+        currentIncidentAzimuth = result.incidentAzimuth;
+        currentObservationElevation = result.observationElevation;
+        currentObservationAzimuth = result.observationAzimuth;
+        currentRCS = result.rcs;
+        currentMinRCS = result.minRCS;
+        currentMaxRCS = result.maxRCS;
+        hasCalculated = true;
+
+        // 更新结果标签
+        resultLabel.setText(String.format(
+            "频率: %.1f MHz, 入射俯仰角/方位角: %.1f° / %.1f°, 观测俯仰角/方位角: %.1f° / %.1f° → RCS: %.2f dB(m²)",
+            currentFrequency, currentIncidentElevation, currentIncidentAzimuth,
+            currentObservationElevation, currentObservationAzimuth, currentRCS
+        ));
+
+        // 底图已缓存，只需重绘叠加层
+        drawingPanel.repaint();
+        patternView.showSlice(currentFrequency, currentIncidentElevation, currentIncidentAzimuth);
+        cutPlot.showCut(currentFrequency, currentIncidentElevation, currentIncidentAzimuth,
+                currentObservationElevation, currentObservationAzimuth);
+    }
+
+    public void setRcsTable(RcsTable rcsTable) {
+        this.rcsTable = rcsTable;
+        updateFrequencyRange();
+        drawingPanel.invalidateBaseLayer();
+        patternView.setRcsTable(rcsTable);
+        cutPlot.setRcsTable(rcsTable);
+        if (hasCalculated) {
+            // 按新数据重新计算当前点
+            calculateRCS();
+        }
         repaint();
     }
 
     /**
      * 单独的绘图面板，避免控件占用的空间挤压图形区域。
+     * 网格、散点和图例渲染到缓存的底图，只有数据或尺寸变化时才重绘；当前点作为叠加层每次画在底图之上。
      */
     private class RcsCanvas extends JPanel {
+        private static final long serialVersionUID = 1L;
+
+        // 散点是直径 6 像素的圆盘，同 fillOval(x - 3, y - 3, 6, 6)：各像素相对 (x, y) 的偏移和被圆盘覆盖的比例（0~255），
+        // 按覆盖比例混合到底图上，近似开启抗锯齿时 fillOval 的平滑边缘（覆盖比例由子采样估算，与 Java2D 相差几个色阶）。
+        // 完全覆盖的像素排在前面，共 discInteriorCount 个
+        private static final int DISC_SUBSAMPLES = 16;
+        private final int[] discOffsetsX;
+        private final int[] discOffsetsY;
+        private final int[] discAlphas;
+        private final int discInteriorCount;
+
+        private BufferedImage baseLayer;
+        private RcsTable baseLayerTable;
+
+        RcsCanvas() {
+            int[] xs = new int[36];
+            int[] ys = new int[36];
+            int[] alphas = new int[36];
+            int count = 0;
+            // 圆心在 (x, y) 像素的左上角，半径 3；每个像素按 16×16 个子样本估算覆盖比例
+            for (int dy = -3; dy < 3; dy++) {
+                for (int dx = -3; dx < 3; dx++) {
+                    int covered = 0;
+                    for (int sy = 0; sy < DISC_SUBSAMPLES; sy++) {
+                        double y = dy + (sy + 0.5) / DISC_SUBSAMPLES;
+                        for (int sx = 0; sx < DISC_SUBSAMPLES; sx++) {
+                            double x = dx + (sx + 0.5) / DISC_SUBSAMPLES;
+                            if (x * x + y * y <= 9.0) {
+                                covered++;
+                            }
+                        }
+                    }
+                    int alpha = Math.round(covered * 255.0f / (DISC_SUBSAMPLES * DISC_SUBSAMPLES));
+                    if (alpha > 0) {
+                        xs[count] = dx;
+                        ys[count] = dy;
+                        alphas[count] = alpha;
+                        count++;
+                    }
+                }
+            }
+            // 稳定地把完全覆盖的像素移到前面
+            int[] order = new int[count];
+            int interior = 0;
+            for (int i = 0; i < count; i++) {
+                if (alphas[i] == 255) {
+                    order[interior++] = i;
+                }
+            }
+            for (int i = 0, edge = interior; i < count; i++) {
+                if (alphas[i] != 255) {
+                    order[edge++] = i;
+                }
+            }
+            discOffsetsX = new int[count];
+            discOffsetsY = new int[count];
+            discAlphas = new int[count];
+            for (int i = 0; i < count; i++) {
+                discOffsetsX[i] = xs[order[i]];
+                discOffsetsY[i] = ys[order[i]];
+                discAlphas[i] = alphas[order[i]];
+            }
+            discInteriorCount = interior;
+        }
+
+        /**
+         * 数据或显示条件变化后调用，下次绘制时重新渲染底图。
+         */
+        void invalidateBaseLayer() {
+            baseLayer = null;
+        }
+
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
 
-            if (rcsDataList == null || rcsDataList.isEmpty()) {
+            if (rcsTable == null || rcsTable.isEmpty()) {
                 g.drawString("没有可用的RCS数据", getWidth() / 2 - 50, getHeight() / 2);
                 return;
             }
+            if (getWidth() <= 0 || getHeight() <= 0) {
+                return;
+            }
+
+            long start = RcsMetrics.now();
+            if (baseLayer == null || baseLayerTable != rcsTable
+                    || baseLayer.getWidth() != getWidth() || baseLayer.getHeight() != getHeight()) {
+                baseLayer = renderBaseLayer();
+                baseLayerTable = rcsTable;
+            }
+            g.drawImage(baseLayer, 0, 0, null);
 
             Graphics2D g2d = (Graphics2D) g;
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-            drawRCSDirectionMap(g2d);
             drawCurrentPoint(g2d);
+            RcsMetrics.lap(RcsMetrics.PAINT_POLAR, start);
+        }
+
+        private BufferedImage renderBaseLayer() {
+            BufferedImage image = new BufferedImage(getWidth(), getHeight(), BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = image.createGraphics();
+            try {
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                // 与直接在面板上绘制时使用相同的字体
+                g2d.setFont(getFont());
+                drawRCSDirectionMap(g2d, image);
+            } finally {
+                g2d.dispose();
+            }
+            return image;
         }
 
-        private void drawRCSDirectionMap(Graphics2D g2d) {
+        private void drawRCSDirectionMap(Graphics2D g2d, BufferedImage image) {
             int centerX = getWidth() / 2;
             int centerY = getHeight() / 2;
             int radius = Math.min(centerX, centerY) - 50;
@@ -199,64 +530,103 @@ public class VisualizationPanel extends JPanel implements ActionListener {
                 int y = centerY - (int) (radius * Math.sin(angle));
                 g2d.drawLine(centerX, centerY, x, y);
                 // 绘制角度标签
-                String label = String.valueOf((int) (i * 45));
+                String label = String.valueOf(i * 45);
                 int labelX = centerX + (int) ((radius + 15) * Math.cos(angle));
                 int labelY = centerY - (int) ((radius + 15) * Math.sin(angle));
                 g2d.drawString(label, labelX - 5, labelY + 5);
             }
 
             // 为了调试，暂时移除频率和入射方向的过滤条件，显示所有数据点
-            List<RCSData> freqData = rcsDataList.stream()
-                    // 暂时不过滤任何数据，显示所有点
-                    .collect(Collectors.toList());
-            System.out.println("绘制的点数量: " + freqData.size());
+            int pointCount = rcsTable.size();
 
-            if (freqData.isEmpty()) {
+            if (pointCount == 0) {
                 g2d.setColor(Color.RED);
                 g2d.drawString("当前参数下无匹配数据", centerX - 80, centerY);
                 return;
             }
 
-            // 计算RCS值的范围
-            double minRCS = freqData.stream().mapToDouble(RCSData::getRcsValue).min().orElse(-50.0);
-            double maxRCS = freqData.stream().mapToDouble(RCSData::getRcsValue).max().orElse(-10.0);
+            // RCS值的范围取自加载时建好的统计
+            RcsStatistics.Summary total = rcsTable.getStatistics().getTotal();
+            double minRCS = total.getMin();
+            double maxRCS = total.getMax();
             double range = maxRCS - minRCS;
 
             if (range == 0) {
                 range = 1;
             }
 
-            // 绘制RCS方向图
-            g2d.setStroke(new BasicStroke(2));
-            for (RCSData data : freqData) {
-                double phi = Math.toRadians(data.getPhi()); // 方位角
-                double theta = Math.toRadians(data.getTheta()); // 俯仰角
-                double rcsValue = data.getRcsValue();
+            // 绘制RCS方向图：先把每个点归到所在像素，记下每个像素最后绘制的点；再按原顺序逐点叠加圆盘。
+            // 同一像素上较早的点，其完全覆盖的内部迟早被该像素最后一个点的内部整体覆盖，只需叠加半透明的边缘，
+            // 结果与逐点完整叠加一致
+            int width = image.getWidth();
+            int height = image.getHeight();
+            int[] pixelOfRow = new int[pointCount];
+            int[] winnerOfPixel = new int[width * height];
+            for (int row = 0; row < pointCount; row++) {
+                double phi = Math.toRadians(rcsTable.getPhi(row)); // 方位角
+                double rcsValue = rcsTable.getRcsValue(row);
 
                 // 计算归一化半径（将RCS值映射到[0, radius]）
                 double normalizedRCS = Math.max(0, Math.min(1, (rcsValue - minRCS) / range));
                 int r = (int) (radius * normalizedRCS);
 
-                // 转换极坐标到笛卡尔坐标（考虑俯仰角theta）
-                // 极径r, 方位角phi(绕y轴), 俯仰角theta(与y轴的夹角)
-                double xCartesian = r * Math.sin(theta) * Math.sin(phi);
-                double yCartesian = r * Math.cos(theta);
-
-                // 由于我们是在2D平面上显示，需要将3D坐标投影到2D平面
-                // 这里使用简化的2D极坐标显示，主要根据方位角phi
+                // 2D 极坐标显示，主要根据方位角phi
                 int x = centerX + (int) (r * Math.sin(phi));
                 int y = centerY - (int) (r * Math.cos(phi));
+                if (x < 0 || x >= width || y < 0 || y >= height) {
+                    pixelOfRow[row] = -1;
+                    continue;
+                }
+                int pixel = y * width + x;
+                pixelOfRow[row] = pixel;
+                winnerOfPixel[pixel] = row + 1;
+            }
 
+            int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            for (int row = 0; row < pointCount; row++) {
+                int pixel = pixelOfRow[row];
+                if (pixel < 0) {
+                    continue;
+                }
                 // 根据RCS值设置颜色
-                Color color = getColorForRCS(rcsValue, minRCS, maxRCS);
-                g2d.setColor(color);
-                g2d.fillOval(x - 3, y - 3, 6, 6);
+                int argb = 0xFF000000 | getRgbForRCS(rcsTable.getRcsValue(row), minRCS, maxRCS);
+                int x = pixel % width;
+                int y = pixel / width;
+                int first = winnerOfPixel[pixel] == row + 1 ? 0 : discInteriorCount;
+                for (int i = first; i < discOffsetsX.length; i++) {
+                    int px = x + discOffsetsX[i];
+                    int py = y + discOffsetsY[i];
+                    if (px >= 0 && px < width && py >= 0 && py < height) {
+                        int index = py * width + px;
+                        pixels[index] = blend(pixels[index], argb, discAlphas[i]);
+                    }
+                }
             }
 
             // 绘制图例
             drawLegend(g2d, minRCS, maxRCS);
         }
 
+        /**
+         * 把不透明颜色 argb 按覆盖比例 alpha（0~255）以 SRC_OVER 方式叠加到非预乘的 ARGB 像素 dst 上。
+         */
+        private int blend(int dst, int argb, int alpha) {
+            if (alpha == 255) {
+                return argb;
+            }
+            int dstAlpha = dst >>> 24;
+            // 输出不透明度 = a + da·(1 - a)，颜色按各自的权重加权平均
+            int dstWeight = dstAlpha * (255 - alpha) / 255;
+            int outAlpha = alpha + dstWeight;
+            if (outAlpha == 0) {
+                return 0;
+            }
+            int r = (((argb >> 16) & 0xFF) * alpha + ((dst >> 16) & 0xFF) * dstWeight) / outAlpha;
+            int g = (((argb >> 8) & 0xFF) * alpha + ((dst >> 8) & 0xFF) * dstWeight) / outAlpha;
+            int b = ((argb & 0xFF) * alpha + (dst & 0xFF) * dstWeight) / outAlpha;
+            return (outAlpha << 24) | (r << 16) | (g << 8) | b;
+        }
+
         private void drawCurrentPoint(Graphics2D g2d) {
             if (!hasCalculated) {
                 return;
@@ -266,19 +636,13 @@ public class VisualizationPanel extends JPanel implements ActionListener {
             int centerY = getHeight() / 2;
             int radius = Math.min(centerX, centerY) - 50;
 
-            // 获取当前频率、入射俯仰和入射方位下的数据点以计算RCS范围
-            List<RCSData> freqData = rcsDataList.stream()
-                    .filter(data -> Math.abs(data.getFrequency() - currentFrequency) < 0.1)
-                    .filter(data -> AngleUtils.circularDifference(data.getIncidentElevation(), currentIncidentElevation) < 1.0)
-                    .filter(data -> AngleUtils.circularDifference(data.getIncidentAzimuth(), currentIncidentAzimuth) < 1.0)
-                    .collect(Collectors.toList());
-
-            if (freqData.isEmpty()) {
+            // 当前频率和入射方向下的 RCS 范围已在后台算好，没有匹配切片时不画
+            double minRCS = currentMinRCS;
+            double maxRCS = currentMaxRCS;
+            if (!(minRCS <= maxRCS)) {
                 return;
             }
 
-            double minRCS = freqData.stream().mapToDouble(RCSData::getRcsValue).min().orElse(0.0);
-            double maxRCS = freqData.stream().mapToDouble(RCSData::getRcsValue).max().orElse(0.0);
             double range = maxRCS - minRCS;
 
             if (range == 0) {
@@ -338,18 +702,30 @@ public class VisualizationPanel extends JPanel implements ActionListener {
         }
 
         private Color getColorForRCS(double rcsValue, double minRCS, double maxRCS) {
-            double normalized = (rcsValue - minRCS) / (maxRCS - minRCS);
-            if (normalized < 0.2) {
-                return new Color(0, (int) (255 * normalized * 5), 255);
-            } else if (normalized < 0.4) {
-                return new Color(0, 255, (int) (255 - 255 * (normalized - 0.2) * 5));
-            } else if (normalized < 0.6) {
-                return new Color((int) (255 * (normalized - 0.4) * 5), 255, 0);
-            } else if (normalized < 0.8) {
-                return new Color(255, (int) (255 - 255 * (normalized - 0.6) * 5), 0);
-            } else {
-                return new Color(255, 0, 0);
-            }
+            return new Color(getRgbForRCS(rcsValue, minRCS, maxRCS));
         }
+
+    }
+
+    /**
+     * 颜色条对应的 RGB 值，散点和三维网格直接写入像素时使用，避免为每个点创建 Color。
+     */
+    static int getRgbForRCS(double rcsValue, double minRCS, double maxRCS) {
+        double normalized = (rcsValue - minRCS) / (maxRCS - minRCS);
+        if (normalized < 0.2) {
+            return rgb(0, (int) (255 * normalized * 5), 255);
+        } else if (normalized < 0.4) {
+            return rgb(0, 255, (int) (255 - 255 * (normalized - 0.2) * 5));
+        } else if (normalized < 0.6) {
+            return rgb((int) (255 * (normalized - 0.4) * 5), 255, 0);
+        } else if (normalized < 0.8) {
+            return rgb(255, (int) (255 - 255 * (normalized - 0.6) * 5), 0);
+        } else {
+            return rgb(255, 0, 0);
+        }
+    }
+
+    private static int rgb(int red, int green, int blue) {
+        return (red & 0xFF) << 16 | (green & 0xFF) << 8 | (blue & 0xFF);
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * 测试用的小型数据目录：方向N 文件夹下写入 CST 格式的 "方向N f=X.txt"，以及数据表的逐项比较。
+ */
+final class CstFixtures {
+    static final String HEADER = "Theta [deg.]  Phi   [deg.]  Abs(RCS )[dB(m^2)]\n"
+            + "--------------------------------------------------\n";
+
+    private CstFixtures() {
+    }
+
+    /**
+     * 写入一个切片文件，theta 取 0~180°、phi 取 0~270°，步长都是 step，RCS 为 rcs(theta, phi)。
+     */
+    static Path writeSlice(Path dataDirectory, int direction, double frequency, double step,
+                           DoubleBinaryOperator rcs) throws IOException {
+        StringBuilder text = new StringBuilder(HEADER);
+        for (double phi = 0; phi < 360; phi += step) {
+            for (double theta = 0; theta <= 180; theta += step) {
+                text.append(String.format(Locale.ROOT, "%10.3f %10.3f %16.6e%n", theta, phi,
+                        rcs.applyAsDouble(theta, phi)));
+            }
+        }
+        return writeFile(dataDirectory, direction, frequency, text.toString());
+    }
+
+    /**
+     * 在数据目录中写入方向清单，避免从上级目录找到其他清单；方向 1~3 分别沿 -y、+z、+x 入射。
+     */
+    static void writeManifest(Path dataDirectory) throws IOException {
+        Files.createDirectories(dataDirectory);
+        Files.write(dataDirectory.resolve(DirectionManifest.FILE_NAME), ("方向一：传播方向(0,-1,0)     电场方向(0,0,1)\n"
+                + "方向二：传播方向(0,0,1)     电场方向(0,1,0)\n"
+                + "方向三：传播方向(1,0,0)     电场方向(0,1,0)\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 以原样文本写入一个切片文件。
+     */
+    static Path writeFile(Path dataDirectory, int direction, double frequency, String text) throws IOException {
+        Path folder = Files.createDirectories(dataDirectory.resolve("方向" + direction));
+        Path file = folder.resolve(String.format(Locale.ROOT, "方向%d f=%s.txt", direction, formatFrequency(frequency)));
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String formatFrequency(double frequency) {
+        return frequency == Math.rint(frequency) ? String.valueOf((long) frequency) : String.valueOf(frequency);
+    }
+
+    /**
+     * 相对于工作目录的路径，与 new DataReader() 使用的相对数据目录形式一致。
+     */
+    static File relative(Path directory) {
+        return Paths.get("").toAbsolutePath().relativize(directory.toAbsolutePath()).toFile();
+    }
+
+    /**
+     * 删除快照后完整解析一次，作为比较基准。
+     */
+    static RcsTable freshRead(Path dataDirectory) throws IOException {
+        try (var files = Files.list(dataDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().startsWith("rcs_snapshot")) {
+                    Files.delete(file);
+                }
+            }
+        }
+        return new DataReader(dataDirectory.toFile()).readAllData();
+    }
+
+    /**
+     * 切片结构和每行样本都按位相同。
+     */
+    static void assertSameTable(RcsTable expected, RcsTable actual) {
+        assertEquals(expected.getSliceCount(), actual.getSliceCount(), "切片数");
+        assertEquals(expected.size(), actual.size(), "行数");
+        for (int s = 0; s < expected.getSliceCount(); s++) {
+            assertEquals(expected.getSliceFrequency(s), actual.getSliceFrequency(s), "切片 " + s + " 频率");
+            assertEquals(expected.getSliceIncidentElevation(s), actual.getSliceIncidentElevation(s),
+                    "切片 " + s + " 入射俯仰角");
+            assertEquals(expected.getSliceIncidentAzimuth(s), actual.getSliceIncidentAzimuth(s),
+                    "切片 " + s + " 入射方位角");
+            assertEquals(expected.getSliceStart(s), actual.getSliceStart(s), "切片 " + s + " 起始行");
+            assertEquals(expected.getSliceEnd(s), actual.getSliceEnd(s), "切片 " + s + " 结束行");
+        }
+        for (int row = 0; row < expected.size(); row++) {
+            assertEquals(expected.getTheta(row), actual.getTheta(row), "第 " + row + " 行 theta");
+            assertEquals(expected.getPhi(row), actual.getPhi(row), "第 " + row + " 行 phi");
+            assertEquals(expected.getRcsValue(row), actual.getRcsValue(row), "第 " + row + " 行 RCS");
+        }
+    }
+}
@@ -0,0 +1,166 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * CstTextParser 与原先 BufferedReader + trim + split("\\s+") + Double.parseDouble 逐行读取的对照回归测试。
+ */
+class CstTextParserTest {
+    private static final File DATA_DIRECTORY = new File("cst仿真结果txt文件");
+
+    /**
+     * 原先的逐行读取：跳过空行和 "Theta" 表头，前三列任一无法解析的行整行跳过。
+     */
+    private static double[][] readLines(Reader reader) throws IOException {
+        List<double[]> rows = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(reader)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("Theta")) {
+                    continue;
+                }
+                try {
+                    String[] parts = line.split("\\s+");
+                    if (parts.length >= 3) {
+                        rows.add(new double[]{
+                                AngleUtils.normalize360(Double.parseDouble(parts[0])),
+                                AngleUtils.normalize360(Double.parseDouble(parts[1])),
+                                Double.parseDouble(parts[2])});
+                    }
+                } catch (NumberFormatException e) {
+                    // 与原先一样整行跳过
+                }
+            }
+        }
+        double[][] columns = new double[3][rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            for (int c = 0; c < 3; c++) {
+                columns[c][i] = rows.get(i)[c];
+            }
+        }
+        return columns;
+    }
+
+    private static void assertSameColumns(double[][] expected, CstTextParser.Columns actual, String source) {
+        int count = actual.size();
+        assertEquals(expected[0].length, count, source + " 行数");
+        // 按位比较，-0.0、NaN 等也必须一致
+        assertArrayEquals(expected[0], Arrays.copyOf(actual.getThetas(), count), source + " theta");
+        assertArrayEquals(expected[1], Arrays.copyOf(actual.getPhis(), count), source + " phi");
+        assertArrayEquals(expected[2], Arrays.copyOf(actual.getRcsValues(), count), source + " RCS");
+    }
+
+    private static void assertMatchesLineReader(String text) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(text.getBytes(Charset.defaultCharset()));
+        assertSameColumns(readLines(new StringReader(text)), CstTextParser.parse(bytes), text);
+    }
+
+    @Test
+    void bundledFilesMatchLineReader() throws IOException {
+        File[] folders = DATA_DIRECTORY.listFiles(File::isDirectory);
+        assertTrue(folders != null && folders.length > 0, "找不到数据目录 " + DATA_DIRECTORY.getAbsolutePath());
+        int fileCount = 0;
+        for (File folder : folders) {
+            File[] files = folder.listFiles((dir, name) -> name.endsWith(".txt"));
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                assertSameColumns(readLines(new FileReader(file)), CstTextParser.parse(file), file.getName());
+                fileCount++;
+            }
+        }
+        assertTrue(fileCount > 0, "数据目录中没有 TXT 文件");
+    }
+
+    @Test
+    void headersAndBlankLinesAreSkipped() throws IOException {
+        assertMatchesLineReader("Theta [deg.]  Phi   [deg.]  Abs(RCS )[dB(m^2)]\n"
+                + "------------------------------------------------\n"
+                + "\n"
+                + "   \t \n"
+                + "   Theta indented header\n"
+                + "theta 1 2\n"
+                + "0.000  0.000  -12.5\n");
+    }
+
+    @Test
+    void unusualNumbersFallBackLikeParseDouble() throws IOException {
+        assertMatchesLineReader("-0 -0.0 -0\n"
+                + "0 0 1e-400\n"
+                + "0 0 1e400\n"
+                + "0 0 -1e-400\n"
+                + "0x1p3 0X1.8P1 0x10p-2\n"
+                + "NaN Infinity -Infinity\n"
+                + "1 2 NaN\n"
+                + "1.5d 2f 3D\n"
+                + "+1.5 +.5 5.\n"
+                + "1E+05 1e-05 2.5E3\n"
+                + "4.9e-324 2.2250738585072014E-308 1.7976931348623157e308\n");
+    }
+
+    @Test
+    void longMantissasRoundLikeParseDouble() throws IOException {
+        assertMatchesLineReader("1234567890123456789 12345678901234567890 0.1234567890123456789\n"
+                + "9007199254740993 9007199254740992.5 123456789012345678901234567890e-20\n"
+                + "0.30000000000000000001 0.1000000000000000055511151231257827 2.47032822920623272e-324\n"
+                + "00000000000000000000001.5 1.00000000000000000000000000000001 -99999999999999999999.9\n");
+    }
+
+    @Test
+    void malformedLinesAreSkippedWhole() throws IOException {
+        assertMatchesLineReader("1 2\n"
+                + "1 2 abc\n"
+                + "abc 1 2\n"
+                + ". 1 2\n"
+                + "1 2 3 4 5 6 7 8\n"
+                + "1 2 3e\n"
+                + "1 2 --3\n"
+                + "1\u000B2\u000C3\n"
+                + "1 2 3 \n"
+                + "\u001F7 8 9\u001F\n");
+    }
+
+    @Test
+    void lineEndingsMatchReadLine() throws IOException {
+        assertMatchesLineReader("1 2 3\r\n4 5 6\r\n");
+        assertMatchesLineReader("1 2 3\r4 5 6\r");
+        assertMatchesLineReader("1 2 3\n\r4 5 6\r\r\n7 8 9");
+        assertMatchesLineReader("Theta Phi RCS\r\n\r\n1 2 3");
+        assertMatchesLineReader("");
+    }
+
+    @Test
+    void anglesAreNormalized() throws IOException {
+        assertMatchesLineReader("-90 720 1\n360 -360 2\n359.99999999999994 -1e-20 3\n");
+    }
+
+    @Test
+    void hasSamplesStopsAtFirstValidLine(@TempDir Path directory) throws IOException {
+        Path empty = Files.write(directory.resolve("empty.txt"), new byte[0]);
+        Path headerOnly = Files.writeString(directory.resolve("header.txt"), "Theta Phi RCS\r\n-----\r\nfoo bar baz\r\n");
+        Path valid = Files.writeString(directory.resolve("valid.txt"), "Theta Phi RCS\n\n0 0 -3.5\n");
+        assertFalse(CstTextParser.hasSamples(empty.toFile()));
+        assertFalse(CstTextParser.hasSamples(headerOnly.toFile()));
+        assertTrue(CstTextParser.hasSamples(valid.toFile()));
+    }
+}
@@ -0,0 +1,133 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 热重载：reloadChangedFiles 只重新解析变化的文件，结果必须与重新完整解析一次相同。
+ */
+class DataReaderReloadTest {
+    @TempDir
+    Path dataDirectory;
+
+    private static double sample(double theta, double phi) {
+        return -30 + theta / 10 + phi / 100;
+    }
+
+    /**
+     * 方向 1 两个频率、方向 2 一个频率，返回首次完整读取的数据表。
+     */
+    private RcsTable writeInitialData(DataReader reader) throws IOException {
+        CstFixtures.writeManifest(dataDirectory);
+        CstFixtures.writeSlice(dataDirectory, 1, 10, 30, DataReaderReloadTest::sample);
+        CstFixtures.writeSlice(dataDirectory, 1, 20, 30, (theta, phi) -> sample(theta, phi) + 1);
+        CstFixtures.writeSlice(dataDirectory, 2, 10, 30, (theta, phi) -> sample(theta, phi) - 1);
+        return reader.readAllData();
+    }
+
+    @Test
+    void addedFileMatchesFreshRead() throws IOException {
+        DataReader reader = new DataReader(dataDirectory.toFile());
+        RcsTable before = writeInitialData(reader);
+
+        Path added = CstFixtures.writeSlice(dataDirectory, 2, 20, 30, (theta, phi) -> 5.5);
+        Path addedFolder = CstFixtures.writeSlice(dataDirectory, 3, 10, 30, (theta, phi) -> -7.25);
+        RcsTable reloaded = reader.reloadChangedFiles(before, Set.of(added.toFile(), addedFolder.toFile()));
+
+        assertEquals(before.getSliceCount() + 2, reloaded.getSliceCount());
+        CstFixtures.assertSameTable(CstFixtures.freshRead(dataDirectory), reloaded);
+    }
+
+    @Test
+    void modifiedFileMatchesFreshRead() throws IOException {
+        DataReader reader = new DataReader(dataDirectory.toFile());
+        RcsTable before = writeInitialData(reader);
+
+        // 行数也变化，后续切片的起始行要随之移动
+        Path modified = CstFixtures.writeSlice(dataDirectory, 1, 20, 15, (theta, phi) -> theta - phi);
+        RcsTable reloaded = reader.reloadChangedFiles(before, Set.of(modified.toFile()));
+
+        assertTrue(reloaded.size() > before.size());
+        CstFixtures.assertSameTable(CstFixtures.freshRead(dataDirectory), reloaded);
+    }
+
+    @Test
+    void deletedFileMatchesFreshRead() throws IOException {
+        DataReader reader = new DataReader(dataDirectory.toFile());
+        RcsTable before = writeInitialData(reader);
+
+        Path deleted = dataDirectory.resolve("方向1").resolve("方向1 f=10.txt");
+        Files.delete(deleted);
+        RcsTable reloaded = reader.reloadChangedFiles(before, Set.of(deleted.toFile()));
+
+        assertEquals(before.getSliceCount() - 1, reloaded.getSliceCount());
+        CstFixtures.assertSameTable(CstFixtures.freshRead(dataDirectory), reloaded);
+    }
+
+    @Test
+    void successiveReloadsMatchFreshRead() throws IOException {
+        DataReader reader = new DataReader(dataDirectory.toFile());
+        RcsTable table = writeInitialData(reader);
+
+        Path added = CstFixtures.writeSlice(dataDirectory, 2, 20, 30, (theta, phi) -> 1.0);
+        table = reader.reloadChangedFiles(table, Set.of(added.toFile()));
+        Path modified = CstFixtures.writeSlice(dataDirectory, 2, 10, 30, (theta, phi) -> 2.0);
+        table = reader.reloadChangedFiles(table, Set.of(modified.toFile()));
+        Path deleted = dataDirectory.resolve("方向1").resolve("方向1 f=20.txt");
+        Files.delete(deleted);
+        table = reader.reloadChangedFiles(table, Set.of(deleted.toFile()));
+
+        CstFixtures.assertSameTable(CstFixtures.freshRead(dataDirectory), table);
+    }
+
+    /**
+     * 经由监视器的完整链路：编辑文件后发布的新数据表与完整解析一致。
+     */
+    @Test
+    void watcherPublishesReloadedTable() throws Exception {
+        DataReader reader = new DataReader(CstFixtures.relative(dataDirectory));
+        RcsTable before = writeInitialData(reader);
+        BlockingQueue<RcsTable> published = new ArrayBlockingQueue<>(16);
+        RcsTable reloaded;
+        try (RcsDataWatcher watcher = new RcsDataWatcher(reader, before, published::add)) {
+            watcher.start();
+            CstFixtures.writeSlice(dataDirectory, 1, 10, 30, (theta, phi) -> 42.0);
+            reloaded = published.poll(30, TimeUnit.SECONDS);
+        }
+
+        assertTrue(reloaded != null, "监视器没有发布新数据表");
+        CstFixtures.assertSameTable(CstFixtures.freshRead(dataDirectory), reloaded);
+    }
+
+    /**
+     * 数据目录是相对路径（new DataReader() 的默认形式）而监视器报告绝对路径时，编辑过的文件也必须重新解析。
+     */
+    @Test
+    void editedFileIsReparsedWhenDataDirectoryIsRelative() throws IOException {
+        CstFixtures.writeManifest(dataDirectory);
+        Path edited = CstFixtures.writeSlice(dataDirectory, 1, 10, 30, DataReaderReloadTest::sample);
+        CstFixtures.writeSlice(dataDirectory, 1, 20, 30, DataReaderReloadTest::sample);
+
+        DataReader reader = new DataReader(CstFixtures.relative(dataDirectory));
+        RcsTable before = reader.readAllData();
+        double elevation = before.getSliceIncidentElevation(0);
+        double azimuth = before.getSliceIncidentAzimuth(0);
+        assertEquals(sample(30, 90), new InterpolationEngine(before).calculateRCS(10, elevation, azimuth, 30, 90),
+                1e-9);
+
+        CstFixtures.writeSlice(dataDirectory, 1, 10, 30, (theta, phi) -> 99.99);
+        RcsTable reloaded = reader.reloadChangedFiles(before, Set.of(edited.toAbsolutePath().toFile()));
+
+        assertEquals(99.99, new InterpolationEngine(reloaded).calculateRCS(10, elevation, azimuth, 30, 90), 1e-9);
+        CstFixtures.assertSameTable(CstFixtures.freshRead(dataDirectory), reloaded);
+    }
+}
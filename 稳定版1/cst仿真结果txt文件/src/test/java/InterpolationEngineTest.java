@@ -0,0 +1,315 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 插值引擎的行为测试：默认模式与改写前逐行扫描的实现逐位一致，双线性与球面模式按手算结果核对。
+ */
+class InterpolationEngineTest {
+    private static final double[] FREQUENCIES = {10, 20, 30};
+    private static final double[] ELEVATIONS = {0, 60, 120};
+    private static final double[] AZIMUTHS = {0, 90, 180, 270};
+    private static final double STEP = 10;
+    // 与逐行扫描的对照实现比较时用较粗的观测角网格，控制测试耗时
+    private static final double COARSE_STEP = 30;
+
+    /**
+     * 入射方向和观测方向都是线性函数，双线性插值在格点之间也能精确复现。
+     */
+    private static double sample(double frequency, double elevation, double azimuth, double theta, double phi) {
+        return frequency + elevation / 10 + azimuth / 100 - 40 + theta * 0.25 + phi * 0.05;
+    }
+
+    /**
+     * 完整网格：每个 (频率, 入射俯仰, 入射方位) 一个切片，观测角 theta 0~180°、phi 0~360° 不含 360°，步长 step。
+     */
+    private static RcsTable gridTable(double step) {
+        RcsTable.Builder builder = new RcsTable.Builder();
+        for (double frequency : FREQUENCIES) {
+            for (double elevation : ELEVATIONS) {
+                for (double azimuth : AZIMUTHS) {
+                    builder.beginSlice(frequency, elevation, azimuth);
+                    for (double phi = 0; phi < 360; phi += step) {
+                        for (double theta = 0; theta <= 180; theta += step) {
+                            builder.add(theta, phi, sample(frequency, elevation, azimuth, theta, phi));
+                        }
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    @Test
+    void gridModeMatchesReferenceAtAxisEnds() {
+        RcsTable table = gridTable(COARSE_STEP);
+        InterpolationEngine engine = new InterpolationEngine(table);
+        ReferenceEngine reference = new ReferenceEngine(table);
+
+        // 低于、等于、介于、高于频率轴的首末端
+        double[] frequencies = {5, 10, 15, 20, 29.99, 30, 45};
+        // 入射角取在首末端、端点之间、跨 0/360° 和负角
+        double[] elevations = {0, 60, 120, 30, 119.5, 200, 359.9, -10};
+        double[] azimuths = {0, 90, 270, 45, 300, 359.95, 360, -90};
+        // 观测角低于、等于、高于采样范围
+        double[][] observations = {{0, 0}, {180, 350}, {-5, -5}, {185, 355}, {90, 359.9}, {33, 47}};
+        for (double frequency : frequencies) {
+            for (double elevation : elevations) {
+                for (double azimuth : azimuths) {
+                    for (double[] observation : observations) {
+                        double expected = reference.calculateRCS(frequency, elevation, azimuth,
+                                observation[0], observation[1]);
+                        double actual = engine.calculateRCS(frequency, elevation, azimuth,
+                                observation[0], observation[1]);
+                        assertEquals(expected, actual, String.format("f=%s e=%s a=%s theta=%s phi=%s",
+                                frequency, elevation, azimuth, observation[0], observation[1]));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void gridModeMatchesReferenceOnRandomQueries() {
+        RcsTable table = gridTable(COARSE_STEP);
+        InterpolationEngine engine = new InterpolationEngine(table);
+        ReferenceEngine reference = new ReferenceEngine(table);
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            double frequency = 5 + random.nextDouble() * 30;
+            double elevation = random.nextDouble() * 400 - 20;
+            double azimuth = random.nextDouble() * 400 - 20;
+            double theta = random.nextDouble() * 200 - 10;
+            double phi = random.nextDouble() * 400 - 20;
+            assertEquals(reference.calculateRCS(frequency, elevation, azimuth, theta, phi),
+                    engine.calculateRCS(frequency, elevation, azimuth, theta, phi),
+                    String.format("f=%s e=%s a=%s theta=%s phi=%s", frequency, elevation, azimuth, theta, phi));
+        }
+    }
+
+    @Test
+    void bilinearModeReturnsSamplesAtGridNodes() {
+        InterpolationEngine engine = new InterpolationEngine(gridTable(STEP));
+        engine.setObservationMode(InterpolationEngine.ObservationMode.BILINEAR);
+        for (double theta = 0; theta <= 180; theta += 30) {
+            for (double phi = 0; phi < 360; phi += 50) {
+                assertEquals(sample(20, 60, 90, theta, phi), engine.calculateRCS(20, 60, 90, theta, phi), 1e-9,
+                        "theta=" + theta + " phi=" + phi);
+            }
+        }
+    }
+
+    @Test
+    void bilinearModeAveragesCornersAtCellMidpoints() {
+        InterpolationEngine engine = new InterpolationEngine(gridTable(STEP));
+        engine.setObservationMode(InterpolationEngine.ObservationMode.BILINEAR);
+        double[][] cells = {{30, 40}, {0, 0}, {170, 200}, {90, 340}};
+        for (double[] cell : cells) {
+            double theta = cell[0];
+            double phi = cell[1];
+            double expected = (sample(20, 60, 90, theta, phi) + sample(20, 60, 90, theta + STEP, phi)
+                    + sample(20, 60, 90, theta, phi + STEP) + sample(20, 60, 90, theta + STEP, phi + STEP)) / 4;
+            assertEquals(expected, engine.calculateRCS(20, 60, 90, theta + STEP / 2, phi + STEP / 2), 1e-9,
+                    "theta=" + theta + " phi=" + phi);
+        }
+        // 跨 360° 的格子：phi=350° 与 phi=0° 两列格点的平均
+        double expected = (sample(20, 60, 90, 40, 350) + sample(20, 60, 90, 50, 350)
+                + sample(20, 60, 90, 40, 0) + sample(20, 60, 90, 50, 0)) / 4;
+        assertEquals(expected, engine.calculateRCS(20, 60, 90, 45, 355), 1e-9);
+    }
+
+    @Test
+    void sphericalModeReturnsValueAtExactDirection() {
+        InterpolationEngine engine = new InterpolationEngine(gridTable(STEP));
+        engine.setIncidentMode(InterpolationEngine.IncidentMode.SPHERICAL);
+        for (double frequency : FREQUENCIES) {
+            for (double azimuth : AZIMUTHS) {
+                for (double elevation : new double[]{60, 120}) {
+                    assertEquals(sample(frequency, elevation, azimuth, 40, 120),
+                            engine.calculateRCS(frequency, elevation, azimuth, 40, 120), 1e-9,
+                            "f=" + frequency + " e=" + elevation + " a=" + azimuth);
+                }
+            }
+        }
+    }
+
+    @Test
+    void sphericalModeWeightsNeighborsByInverseSquareDistance() {
+        // 只有三个方向，任何查询的三个近邻都是它们
+        double[][] directions = {{60, 0}, {60, 90}, {90, 45}};
+        double[] values = {-10, -20, -40};
+        RcsTable.Builder builder = new RcsTable.Builder();
+        for (int i = 0; i < directions.length; i++) {
+            builder.beginSlice(10, directions[i][0], directions[i][1]).add(0, 0, values[i]);
+        }
+        InterpolationEngine engine = new InterpolationEngine(builder.build());
+        engine.setIncidentMode(InterpolationEngine.IncidentMode.SPHERICAL);
+
+        double elevation = 70;
+        double azimuth = 30;
+        double[] query = DirectionTree.unitVector(elevation, azimuth);
+        double weightedSum = 0;
+        double weightSum = 0;
+        for (int i = 0; i < directions.length; i++) {
+            double[] point = DirectionTree.unitVector(directions[i][0], directions[i][1]);
+            double dx = query[0] - point[0];
+            double dy = query[1] - point[1];
+            double dz = query[2] - point[2];
+            double weight = 1 / (dx * dx + dy * dy + dz * dz);
+            weightedSum += weight * values[i];
+            weightSum += weight;
+        }
+        assertEquals(weightedSum / weightSum, engine.calculateRCS(10, elevation, azimuth, 0, 0), 1e-9);
+        assertEquals(-20, engine.calculateRCS(10, 60, 90, 0, 0), 1e-12);
+    }
+
+    /**
+     * 改写前的实现：每次查询都扫描全部数据行，作为默认模式（GRID + NEAREST）的对照。
+     */
+    private static final class ReferenceEngine {
+        private final List<double[]> rows = new ArrayList<>();
+        private final List<Double> frequencies;
+        private final List<Double> elevations;
+        private final List<Double> azimuths;
+
+        ReferenceEngine(RcsTable table) {
+            for (int s = 0; s < table.getSliceCount(); s++) {
+                for (int row = table.getSliceStart(s); row < table.getSliceEnd(s); row++) {
+                    rows.add(new double[]{table.getSliceFrequency(s), table.getSliceIncidentElevation(s),
+                            table.getSliceIncidentAzimuth(s), table.getTheta(row), table.getPhi(row),
+                            table.getRcsValue(row)});
+                }
+            }
+            frequencies = distinct(0, false);
+            elevations = distinct(1, true);
+            azimuths = distinct(2, true);
+        }
+
+        double calculateRCS(double frequency, double incidentElevation, double incidentAzimuth,
+                            double theta, double phi) {
+            double normalizedElevation = AngleUtils.normalize360(incidentElevation);
+            double normalizedAzimuth = AngleUtils.normalize360(incidentAzimuth);
+            double normalizedTheta = AngleUtils.normalize360(theta);
+            double normalizedPhi = AngleUtils.normalize360(phi);
+
+            double f1 = frequencies.get(0);
+            double f2 = frequencies.get(0);
+            for (double f : frequencies) {
+                if (f <= frequency) {
+                    f1 = f;
+                }
+                if (f >= frequency) {
+                    f2 = f;
+                    break;
+                }
+            }
+
+            double[] elevationBounds = boundingAngles(elevations, normalizedElevation);
+            double[] azimuthBounds = boundingAngles(azimuths, normalizedAzimuth);
+            double e1 = elevationBounds[0];
+            double e2 = elevationBounds[1];
+            double a1 = azimuthBounds[0];
+            double a2 = azimuthBounds[1];
+
+            double inputElevation = normalizedElevation;
+            if (e2 < e1) {
+                e2 += 360.0;
+                if (inputElevation < e1) {
+                    inputElevation += 360.0;
+                }
+            }
+            double inputAzimuth = normalizedAzimuth;
+            if (a2 < a1) {
+                a2 += 360.0;
+                if (inputAzimuth < a1) {
+                    inputAzimuth += 360.0;
+                }
+            }
+
+            double rcsFreq1 = bilinear(closest(f1, e1, a1, normalizedTheta, normalizedPhi),
+                    closest(f1, e1, a2, normalizedTheta, normalizedPhi),
+                    closest(f1, e2, a1, normalizedTheta, normalizedPhi),
+                    closest(f1, e2, a2, normalizedTheta, normalizedPhi),
+                    a1, a2, e1, e2, inputAzimuth, inputElevation);
+            double rcsFreq2 = bilinear(closest(f2, e1, a1, normalizedTheta, normalizedPhi),
+                    closest(f2, e1, a2, normalizedTheta, normalizedPhi),
+                    closest(f2, e2, a1, normalizedTheta, normalizedPhi),
+                    closest(f2, e2, a2, normalizedTheta, normalizedPhi),
+                    a1, a2, e1, e2, inputAzimuth, inputElevation);
+            return interpolate(rcsFreq1, rcsFreq2, f1, f2, frequency);
+        }
+
+        private List<Double> distinct(int column, boolean angle) {
+            TreeSet<Double> values = new TreeSet<>();
+            for (double[] row : rows) {
+                values.add(angle ? AngleUtils.normalize360(row[column]) : row[column]);
+            }
+            return new ArrayList<>(values);
+        }
+
+        private double closest(double frequency, double elevation, double azimuth, double theta, double phi) {
+            double[] closest = null;
+            double minDistance = Double.MAX_VALUE;
+            for (double[] row : rows) {
+                if (Math.abs(row[0] - frequency) < 0.1
+                        && AngleUtils.circularDifference(row[1], elevation) < 0.1
+                        && AngleUtils.circularDifference(row[2], azimuth) < 0.1) {
+                    double deltaTheta = AngleUtils.circularDifference(row[3], theta);
+                    double deltaPhi = AngleUtils.circularDifference(row[4], phi);
+                    double distance = Math.sqrt(Math.pow(deltaTheta, 2) + Math.pow(deltaPhi, 2));
+                    if (distance < minDistance) {
+                        minDistance = distance;
+                        closest = row;
+                    }
+                }
+            }
+            return closest == null ? -50.0 : closest[5];
+        }
+
+        private static double interpolate(double value1, double value2, double x1, double x2, double x) {
+            if (x1 == x2) {
+                return value1;
+            }
+            return value1 + (value2 - value1) * (x - x1) / (x2 - x1);
+        }
+
+        private static double bilinear(double q11, double q12, double q21, double q22,
+                                       double x1, double x2, double y1, double y2, double x, double y) {
+            if (x1 == x2 && y1 == y2) {
+                return q11;
+            }
+            if (x1 == x2) {
+                return interpolate(q11, q21, y1, y2, y);
+            }
+            if (y1 == y2) {
+                return interpolate(q11, q12, x1, x2, x);
+            }
+            double r1 = interpolate(q11, q12, x1, x2, x);
+            double r2 = interpolate(q21, q22, x1, x2, x);
+            return interpolate(r1, r2, y1, y2, y);
+        }
+
+        private static double[] boundingAngles(List<Double> sortedAngles, double target) {
+            if (sortedAngles.size() == 1) {
+                return new double[]{sortedAngles.get(0), sortedAngles.get(0)};
+            }
+            double lower = sortedAngles.get(sortedAngles.size() - 1);
+            double upper = sortedAngles.get(0) + 360.0;
+            for (int i = 0; i < sortedAngles.size(); i++) {
+                double current = sortedAngles.get(i);
+                double next = i == sortedAngles.size() - 1 ? sortedAngles.get(0) + 360.0 : sortedAngles.get(i + 1);
+                if (target >= current && target <= next) {
+                    lower = current;
+                    upper = next;
+                    break;
+                }
+            }
+            return new double[]{lower, upper};
+        }
+    }
+}
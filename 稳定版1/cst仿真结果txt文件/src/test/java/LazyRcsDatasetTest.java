@@ -0,0 +1,125 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 按需加载：常驻内存按字节上限做 LRU 淘汰，空文件和无法解析的文件与一次性加载时一样被跳过，查询结果与一次性加载一致。
+ */
+class LazyRcsDatasetTest {
+    @TempDir
+    Path dataDirectory;
+
+    /**
+     * 三个方向、两个频率；方向 3 的 20 MHz 文件为空，方向 2 的 10 MHz 文件只有表头和无法解析的行。
+     */
+    @BeforeEach
+    void writeFixture() throws IOException {
+        CstFixtures.writeManifest(dataDirectory);
+        for (int direction = 1; direction <= 3; direction++) {
+            for (double frequency : new double[]{10, 20}) {
+                int d = direction;
+                CstFixtures.writeSlice(dataDirectory, direction, frequency, 15,
+                        (theta, phi) -> frequency - 10 * d + theta * 0.2 - phi * 0.03);
+            }
+        }
+        CstFixtures.writeFile(dataDirectory, 3, 20, "");
+        CstFixtures.writeFile(dataDirectory, 2, 10, CstFixtures.HEADER + "abc def ghi\n1 2\n");
+    }
+
+    @Test
+    void marksEmptyAndUnparseableSlices() {
+        DataReader reader = new DataReader(dataDirectory.toFile());
+        RcsTable eager = reader.readAllData();
+        LazyRcsDataset dataset = reader.openLazyDataset(1L << 30);
+
+        assertEquals(eager.getSliceCount(), dataset.getSliceCount());
+        int empty = 0;
+        for (int s = 0; s < dataset.getSliceCount(); s++) {
+            boolean eagerEmpty = eager.getSliceEnd(s) == eager.getSliceStart(s);
+            assertEquals(eagerEmpty, dataset.isSliceEmpty(s), "切片 " + s);
+            empty += eagerEmpty ? 1 : 0;
+        }
+        assertEquals(2, empty);
+        // 标记空切片只读文件开头，不会把切片加载进内存
+        assertEquals(0, dataset.getLoadCount());
+    }
+
+    @Test
+    void lookupsMatchEagerModeUnderTightMemoryLimit() {
+        DataReader reader = new DataReader(dataDirectory.toFile());
+        InterpolationEngine eager = new InterpolationEngine(reader.readAllData());
+        LazyRcsDataset probe = reader.openLazyDataset(1L << 30);
+        long sliceBytes = probe.getSlice(0).estimatedBytes();
+        // 只够常驻约两个切片，查询过程中会反复淘汰和重新加载
+        LazyRcsDataset dataset = reader.openLazyDataset(sliceBytes * 2 + sliceBytes / 2);
+        InterpolationEngine lazy = new InterpolationEngine(dataset);
+
+        for (InterpolationEngine.ObservationMode mode : InterpolationEngine.ObservationMode.values()) {
+            eager.setObservationMode(mode);
+            lazy.setObservationMode(mode);
+            Random random = new Random(7);
+            for (int i = 0; i < 400; i++) {
+                double frequency = 5 + random.nextDouble() * 20;
+                double elevation = random.nextDouble() * 360;
+                double azimuth = random.nextDouble() * 360;
+                double theta = random.nextDouble() * 180;
+                double phi = random.nextDouble() * 360;
+                assertEquals(eager.calculateRCS(frequency, elevation, azimuth, theta, phi),
+                        lazy.calculateRCS(frequency, elevation, azimuth, theta, phi),
+                        String.format("%s f=%s e=%s a=%s theta=%s phi=%s", mode, frequency, elevation, azimuth,
+                                theta, phi));
+            }
+        }
+        assertTrue(dataset.getEvictionCount() > 0, "上限只够两个切片时应当发生淘汰");
+        assertTrue(dataset.getResidentBytes() <= dataset.getMaxResidentBytes());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedSliceByBytes() {
+        DataReader reader = new DataReader(dataDirectory.toFile());
+        LazyRcsDataset probe = reader.openLazyDataset(1L << 30);
+        long sliceBytes = probe.getSlice(0).estimatedBytes();
+        // 目录中非空切片样本数相同，上限恰好容纳两个
+        LazyRcsDataset dataset = reader.openLazyDataset(sliceBytes * 2);
+
+        SliceData first = dataset.getSlice(0);
+        dataset.getSlice(1);
+        assertEquals(2, dataset.getResidentSliceCount());
+        assertEquals(2 * sliceBytes, dataset.getResidentBytes());
+
+        // 访问切片 0 使切片 1 成为最久未用，加载切片 4 时淘汰切片 1
+        assertSame(first, dataset.getSlice(0));
+        dataset.getSlice(4);
+        assertEquals(1, dataset.getEvictionCount());
+        assertEquals(2, dataset.getResidentSliceCount());
+        assertSame(first, dataset.getSlice(0));
+        assertEquals(3, dataset.getLoadCount());
+
+        dataset.getSlice(1);
+        assertEquals(4, dataset.getLoadCount());
+        assertEquals(2, dataset.getEvictionCount());
+        assertEquals(2, dataset.getHitCount());
+        assertTrue(dataset.getResidentBytes() <= dataset.getMaxResidentBytes());
+    }
+
+    @Test
+    void keepsSingleSliceLargerThanLimit() {
+        DataReader reader = new DataReader(dataDirectory.toFile());
+        LazyRcsDataset dataset = reader.openLazyDataset(1);
+        SliceData slice = dataset.getSlice(0);
+        assertFalse(slice.isEmpty());
+        assertEquals(1, dataset.getResidentSliceCount());
+        dataset.getSlice(1);
+        assertEquals(1, dataset.getResidentSliceCount());
+        assertEquals(1, dataset.getEvictionCount());
+    }
+}
@@ -0,0 +1,111 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 结果缓存：量化取整、命中/未命中计数、分段 LRU 淘汰，以及接入引擎后返回值不受命中与否影响。
+ */
+class RcsResultCacheTest {
+    private static final Object OWNER = new Object();
+
+    @Test
+    void snapsToQuantumAndWrapsAngles() {
+        RcsResultCache cache = new RcsResultCache(64, 0.5, 0.25);
+        assertEquals(10.0, cache.snapFrequency(10.2), 1e-12);
+        assertEquals(10.5, cache.snapFrequency(10.3), 1e-12);
+        assertEquals(12.25, cache.snapAngle(12.3), 1e-12);
+        assertEquals(270.0, cache.snapAngle(-90.1), 1e-12);
+        // 取整到 360° 的值归回 0°
+        assertEquals(0.0, cache.snapAngle(359.9), 1e-12);
+        assertEquals(0.0, cache.snapAngle(-0.1), 1e-12);
+        assertEquals(1.0, cache.snapAngle(721.0), 1e-12);
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        RcsResultCache cache = new RcsResultCache(64);
+        assertNull(cache.get(OWNER, 10, 0, 90, 30, 40));
+        cache.put(OWNER, 10, 0, 90, 30, 40, -12.5);
+
+        RcsResultCache.Entry entry = cache.get(OWNER, 10, 0, 90, 30, 40);
+        assertNotNull(entry);
+        assertEquals(-12.5, entry.getValue());
+        // 同一量化格内的参数共享结果
+        assertNotNull(cache.get(OWNER, 10.001, 0.002, 89.998, 30.004, 39.996));
+        // 其他数据版本的结果视为未命中
+        assertNull(cache.get(new Object(), 10, 0, 90, 30, 40));
+        // 相邻量化格
+        assertNull(cache.get(OWNER, 10, 0, 90, 30, 40.01));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(0.4, cache.getHitRate(), 1e-12);
+    }
+
+    @Test
+    void evictsBeyondCapacity() {
+        RcsResultCache cache = new RcsResultCache(32);
+        int inserted = 1000;
+        for (int i = 0; i < inserted; i++) {
+            cache.put(OWNER, 10, 0, 0, 0, i, i);
+        }
+        assertTrue(cache.size() <= 32, "缓存条数 " + cache.size() + " 超过容量");
+        assertEquals(inserted - cache.size(), cache.getEvictionCount());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void keepsRecentlyUsedEntries() {
+        // 每段容量 2：每次插入前都访问一次的条目始终不是最久未用的，不会被淘汰
+        RcsResultCache cache = new RcsResultCache(32);
+        cache.put(OWNER, 20, 0, 0, 0, 0, 7.0);
+        for (int i = 1; i <= 500; i++) {
+            assertNotNull(cache.get(OWNER, 20, 0, 0, 0, 0), "第 " + i + " 次插入前已被淘汰");
+            cache.put(OWNER, 10, 0, 0, 0, i, i);
+        }
+        assertEquals(7.0, cache.get(OWNER, 20, 0, 0, 0, 0).getValue());
+        assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    @Test
+    void engineServesSnappedResultsWhetherOrNotCached() {
+        RcsTable.Builder builder = new RcsTable.Builder();
+        for (double frequency : new double[]{10, 20}) {
+            builder.beginSlice(frequency, 0, 0);
+            for (double phi = 0; phi < 360; phi += 10) {
+                for (double theta = 0; theta <= 180; theta += 10) {
+                    builder.add(theta, phi, frequency + theta * 0.5 - phi * 0.1);
+                }
+            }
+        }
+        RcsTable table = builder.build();
+        InterpolationEngine uncached = new InterpolationEngine(table);
+        uncached.setObservationMode(InterpolationEngine.ObservationMode.BILINEAR);
+        InterpolationEngine cached = new InterpolationEngine(table);
+        cached.setObservationMode(InterpolationEngine.ObservationMode.BILINEAR);
+        RcsResultCache cache = new RcsResultCache(1024);
+        cached.setResultCache(cache);
+
+        // 第一次未命中并按取整后的参数计算，第二次在同一量化格内命中
+        double first = cached.calculateRCS(15.001, 0, 0, 33.334, 47.002);
+        double second = cached.calculateRCS(14.999, 0, 0, 33.330, 46.998);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(first, second);
+        assertEquals(uncached.calculateRCS(15.0, 0, 0, 33.33, 47.0), first);
+
+        // 切换模式后旧结果失效，返回新模式下的值
+        cached.setObservationMode(InterpolationEngine.ObservationMode.NEAREST);
+        uncached.setObservationMode(InterpolationEngine.ObservationMode.NEAREST);
+        double nearest = cached.calculateRCS(15.0, 0, 0, 33.33, 47.0);
+        assertEquals(uncached.calculateRCS(15.0, 0, 0, 33.33, 47.0), nearest);
+        assertNotEquals(first, nearest);
+        assertEquals(2, cache.getMissCount());
+    }
+}
@@ -0,0 +1,143 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 统计立方：在一个手算得出结果的小数据表上检查最值、平均值、峰值方向、分位数和各汇总轴。
+ */
+class RcsStatisticsTest {
+    // 分位数在 0.25 dB 的分箱内插值
+    private static final double BIN_WIDTH = 0.25;
+
+    private RcsTable table;
+    private RcsStatistics statistics;
+
+    /**
+     * 切片 0: f=10, 方向 (0,0)，-40 -30 -20 -10 dB
+     * 切片 1: f=10, 方向 (0,90)，0 NaN 6 dB
+     * 切片 2: f=20, 方向 (0,0)，10 20 dB
+     * 切片 3: f=20, 方向 (0,90)，没有样本
+     */
+    @BeforeEach
+    void buildTable() {
+        table = new RcsTable.Builder()
+                .beginSlice(10, 0, 0)
+                .add(0, 0, -40).add(10, 0, -30).add(20, 0, -20).add(30, 45, -10)
+                .beginSlice(10, 0, 90)
+                .add(0, 0, 0).add(10, 0, Double.NaN).add(90, 180, 6)
+                .beginSlice(20, 0, 0)
+                .add(60, 270, 20).add(0, 0, 10)
+                .beginSlice(20, 0, 90)
+                .build();
+        statistics = table.getStatistics();
+    }
+
+    @Test
+    void sliceSummariesMatchHandComputedValues() {
+        RcsStatistics.Summary first = statistics.getSlice(0);
+        assertEquals(4, first.getCount());
+        assertEquals(-40.0, first.getMin());
+        assertEquals(-10.0, first.getMax());
+        assertEquals(-25.0, first.getMean(), 1e-12);
+        assertEquals(30.0, first.getPeakTheta());
+        assertEquals(45.0, first.getPeakPhi());
+
+        // NaN 不参与统计
+        RcsStatistics.Summary second = statistics.getSlice(1);
+        assertEquals(2, second.getCount());
+        assertEquals(3.0, second.getMean(), 1e-12);
+        assertEquals(90.0, second.getPeakTheta());
+        assertEquals(180.0, second.getPeakPhi());
+
+        RcsStatistics.Summary empty = statistics.getSlice(3);
+        assertTrue(empty.isEmpty());
+        assertTrue(Double.isNaN(empty.getMin()));
+        assertTrue(Double.isNaN(empty.getMean()));
+        assertTrue(Double.isNaN(empty.percentile(0.5)));
+    }
+
+    @Test
+    void percentilesFollowOrderStatistics() {
+        RcsStatistics.Summary first = statistics.getSlice(0);
+        // 0 和 1 精确返回最值
+        assertEquals(-40.0, first.percentile(0));
+        assertEquals(-10.0, first.percentile(1));
+        // 四个样本：25% 落在 -40 所在分箱，50% 落在 -30，75% 落在 -20，误差不超过一个分箱
+        assertEquals(-40.0, first.percentile(0.25), BIN_WIDTH);
+        assertEquals(-30.0, first.percentile(0.5), BIN_WIDTH);
+        assertEquals(-20.0, first.percentile(0.75), BIN_WIDTH);
+        double previous = Double.NEGATIVE_INFINITY;
+        for (double fraction = 0; fraction <= 1; fraction += 0.05) {
+            double value = first.percentile(fraction);
+            assertTrue(value >= previous, "分位数随比例单调不减");
+            assertTrue(value >= first.getMin() && value <= first.getMax());
+            previous = value;
+        }
+
+        // 全表 8 个有效样本排序为 -40 -30 -20 -10 0 6 10 20，中位数落在第 4 个样本 -10 所在分箱
+        assertEquals(-10.0, statistics.getTotal().percentile(0.5), BIN_WIDTH);
+        assertEquals(10.0, statistics.getTotal().percentile(0.875), BIN_WIDTH);
+    }
+
+    @Test
+    void meanIsArithmeticInDecibels() {
+        // 平均值按 dB 值直接平均，不先换算成线性功率（m²）再平均
+        RcsStatistics.Summary second = statistics.getSlice(1);
+        double linearMean = (Math.pow(10, 0 / 10.0) + Math.pow(10, 6 / 10.0)) / 2;
+        double linearMeanDb = 10 * Math.log10(linearMean);
+        assertEquals(3.0, second.getMean(), 1e-12);
+        assertEquals(3.9629, linearMeanDb, 1e-4);
+        assertNotEquals(linearMeanDb, second.getMean(), 0.5);
+
+        // -40 dB 为 1e-4 m²，-10 dB 为 0.1 m²：两者的 dB 平均 -25 dB 对应几何平均值
+        RcsStatistics.Summary first = statistics.getSlice(0);
+        assertEquals(Math.sqrt(1e-4 * 0.1), Math.pow(10, (first.getMin() + first.getMax()) / 2 / 10), 1e-15);
+    }
+
+    @Test
+    void aggregatesMergeSlices() {
+        int f10 = indexOf(table.getFrequencies(), 10);
+        int f20 = indexOf(table.getFrequencies(), 20);
+        int d0 = table.getSliceDirectionIndex(0);
+        int d90 = table.getSliceDirectionIndex(1);
+
+        assertEquals(statistics.getSlice(0).getMean(), statistics.getCell(f10, d0).getMean());
+        assertTrue(statistics.getCell(f20, d90).isEmpty());
+
+        // f=10: -40 -30 -20 -10 0 6，和为 -94
+        RcsStatistics.Summary frequency = statistics.getFrequency(f10);
+        assertEquals(6, frequency.getCount());
+        assertEquals(-94.0 / 6, frequency.getMean(), 1e-12);
+        assertEquals(6.0, frequency.getMax());
+        assertEquals(90.0, frequency.getPeakTheta());
+
+        // 方向 (0,0): -40 -30 -20 -10 10 20，峰值在 f=20 的 (60, 270)
+        RcsStatistics.Summary direction = statistics.getDirection(d0);
+        assertEquals(6, direction.getCount());
+        assertEquals(-70.0 / 6, direction.getMean(), 1e-12);
+        assertEquals(-40.0, direction.getMin());
+        assertEquals(60.0, direction.getPeakTheta());
+        assertEquals(270.0, direction.getPeakPhi());
+
+        // 方向 (0,90) 只有 f=10 的两个样本，空切片不影响汇总
+        assertEquals(statistics.getSlice(1).getMean(), statistics.getDirection(d90).getMean(), 1e-12);
+
+        RcsStatistics.Summary total = statistics.getTotal();
+        assertEquals(8, total.getCount());
+        assertEquals(-64.0 / 8, total.getMean(), 1e-12);
+        assertEquals(-40.0, total.getMin());
+        assertEquals(20.0, total.getMax());
+    }
+
+    private static int indexOf(double[] values, double value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        throw new AssertionError("找不到 " + value);
+    }
+}